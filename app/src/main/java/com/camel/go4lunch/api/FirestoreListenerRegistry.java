@@ -0,0 +1,64 @@
+package com.camel.go4lunch.api;
+
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableOnSubscribe;
+
+/**
+ * Shares one snapshot listener per query key among all its subscribers.
+ * The listener is attached with the first subscriber, the last value is replayed to the following ones,
+ * and its registration is removed, with its key, once the last subscriber disposes.
+ * <p>
+ * A listener source registers its snapshot listener and sets the registration removal as the emitter cancellable.
+ */
+@Singleton
+public class FirestoreListenerRegistry {
+    private final HashMap<String, Observable<?>> mSharedListeners = new HashMap<>();
+    private final AtomicInteger mActiveListenerCount = new AtomicInteger();
+
+    @Inject
+    public FirestoreListenerRegistry() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public synchronized <T> Observable<T> observe(String key, ObservableOnSubscribe<T> listenerSource) {
+        Observable<T> sharedListener = (Observable<T>) mSharedListeners.get(key);
+        if(sharedListener == null) {
+            AtomicReference<Observable<T>> listener = new AtomicReference<>();
+            listener.set(Observable.create(listenerSource)
+                    .doOnSubscribe(disposable -> mActiveListenerCount.incrementAndGet())
+                    .doFinally(() -> {                      // Upstream of refCount, so only on the listener teardown
+                        mActiveListenerCount.decrementAndGet();
+                        removeSharedListener(key, listener.get());
+                    })
+                    .replay(1)
+                    .refCount());
+            sharedListener = listener.get();
+            mSharedListeners.put(key, sharedListener);
+        }
+        return sharedListener;
+    }
+
+    // Never a newer listener registered for the same key
+    private synchronized void removeSharedListener(String key, Observable<?> sharedListener) {
+        if(mSharedListeners.get(key) == sharedListener) {
+            mSharedListeners.remove(key);
+        }
+    }
+
+    // Amount of snapshot listeners currently attached
+    public int getActiveListenerCount() {
+        return mActiveListenerCount.get();
+    }
+
+    // Amount of query keys currently shared
+    public synchronized int getSharedListenerCount() {
+        return mSharedListeners.size();
+    }
+}
@@ -0,0 +1,111 @@
+package com.camel.go4lunch.api;
+
+import com.camel.go4lunch.models.DailyLunch;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * One document per day, lunches/{yyyy-MM-dd}, holding for each restaurant the workmates lunching there:
+ * restaurants.{restaurantId}.workmateIds.
+ * Never read to be written, choosing or removing a restaurant merges arrayUnion and arrayRemove on the
+ * restaurants concerned only, see WorkmateHelper.
+ */
+public class LunchHelper {
+
+    private static final String COLLECTION_NAME = "lunches";
+    private static final String DAY_FORMAT = "yyyy-MM-dd";
+    // Days change at midnight for the whole office, wherever the phone clock is set
+    public static final String OFFICE_TIME_ZONE_ID = "Europe/Paris";
+
+    public static final String FIELD_RESTAURANTS = "restaurants";
+    public static final String FIELD_WORKMATE_IDS = "workmateIds";
+
+    // --- Get ---
+    public static DocumentReference getLunchReferenceForDay(Date day){
+        return getLunchReferenceForDayId(getDayId(day));
+    }
+
+    public static DocumentReference getLunchReferenceForDayId(String dayId){
+        return FirebaseFirestore.getInstance().collection(COLLECTION_NAME).document(dayId);
+    }
+
+    public static String getDayId(Date day){
+        SimpleDateFormat dayFormat = new SimpleDateFormat(DAY_FORMAT, Locale.US);
+        dayFormat.setTimeZone(TimeZone.getTimeZone(OFFICE_TIME_ZONE_ID));
+        return dayFormat.format(day);
+    }
+
+    public static String getTodayId(){
+        return getDayId(new Date());
+    }
+
+    // Midnight starting the day in the office time zone
+    public static Date getDayStart(String dayId){
+        return getDayStartCalendar(dayId).getTime();
+    }
+
+    public static Date getNextDayStart(String dayId){
+        Calendar nextDay = getDayStartCalendar(dayId);
+        nextDay.add(Calendar.DAY_OF_MONTH, 1);
+        return nextDay.getTime();
+    }
+
+    private static Calendar getDayStartCalendar(String dayId){
+        SimpleDateFormat dayFormat = new SimpleDateFormat(DAY_FORMAT, Locale.US);
+        dayFormat.setTimeZone(TimeZone.getTimeZone(OFFICE_TIME_ZONE_ID));
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone(OFFICE_TIME_ZONE_ID), Locale.US);
+        try {
+            calendar.setTime(dayFormat.parse(dayId));
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Not a day id: " + dayId, e);
+        }
+        return calendar;
+    }
+
+    // --- Conversion ---
+    public static DailyLunch toDailyLunch(Map<String, Object> data){
+        DailyLunch dailyLunch = new DailyLunch();
+        if(data == null || !(data.get(FIELD_RESTAURANTS) instanceof Map)) {
+            return dailyLunch;
+        }
+
+        for (Map.Entry<?, ?> restaurant : ((Map<?, ?>) data.get(FIELD_RESTAURANTS)).entrySet()) {
+            if(restaurant.getValue() instanceof Map) {
+                Object workmateIds = ((Map<?, ?>) restaurant.getValue()).get(FIELD_WORKMATE_IDS);
+                if(workmateIds instanceof List) {
+                    for (Object workmateId : (List<?>) workmateIds) {
+                        dailyLunch.addWorkmate(restaurant.getKey().toString(), workmateId.toString());
+                    }
+                }
+            }
+        }
+        return dailyLunch;
+    }
+
+    // To merge into the day document, moves the workmate from one restaurant to the other, either may be null
+    public static Map<String, Object> toWorkmateMoveData(String workmateId, String fromRestaurantId, String toRestaurantId){
+        HashMap<String, Object> restaurants = new HashMap<>();
+        if(fromRestaurantId != null && !fromRestaurantId.equals(toRestaurantId)) {
+            restaurants.put(fromRestaurantId, Collections.singletonMap(FIELD_WORKMATE_IDS, FieldValue.arrayRemove(workmateId)));
+        }
+        if(toRestaurantId != null) {
+            restaurants.put(toRestaurantId, Collections.singletonMap(FIELD_WORKMATE_IDS, FieldValue.arrayUnion(workmateId)));
+        }
+
+        HashMap<String, Object> data = new HashMap<>();
+        data.put(FIELD_RESTAURANTS, restaurants);
+        return data;
+    }
+}
@@ -4,21 +4,35 @@ import com.google.android.gms.tasks.Task;
 import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+import com.camel.go4lunch.mappers.FirestoreDataToWorkmateMapper;
+import com.camel.go4lunch.mappers.WorkmateToFirestoreDataMapper;
 import com.camel.go4lunch.models.Workmate;
 
 import java.util.HashMap;
 import java.util.List;
 
-import static com.camel.go4lunch.utils.Utils.getTodayEndTimestamp;
-import static com.camel.go4lunch.utils.Utils.getTodayStartTimestamp;
-
 public class WorkmateHelper {
 
     private static final String COLLECTION_NAME = "workmates";
 
+    // --- Fields, named like the properties Firestore derives from the Workmate getters ---
+    public static final String FIELD_UID = "uid";
+    public static final String FIELD_FULL_NAME = "fullName";
+    public static final String FIELD_NICKNAME = "nickname";
+    public static final String FIELD_EMAIL = "email";
+    public static final String FIELD_PICTURE_URL = "pictureUrl";
+    public static final String FIELD_CHOSEN_RESTAURANT_ID = "chosenRestaurantId";
+    public static final String FIELD_CHOSEN_RESTAURANT_NAME = "chosenRestaurantName";
+    public static final String FIELD_CHOSEN_RESTAURANT_DATE = "chosenRestaurantDate";
+    public static final String FIELD_CHOSEN_DAY = "chosenDay";
+    public static final String FIELD_LIKED_RESTAURANTS = "likedRestaurants";
+
     // --- Collection ---
     public static CollectionReference getWorkmatesCollection(){
         return FirebaseFirestore.getInstance().collection(COLLECTION_NAME);
@@ -38,47 +52,126 @@ public class WorkmateHelper {
         return WorkmateHelper.getWorkmatesCollection().document(uid).get();
     }
 
-    public static Query getTodayWorkmateInterestedForRestaurantId(String restaurantId){
+    // Equality on the day key, no time window to compute and a single field index
+    public static Query getWorkmatesWithChosenRestaurantForDay(String dayId){
+        return WorkmateHelper.getWorkmatesCollection()
+                .whereEqualTo(FIELD_CHOSEN_DAY, dayId);
+    }
+
+    // Transitional, documents written before chosenDay existed only match the date of the choice.
+    // To be removed once no document without chosenDay is left
+    public static Query getLegacyWorkmatesWithChosenRestaurantForDay(String dayId){
         return WorkmateHelper.getWorkmatesCollection()
-                .whereEqualTo("chosenRestaurantId", restaurantId)
-                .whereGreaterThan("chosenRestaurantDate", getTodayStartTimestamp())
-                .whereLessThan("chosenRestaurantDate", getTodayEndTimestamp());
+                .whereGreaterThanOrEqualTo(FIELD_CHOSEN_RESTAURANT_DATE, LunchHelper.getDayStart(dayId))
+                .whereLessThan(FIELD_CHOSEN_RESTAURANT_DATE, LunchHelper.getNextDayStart(dayId));
+    }
+
+    // Ordered by restaurant name then nickname, needs the composite index of firestore.indexes.json.
+    // Ties are broken by document id when paging from a document
+    public static Query getChosenWorkmatesPage(String dayId, DocumentSnapshot startAfter, int pageSize){
+        Query query = WorkmateHelper.getWorkmatesCollection()
+                .whereEqualTo(FIELD_CHOSEN_DAY, dayId)
+                .orderBy(FIELD_CHOSEN_RESTAURANT_NAME)
+                .orderBy(FIELD_NICKNAME);
+        if(startAfter != null) {
+            query = query.startAfter(startAfter);
+        }
+        return query.limit(pageSize);
+    }
+
+    // Ordered by document id, the order of the collection, which never moves a workmate to another page
+    public static Query getWorkmatesPage(DocumentSnapshot startAfter, int pageSize){
+        Query query = WorkmateHelper.getWorkmatesCollection()
+                .orderBy(FieldPath.documentId());
+        if(startAfter != null) {
+            query = query.startAfter(startAfter);
+        }
+        return query.limit(pageSize);
     }
 
     // --- Create ---
     public static Task<Void> setWorkmate(Workmate workmate) {
-        return WorkmateHelper.getWorkmatesCollection().document(workmate.getUId()).set(workmate);
+        return WorkmateHelper.getWorkmatesCollection().document(workmate.getUId()).set(new WorkmateToFirestoreDataMapper().apply(workmate));
     }
 
     // --- Update ---
 
+    // Only the workmate's own document is read, today's lunch document gets field changes merged without a read,
+    // so choices of the whole office never contend on it. Both are still written in the same transaction
     public static Task<Void> setChosenRestaurantForUserId(String workmateUId, String restaurantUId, String restaurantName) {
+        String todayId = LunchHelper.getTodayId();
         HashMap<String, Object> hashMap = new HashMap<>();
-        hashMap.put("chosenRestaurantId", restaurantUId);
-        hashMap.put("chosenRestaurantName", restaurantName);
-        hashMap.put("chosenRestaurantDate", FieldValue.serverTimestamp());
-        return WorkmateHelper.getWorkmatesCollection().document(workmateUId).update(hashMap);
+        hashMap.put(FIELD_CHOSEN_RESTAURANT_ID, restaurantUId);
+        hashMap.put(FIELD_CHOSEN_RESTAURANT_NAME, restaurantName);
+        hashMap.put(FIELD_CHOSEN_RESTAURANT_DATE, FieldValue.serverTimestamp());
+        hashMap.put(FIELD_CHOSEN_DAY, todayId);
+
+        return moveWorkmate(workmateUId, restaurantUId, hashMap, todayId);
     }
 
     public static Task<Void> removeChosenRestaurantForUserId(String uId) {
         HashMap<String, Object> hashMap = new HashMap<>();
-        hashMap.put("chosenRestaurantId", "");
-        hashMap.put("chosenRestaurantName", "");
-        return WorkmateHelper.getWorkmatesCollection().document(uId).update(hashMap);
+        hashMap.put(FIELD_CHOSEN_RESTAURANT_ID, "");
+        hashMap.put(FIELD_CHOSEN_RESTAURANT_NAME, "");
+        hashMap.put(FIELD_CHOSEN_DAY, "");
+
+        return moveWorkmate(uId, null, hashMap, LunchHelper.getTodayId());
     }
 
-    public static Task<Void> setLikedRestaurantForCurrentUser(String workmateUId, List<String> likedRestaurants) {
-        HashMap<String, Object> hashMap = new HashMap<>();
-        hashMap.put("likedRestaurants", likedRestaurants);
-        return WorkmateHelper.getWorkmatesCollection().document(workmateUId).update(hashMap);
+    private static Task<Void> moveWorkmate(String workmateUId, String restaurantUId, HashMap<String, Object> workmateData, String dayId) {
+        DocumentReference workmateReference = WorkmateHelper.getWorkmatesCollection().document(workmateUId);
+        DocumentReference lunchReference = LunchHelper.getLunchReferenceForDayId(dayId);
+        return FirebaseFirestore.getInstance().runTransaction(transaction -> {
+            String previousRestaurantUId = getChosenRestaurantIdForDay(transaction.get(workmateReference), dayId);
+            transaction.set(lunchReference,
+                    LunchHelper.toWorkmateMoveData(workmateUId, previousRestaurantUId, restaurantUId),
+                    SetOptions.merge());
+            transaction.update(workmateReference, workmateData);
+            return null;
+        });
+    }
+
+    // The restaurant the document says the workmate lunches at on that day, null if none
+    private static String getChosenRestaurantIdForDay(DocumentSnapshot workmateDocument, String dayId) {
+        if(workmateDocument.getData() == null) {
+            return null;
+        }
+        Workmate workmate = new FirestoreDataToWorkmateMapper().apply(workmateDocument.getData());
+        String chosenDay = workmate.getChosenDay();
+        if(chosenDay == null && workmate.getChosenRestaurantDate() != null) {      // Not migrated yet
+            chosenDay = LunchHelper.getDayId(workmate.getChosenRestaurantDate());
+        }
+        String restaurantUId = workmate.getChosenRestaurantId();
+        if(!dayId.equals(chosenDay) || restaurantUId == null || restaurantUId.isEmpty()) {
+            return null;
+        }
+        return restaurantUId;
+    }
+
+    // Migration of documents written before chosenDay existed
+    public static Task<Void> setChosenDayForUserId(String workmateUId, String chosenDay) {
+        return WorkmateHelper.getWorkmatesCollection().document(workmateUId).update(FIELD_CHOSEN_DAY, chosenDay);
+    }
+
+    // Field level deltas, the whole list is never rewritten
+    public static Task<Void> updateLikedRestaurantsForUserId(String workmateUId, List<String> addedRestaurants, List<String> removedRestaurants) {
+        DocumentReference workmateReference = WorkmateHelper.getWorkmatesCollection().document(workmateUId);
+        WriteBatch batch = FirebaseFirestore.getInstance().batch();
+        if(!addedRestaurants.isEmpty()) {
+            batch.update(workmateReference, FIELD_LIKED_RESTAURANTS, FieldValue.arrayUnion(addedRestaurants.toArray()));
+        }
+        if(!removedRestaurants.isEmpty()) {
+            batch.update(workmateReference, FIELD_LIKED_RESTAURANTS, FieldValue.arrayRemove(removedRestaurants.toArray()));
+        }
+        return batch.commit();
     }
 
     public static void updateWorkmateNickname(String workmateUId, String nickname) {
-        WorkmateHelper.getWorkmatesCollection().document(workmateUId).update("nickname", nickname);
+        WorkmateHelper.getWorkmatesCollection().document(workmateUId).update(FIELD_NICKNAME, nickname);
     }
 
     public static void updateCurrentUserProfileUrl(String workmateUId, String url) {
-        WorkmateHelper.getWorkmatesCollection().document(workmateUId).update("pictureUrl", url);
+        WorkmateHelper.getWorkmatesCollection().document(workmateUId).update(FIELD_PICTURE_URL, url);
     }
 }
 
@@ -0,0 +1,116 @@
+package com.camel.go4lunch.cache;
+
+import com.camel.go4lunch.models.googlePlaceResult.PlaceSearch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In memory Nearby Search results stored per geohash cell.
+ * A cell only holds the places located inside it, so adjacent cells never overlap.
+ * A cell truncated by the API keeps the next page token of its last page, it is only served
+ * while the token can still be used, so its next places can always be paged.
+ */
+public class NearbyTileCache {
+    private final long mTtlMillis;
+    private final long mPageTokenTtlMillis;
+    private final int mMaxTiles;
+    private final HashMap<String, Tile> mTiles = new HashMap<>();
+
+    public NearbyTileCache(long ttlMillis, long pageTokenTtlMillis, int maxTiles) {
+        mTtlMillis = ttlMillis;
+        mPageTokenTtlMillis = pageTokenTtlMillis;
+        mMaxTiles = maxTiles;
+    }
+
+    public synchronized Tile get(String geoHash) {
+        Tile tile = mTiles.get(geoHash);
+        if(tile == null) {
+            return null;
+        }
+        if(isExpired(tile)) {
+            mTiles.remove(geoHash);
+            return null;
+        }
+        return tile;
+    }
+
+    // First page of a cell, nextPageToken is null when the cell holds all its places
+    public synchronized void put(String geoHash, List<PlaceSearch> placeSearches, String nextPageToken) {
+        long now = System.currentTimeMillis();
+        mTiles.put(geoHash, new Tile(now, new ArrayList<>(placeSearches), nextPageToken, now));
+        trimToSize();
+    }
+
+    // Next page of a cell already cached, ignored once the cell expired
+    public synchronized void append(String geoHash, List<PlaceSearch> placeSearches, String nextPageToken) {
+        Tile tile = get(geoHash);
+        if(tile == null) {
+            return;
+        }
+        List<PlaceSearch> allPlaceSearches = new ArrayList<>(tile.mPlaceSearches);
+        allPlaceSearches.addAll(placeSearches);
+        mTiles.put(geoHash, new Tile(tile.mSavedAt, allPlaceSearches, nextPageToken, System.currentTimeMillis()));
+    }
+
+    public synchronized void clear() {
+        mTiles.clear();
+    }
+
+    private void trimToSize() {
+        Iterator<Map.Entry<String, Tile>> iterator = mTiles.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if(isExpired(iterator.next().getValue())) {
+                iterator.remove();
+            }
+        }
+
+        while (mTiles.size() > mMaxTiles) {
+            String oldestGeoHash = null;
+            long oldestSavedAt = Long.MAX_VALUE;
+            for (Map.Entry<String, Tile> entry : mTiles.entrySet()) {
+                if(entry.getValue().mSavedAt < oldestSavedAt) {
+                    oldestSavedAt = entry.getValue().mSavedAt;
+                    oldestGeoHash = entry.getKey();
+                }
+            }
+            mTiles.remove(oldestGeoHash);
+        }
+    }
+
+    private boolean isExpired(Tile tile) {
+        long now = System.currentTimeMillis();
+        return now - tile.mSavedAt > mTtlMillis
+                || (tile.isTruncated() && now - tile.mPageTokenSavedAt > mPageTokenTtlMillis);
+    }
+
+    public static class Tile {
+        private final long mSavedAt;
+        private final List<PlaceSearch> mPlaceSearches;
+        private final String mNextPageToken;
+        private final long mPageTokenSavedAt;
+
+        Tile(long savedAt, List<PlaceSearch> placeSearches, String nextPageToken, long pageTokenSavedAt) {
+            mSavedAt = savedAt;
+            mPlaceSearches = Collections.unmodifiableList(placeSearches);
+            mNextPageToken = nextPageToken;
+            mPageTokenSavedAt = pageTokenSavedAt;
+        }
+
+        public List<PlaceSearch> getPlaceSearches() {
+            return mPlaceSearches;
+        }
+
+        public String getNextPageToken() {
+            return mNextPageToken;
+        }
+
+        public boolean isTruncated() {
+            return mNextPageToken != null && !mNextPageToken.isEmpty();
+        }
+    }
+}
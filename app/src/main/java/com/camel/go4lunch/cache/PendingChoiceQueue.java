@@ -0,0 +1,185 @@
+package com.camel.go4lunch.cache;
+
+import android.util.Log;
+
+import com.camel.go4lunch.models.PendingChoice;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+/**
+ * Disk backed queue of the choices waiting for Firestore, so a choice made offline survives process death.
+ * Only the head may be in flight, a newer choice of the same workmate replaces the ones queued behind it.
+ * <p>
+ * The file is read and written on the given executor, a single thread one so writes land in order.
+ * Writes requested while one is waiting are merged into it, the latest queue is written.
+ * A choice is offered without waiting for the read, it is queued on the executor behind it.
+ */
+public class PendingChoiceQueue {
+    private static final String TAG = "PendingChoiceQueue";
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+    private static final Type LIST_TYPE = new TypeToken<ArrayList<PendingChoice>>(){}.getType();
+
+    private final File mFile;
+    private final Executor mExecutor;
+    private final Gson mGson = new Gson();
+    private final List<PendingChoice> mChoices = new ArrayList<>();
+    private final List<PendingChoice> mOffered = new ArrayList<>();
+    private final CountDownLatch mLoadedLatch = new CountDownLatch(1);
+    private boolean mWriteScheduled;
+
+    public PendingChoiceQueue(File file, Executor executor) {
+        mFile = file;
+        mExecutor = executor;
+        mExecutor.execute(this::load);
+    }
+
+    public void offer(PendingChoice choice) {
+        offer(choice, () -> {});
+    }
+
+    // Called from the UI thread, onQueued runs on the executor once the choice is in the queue
+    public void offer(PendingChoice choice, Runnable onQueued) {
+        synchronized (this) {
+            mOffered.add(choice);
+        }
+        mExecutor.execute(() -> {
+            queue(choice);
+            onQueued.run();
+        });
+    }
+
+    // Behind the read on the executor, never waits
+    private synchronized void queue(PendingChoice choice) {
+        awaitLoaded();
+        mOffered.remove(choice);
+        for (int i = mChoices.size() - 1; i > 0; i--) {
+            if(mChoices.get(i).getWorkmateUId().equals(choice.getWorkmateUId())) {
+                mChoices.remove(i);
+            }
+        }
+        mChoices.add(choice);
+        scheduleWrite();
+    }
+
+    public synchronized PendingChoice peek() {
+        awaitLoaded();
+        return mChoices.isEmpty() ? null : mChoices.get(0);
+    }
+
+    public synchronized void remove(PendingChoice choice) {
+        awaitLoaded();
+        for (int i = 0; i < mChoices.size(); i++) {
+            if(mChoices.get(i).getId().equals(choice.getId())) {
+                mChoices.remove(i);
+                scheduleWrite();
+                return;
+            }
+        }
+    }
+
+    // The choice the workmate will end up with once the queue is written
+    public synchronized PendingChoice getLatest(String workmateUId) {
+        for (int i = mOffered.size() - 1; i >= 0; i--) {
+            if(mOffered.get(i).getWorkmateUId().equals(workmateUId)) {
+                return mOffered.get(i);
+            }
+        }
+        awaitLoaded();
+        for (int i = mChoices.size() - 1; i >= 0; i--) {
+            if(mChoices.get(i).getWorkmateUId().equals(workmateUId)) {
+                return mChoices.get(i);
+            }
+        }
+        return null;
+    }
+
+    public synchronized int size() {
+        awaitLoaded();
+        return mChoices.size();
+    }
+
+    // Only waits if the queue is used before the executor got to read it
+    private void awaitLoaded() {
+        try {
+            mLoadedLatch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // No lock, the callers wait on the latch while holding it and see the choices once it opens
+    private void load() {
+        mChoices.addAll(read());
+        mLoadedLatch.countDown();
+    }
+
+    private List<PendingChoice> read() {
+        List<PendingChoice> choices = new ArrayList<>();
+        if(!mFile.exists()) {
+            return choices;
+        }
+
+        try (Reader reader = new InputStreamReader(new FileInputStream(mFile), StandardCharsets.UTF_8)) {
+            List<PendingChoice> readChoices = mGson.fromJson(reader, LIST_TYPE);
+            if(readChoices != null) {
+                choices.addAll(readChoices);
+            }
+        } catch (IOException | JsonParseException e) {
+            Log.e(TAG, "read: ", e);
+            mFile.delete();
+        }
+        return choices;
+    }
+
+    // Called with the queue lock held
+    private void scheduleWrite() {
+        if(!mWriteScheduled) {
+            mWriteScheduled = true;
+            mExecutor.execute(this::writeLatest);
+        }
+    }
+
+    private void writeLatest() {
+        List<PendingChoice> choices;
+        synchronized (this) {
+            mWriteScheduled = false;
+            choices = new ArrayList<>(mChoices);
+        }
+        write(choices);
+    }
+
+    private void write(List<PendingChoice> choices) {
+        File directory = mFile.getParentFile();
+        if(directory != null && !directory.exists() && !directory.mkdirs()) {
+            return;
+        }
+
+        // Written aside then renamed, a crash while writing never leaves a truncated queue
+        File temporaryFile = new File(mFile.getPath() + TEMPORARY_EXTENSION);
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(temporaryFile), StandardCharsets.UTF_8)) {
+            mGson.toJson(choices, LIST_TYPE, writer);
+        } catch (IOException e) {
+            Log.e(TAG, "write: ", e);
+            return;
+        }
+        if(!temporaryFile.renameTo(mFile)) {
+            Log.e(TAG, "write: rename failed");
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.camel.go4lunch.cache;
+
+import android.util.Log;
+
+import com.camel.go4lunch.models.googlePlaceDetailsResult.PlaceDetailsResults;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Disk backed cache of Places Details responses, one json file per place_id.
+ * Entries older than the TTL are ignored and the least recently written files
+ * are evicted once the directory grows over the size budget.
+ */
+public class PlaceDetailsCache {
+    private static final String TAG = "PlaceDetailsCache";
+    private static final String FILE_EXTENSION = ".json";
+
+    private final File mDirectory;
+    private final long mTtlMillis;
+    private final long mMaxSizeBytes;
+    private final Gson mGson = new Gson();
+
+    public PlaceDetailsCache(File directory, long ttlMillis, long maxSizeBytes) {
+        mDirectory = directory;
+        mTtlMillis = ttlMillis;
+        mMaxSizeBytes = maxSizeBytes;
+    }
+
+    public synchronized PlaceDetailsResults get(String placeId) {
+        File file = getFile(placeId);
+        if(!file.exists()) {
+            return null;
+        }
+
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            CacheEntry entry = mGson.fromJson(reader, CacheEntry.class);
+            if(entry == null || entry.mResults == null || isExpired(entry.mSavedAt)) {
+                file.delete();
+                return null;
+            }
+            return entry.mResults;
+        } catch (IOException | JsonParseException e) {
+            Log.e(TAG, "get: ", e);
+            file.delete();
+            return null;
+        }
+    }
+
+    public synchronized void put(String placeId, PlaceDetailsResults results) {
+        if(!mDirectory.exists() && !mDirectory.mkdirs()) {
+            return;
+        }
+
+        CacheEntry entry = new CacheEntry();
+        entry.mSavedAt = System.currentTimeMillis();
+        entry.mResults = results;
+
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(getFile(placeId)), StandardCharsets.UTF_8)) {
+            mGson.toJson(entry, writer);
+        } catch (IOException e) {
+            Log.e(TAG, "put: ", e);
+            return;
+        }
+
+        trimToSize();
+    }
+
+    public synchronized void clear() {
+        File[] files = mDirectory.listFiles();
+        if(files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    private void trimToSize() {
+        File[] files = mDirectory.listFiles();
+        if(files == null) {
+            return;
+        }
+
+        long size = 0;
+        for (File file : files) {
+            size += file.length();
+        }
+        if(size <= mMaxSizeBytes) {
+            return;
+        }
+
+        Arrays.sort(files, (file1, file2) -> Long.compare(file1.lastModified(), file2.lastModified()));
+        for (File file : files) {
+            if(size <= mMaxSizeBytes) {
+                break;
+            }
+            long length = file.length();
+            if(file.delete()) {
+                size -= length;
+            }
+        }
+    }
+
+    private boolean isExpired(long savedAt) {
+        return System.currentTimeMillis() - savedAt > mTtlMillis;
+    }
+
+    private File getFile(String placeId) {
+        return new File(mDirectory, placeId + FILE_EXTENSION);
+    }
+
+    private static class CacheEntry {
+        long mSavedAt;
+        PlaceDetailsResults mResults;
+    }
+}
@@ -0,0 +1,54 @@
+package com.camel.go4lunch.injection;
+
+import android.content.Context;
+
+import com.camel.go4lunch.cache.NearbyTileCache;
+import com.camel.go4lunch.cache.PendingChoiceQueue;
+import com.camel.go4lunch.cache.PlaceDetailsCache;
+
+import java.io.File;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Singleton;
+
+import dagger.Module;
+import dagger.Provides;
+import dagger.hilt.InstallIn;
+import dagger.hilt.android.qualifiers.ApplicationContext;
+import dagger.hilt.components.SingletonComponent;
+
+@Module
+@InstallIn(SingletonComponent.class)
+public class CacheModule {
+    private static final String PLACE_DETAILS_DIRECTORY = "place_details";
+    private static final long PLACE_DETAILS_TTL_MILLIS = TimeUnit.DAYS.toMillis(3);
+    private static final long PLACE_DETAILS_MAX_SIZE_BYTES = 2 * 1024 * 1024; // 2 MB
+    private static final long NEARBY_TILES_TTL_MILLIS = TimeUnit.HOURS.toMillis(6);
+    private static final long NEARBY_PAGE_TOKEN_TTL_MILLIS = TimeUnit.MINUTES.toMillis(2); // Next page tokens are short lived
+    private static final int NEARBY_TILES_MAX_COUNT = 256;
+    private static final String PENDING_CHOICES_FILE = "pending_choices.json";
+
+    @Singleton
+    @Provides
+    PlaceDetailsCache providePlaceDetailsCache(@ApplicationContext Context context) {
+        return new PlaceDetailsCache(new File(context.getCacheDir(), PLACE_DETAILS_DIRECTORY),
+                PLACE_DETAILS_TTL_MILLIS,
+                PLACE_DETAILS_MAX_SIZE_BYTES);
+    }
+
+    @Singleton
+    @Provides
+    NearbyTileCache provideNearbyTileCache() {
+        return new NearbyTileCache(NEARBY_TILES_TTL_MILLIS, NEARBY_PAGE_TOKEN_TTL_MILLIS, NEARBY_TILES_MAX_COUNT);
+    }
+
+    // In the files directory, the system may clear the cache directory while a choice is still queued.
+    // Its own single thread, so the queue file is never read or written on the main thread
+    @Singleton
+    @Provides
+    PendingChoiceQueue providePendingChoiceQueue(@ApplicationContext Context context) {
+        return new PendingChoiceQueue(new File(context.getFilesDir(), PENDING_CHOICES_FILE),
+                Executors.newSingleThreadExecutor());
+    }
+}
@@ -0,0 +1,77 @@
+package com.camel.go4lunch.mappers;
+
+import com.camel.go4lunch.models.Workmate;
+import com.google.firebase.Timestamp;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import io.reactivex.annotations.NonNull;
+import io.reactivex.functions.Function;
+
+import static com.camel.go4lunch.api.WorkmateHelper.FIELD_CHOSEN_DAY;
+import static com.camel.go4lunch.api.WorkmateHelper.FIELD_CHOSEN_RESTAURANT_DATE;
+import static com.camel.go4lunch.api.WorkmateHelper.FIELD_CHOSEN_RESTAURANT_ID;
+import static com.camel.go4lunch.api.WorkmateHelper.FIELD_CHOSEN_RESTAURANT_NAME;
+import static com.camel.go4lunch.api.WorkmateHelper.FIELD_EMAIL;
+import static com.camel.go4lunch.api.WorkmateHelper.FIELD_FULL_NAME;
+import static com.camel.go4lunch.api.WorkmateHelper.FIELD_LIKED_RESTAURANTS;
+import static com.camel.go4lunch.api.WorkmateHelper.FIELD_NICKNAME;
+import static com.camel.go4lunch.api.WorkmateHelper.FIELD_PICTURE_URL;
+import static com.camel.go4lunch.api.WorkmateHelper.FIELD_UID;
+
+// Reads DocumentSnapshot.getData() without the reflection of toObject(), missing fields keep the Workmate defaults
+public class FirestoreDataToWorkmateMapper implements Function<Map<String, Object>, Workmate> {
+
+    @Override
+    public Workmate apply(@NonNull Map<String, Object> data) {
+        Workmate workmate = new Workmate();
+
+        workmate.setUId(getString(data, FIELD_UID));
+        workmate.setFullName(getString(data, FIELD_FULL_NAME));
+        workmate.setNickname(getString(data, FIELD_NICKNAME));
+        workmate.setEmail(getString(data, FIELD_EMAIL));
+        workmate.setPictureUrl(getString(data, FIELD_PICTURE_URL));
+        if(data.containsKey(FIELD_CHOSEN_RESTAURANT_ID)) {
+            workmate.setChosenRestaurantId(getString(data, FIELD_CHOSEN_RESTAURANT_ID));
+        }
+        if(data.containsKey(FIELD_CHOSEN_RESTAURANT_NAME)) {
+            workmate.setChosenRestaurantName(getString(data, FIELD_CHOSEN_RESTAURANT_NAME));
+        }
+        workmate.setChosenRestaurantDate(getDate(data.get(FIELD_CHOSEN_RESTAURANT_DATE)));
+        workmate.setChosenDay(getString(data, FIELD_CHOSEN_DAY));
+        if(data.containsKey(FIELD_LIKED_RESTAURANTS)) {
+            workmate.setLikedRestaurants(getStringList(data.get(FIELD_LIKED_RESTAURANTS)));
+        }
+
+        return workmate;
+    }
+
+    private String getString(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        return value != null ? value.toString() : null;
+    }
+
+    private Date getDate(Object value) {
+        if(value instanceof Timestamp) {
+            return ((Timestamp) value).toDate();
+        } else if(value instanceof Date) {
+            return (Date) value;
+        }
+        return null;
+    }
+
+    private List<String> getStringList(Object value) {
+        if(!(value instanceof List)) {
+            return null;
+        }
+        List<?> values = (List<?>) value;
+        List<String> strings = new ArrayList<>(values.size());
+        for (Object item : values) {
+            strings.add(item != null ? item.toString() : null);
+        }
+        return strings;
+    }
+}
@@ -20,11 +20,41 @@ public class NearbyPlacesResultToRestaurantMapper implements Function<PlaceSearc
 
         for(PlaceSearch placeSearch : results.getPlaceSearches()){
             if(placeSearch.getBusinessStatus()!= null && placeSearch.getBusinessStatus().equals(OPERATIONAL_BUSINESS_STATUS)) {
-                Restaurant restaurant = new Restaurant(placeSearch.getPlaceId());
-                restaurantList.add(restaurant);
+                restaurantList.add(createRestaurant(placeSearch));
             }
         }
 
         return restaurantList;
     }
+
+    // Lightweight restaurant displayed until its details are loaded
+    private Restaurant createRestaurant(PlaceSearch placeSearch) {
+        Restaurant.Builder restaurant = new Restaurant.Builder(placeSearch.getPlaceId());
+        restaurant.setName(placeSearch.getName());
+        restaurant.setAddress(placeSearch.getVicinity());
+
+        if(placeSearch.getPlaceSearchGeometry() != null && placeSearch.getPlaceSearchGeometry().getLocation() != null) {
+            double latitude = placeSearch.getPlaceSearchGeometry().getLocation().getLat();
+            double longitude = placeSearch.getPlaceSearchGeometry().getLocation().getLng();
+            restaurant.setLocation(latitude, longitude);
+
+            String photoReference = null;
+            if(placeSearch.getPhotos() != null && !placeSearch.getPhotos().isEmpty()) {
+                photoReference = placeSearch.getPhotos().get(0).getPhotoReference();
+            }
+            restaurant.setPhotoUrl(RestaurantMapperUtils.getPhotoUrl(photoReference, latitude, longitude));
+        }
+
+        if(placeSearch.getRating() != null) {
+            RestaurantMapperUtils.setRating(restaurant, placeSearch.getRating().floatValue());
+        } else {
+            RestaurantMapperUtils.setRating(restaurant, 0);
+        }
+
+        if(placeSearch.getOpeningHours() != null) {
+            restaurant.setOpenNow(placeSearch.getOpeningHours().getOpenNow());
+        }
+
+        return restaurant.build();
+    }
 }
@@ -1,9 +1,7 @@
 package com.camel.go4lunch.mappers;
 
-import android.location.Location;
 import android.view.View;
 
-import com.camel.go4lunch.BuildConfig;
 import com.camel.go4lunch.models.OpenPeriod;
 import com.camel.go4lunch.models.Restaurant;
 import com.camel.go4lunch.models.googlePlaceDetailsResult.AddressComponent;
@@ -11,15 +9,14 @@ import com.camel.go4lunch.models.googlePlaceDetailsResult.Period;
 import com.camel.go4lunch.models.googlePlaceDetailsResult.PlaceDetails;
 import com.camel.go4lunch.models.googlePlaceDetailsResult.PlaceDetailsResults;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import io.reactivex.annotations.NonNull;
 import io.reactivex.functions.Function;
 
+// Details completed on a builder of the pending restaurant, whose Nearby fields the details don't request (open now) are kept
 public class PlaceDetailsResultToRestaurantMapper implements Function<PlaceDetailsResults, Restaurant> {
-    private static final String MAP_PHOTO_URL = "https://maps.googleapis.com/maps/api/place/photo?photoreference=%s&key=%s&maxwidth=800";
-    private static final String GEOAPIFY_PHOTO_URL = "https://maps.geoapify.com/v1/staticmap?style=osm-carto&width=600&height=400&center=lonlat:%s,%s&zoom=17&marker=lonlat:%s,%s;color:%%23ff5721;size:xx-large&apiKey=%s";
-
     private final Restaurant mRestaurant;
 
     public PlaceDetailsResultToRestaurantMapper(Restaurant restaurant) {
@@ -29,98 +26,84 @@ public class PlaceDetailsResultToRestaurantMapper implements Function<PlaceDetai
     @Override
     public Restaurant apply(@NonNull PlaceDetailsResults results) {
         PlaceDetails placeDetail = results.getPlaceDetails();
-
-        setLocation(placeDetail);
-        setAddress(placeDetail);
-        setOpeningData(placeDetail);
-        setRating(placeDetail);
-
-        mRestaurant.setName(placeDetail.getName());
-        mRestaurant.setPhotoUrl(getPhotoUrl(placeDetail));
-        mRestaurant.setPhoneNumber(placeDetail.getInternationalPhoneNumber());
-        mRestaurant.setWebsite(placeDetail.getWebsite());
-
-        if(mRestaurant.getPhoneNumber() != null && !mRestaurant.getPhoneNumber().isEmpty()) {
-            mRestaurant.setDetailsCallLlVisibility(View.VISIBLE);
+        Restaurant.Builder restaurant = mRestaurant.toBuilder();
+
+        double latitude = placeDetail.getPlaceDetailsGeometry().getLocation().getLat();
+        double longitude = placeDetail.getPlaceDetailsGeometry().getLocation().getLng();
+        restaurant.setLocation(latitude, longitude);
+        restaurant.setAddress(getAddress(placeDetail));
+        setOpeningData(restaurant, placeDetail);
+        RestaurantMapperUtils.setRating(restaurant, placeDetail.getRating());
+
+        restaurant.setName(placeDetail.getName());
+        restaurant.setPhotoUrl(getPhotoUrl(placeDetail, latitude, longitude));
+        restaurant.setPhoneNumber(placeDetail.getInternationalPhoneNumber());
+        restaurant.setWebsite(placeDetail.getWebsite());
+
+        if(placeDetail.getInternationalPhoneNumber() != null && !placeDetail.getInternationalPhoneNumber().isEmpty()) {
+            restaurant.setDetailsCallLlVisibility(View.VISIBLE);
         } else {
-            mRestaurant.setDetailsCallLlVisibility(View.GONE);
+            restaurant.setDetailsCallLlVisibility(View.GONE);
         }
 
-        if(mRestaurant.getWebsite() != null && !mRestaurant.getWebsite().isEmpty()) {
-            mRestaurant.setDetailsWebsiteLlVisibility(View.VISIBLE);
+        if(placeDetail.getWebsite() != null && !placeDetail.getWebsite().isEmpty()) {
+            restaurant.setDetailsWebsiteLlVisibility(View.VISIBLE);
         } else {
-            mRestaurant.setDetailsWebsiteLlVisibility(View.GONE);
+            restaurant.setDetailsWebsiteLlVisibility(View.GONE);
         }
 
-        return mRestaurant;
+        restaurant.setDetailsLoaded(true);
+        return restaurant.build();
     }
 
-    private void setLocation(PlaceDetails placeDetail){
-        Location location = new Location("");
-        location.setLatitude(placeDetail.getPlaceDetailsGeometry().getLocation().getLat());
-        location.setLongitude(placeDetail.getPlaceDetailsGeometry().getLocation().getLng());
-
-        mRestaurant.setLocation(location);
-    }
-
-    private void setAddress(PlaceDetails placeDetail) {
+    private String getAddress(PlaceDetails placeDetail) {
         String address = getAddressFromAddressComponents(placeDetail.getAddressComponents());
         if(address.isEmpty()){
             address = placeDetail.getVicinity();
         }
-        mRestaurant.setAddress(address);
+        return address;
     }
 
-    private void setOpeningData(PlaceDetails placeDetail) {
+    // The schedule is compiled once, when the restaurant is built
+    private void setOpeningData(Restaurant.Builder restaurant, PlaceDetails placeDetail) {
         if(placeDetail.getOpeningHours() != null) {
-            mRestaurant.setOpeningHoursAvailable(true);
+            restaurant.setOpeningHoursAvailable(true);
 
+            List<OpenPeriod> openingPeriods = new ArrayList<>();
             if(placeDetail.getOpeningHours().getPeriods() != null) {
 
                 for (Period period : placeDetail.getOpeningHours().getPeriods()) {
                     if(period.getClose() != null) {
+                        String openTime = period.getOpen().getTime();
+                        String closeTime = period.getClose().getTime();
                         OpenPeriod openPeriod = new OpenPeriod(
                                 period.getOpen().getDay() + 1,
-                                Integer.parseInt(period.getOpen().getTime().substring(0, 2)),
-                                Integer.parseInt(period.getOpen().getTime().substring(2, 4)),
+                                parseTwoDigits(openTime, 0),
+                                parseTwoDigits(openTime, 2),
                                 period.getClose().getDay() + 1,
-                                Integer.parseInt(period.getClose().getTime().substring(0, 2)),
-                                Integer.parseInt(period.getClose().getTime().substring(2, 4)));
-                        mRestaurant.getOpeningPeriods().add(openPeriod);
+                                parseTwoDigits(closeTime, 0),
+                                parseTwoDigits(closeTime, 2));
+                        openingPeriods.add(openPeriod);
                     } else {
-                        mRestaurant.setAlwaysOpen(true);
+                        restaurant.setAlwaysOpen(true);
                     }
                 }
             }
+            restaurant.setOpeningPeriods(openingPeriods);
         }
     }
 
-    private String getPhotoUrl(PlaceDetails placeDetail) {
-        if(placeDetail.getPhotos() != null){
-            return getUrlFromReference(placeDetail.getPhotos().get(0).getPhotoReference());
-        } else {
-            return getUrlFromGeoapify(mRestaurant.getLocation().getLatitude(), mRestaurant.getLocation().getLongitude());
-        }
+    // Times are "hhmm", read in place rather than through substrings
+    private static int parseTwoDigits(String time, int index) {
+        return (time.charAt(index) - '0') * 10 + (time.charAt(index + 1) - '0');
     }
 
-    private void setRating(PlaceDetails placeDetail) {
-        mRestaurant.setRating(placeDetail.getRating());
-
-        if(mRestaurant.getRating() > 0) {
-            mRestaurant.setStar1IvVisibility(View.VISIBLE);
-        } else {
-            mRestaurant.setStar1IvVisibility(View.GONE);
-        }
-        if(mRestaurant.getRating() > 1.66) {
-            mRestaurant.setStar2IvVisibility(View.VISIBLE);
-        } else {
-            mRestaurant.setStar2IvVisibility(View.GONE);
-        }
-        if(mRestaurant.getRating() > 3.33) {
-            mRestaurant.setStar3IvVisibility(View.VISIBLE);
-        } else {
-            mRestaurant.setStar3IvVisibility(View.GONE);
+    private String getPhotoUrl(PlaceDetails placeDetail, double latitude, double longitude) {
+        String photoReference = null;
+        if(placeDetail.getPhotos() != null){
+            photoReference = placeDetail.getPhotos().get(0).getPhotoReference();
         }
+        return RestaurantMapperUtils.getPhotoUrl(photoReference, latitude, longitude);
     }
 
     private String getAddressFromAddressComponents(List<AddressComponent> addressComponents){
@@ -137,12 +120,4 @@ public class PlaceDetailsResultToRestaurantMapper implements Function<PlaceDetai
         }
         return streetNumber + route;
     }
-
-    private String getUrlFromReference(String photoReference) {
-        return String.format(MAP_PHOTO_URL, photoReference, BuildConfig.MAPS_API_KEY);
-    }
-
-    private String getUrlFromGeoapify(double lat, double lng) {
-        return String.format(GEOAPIFY_PHOTO_URL, lng, lat, lng, lat, BuildConfig.GEOAPIFY_API_KEY);
-    }
 }
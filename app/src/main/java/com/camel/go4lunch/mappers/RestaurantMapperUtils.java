@@ -0,0 +1,43 @@
+package com.camel.go4lunch.mappers;
+
+import android.view.View;
+
+import com.camel.go4lunch.BuildConfig;
+import com.camel.go4lunch.models.Restaurant;
+
+// Fields filled the same way from a Nearby Search result and from a Place Details result
+class RestaurantMapperUtils {
+    private static final String MAP_PHOTO_URL = "https://maps.googleapis.com/maps/api/place/photo?photoreference=%s&key=%s&maxwidth=800";
+    private static final String GEOAPIFY_PHOTO_URL = "https://maps.geoapify.com/v1/staticmap?style=osm-carto&width=600&height=400&center=lonlat:%s,%s&zoom=17&marker=lonlat:%s,%s;color:%%23ff5721;size:xx-large&apiKey=%s";
+
+    static void setRating(Restaurant.Builder restaurant, float rating) {
+        restaurant.setRating(rating);
+
+        if(rating > 0) {
+            restaurant.setStar1IvVisibility(View.VISIBLE);
+        } else {
+            restaurant.setStar1IvVisibility(View.GONE);
+        }
+        if(rating > 1.66) {
+            restaurant.setStar2IvVisibility(View.VISIBLE);
+        } else {
+            restaurant.setStar2IvVisibility(View.GONE);
+        }
+        if(rating > 3.33) {
+            restaurant.setStar3IvVisibility(View.VISIBLE);
+        } else {
+            restaurant.setStar3IvVisibility(View.GONE);
+        }
+    }
+
+    static String getPhotoUrl(String photoReference, double latitude, double longitude) {
+        if(photoReference != null){
+            return String.format(MAP_PHOTO_URL, photoReference, BuildConfig.MAPS_API_KEY);
+        } else {
+            return String.format(GEOAPIFY_PHOTO_URL,
+                    longitude, latitude,
+                    longitude, latitude,
+                    BuildConfig.GEOAPIFY_API_KEY);
+        }
+    }
+}
@@ -4,8 +4,11 @@ import android.location.Location;
 import android.view.View;
 
 import com.camel.go4lunch.R;
-import com.camel.go4lunch.models.OpenPeriod;
+import com.camel.go4lunch.models.OpeningSchedule;
 import com.camel.go4lunch.models.Restaurant;
+import com.camel.go4lunch.models.RestaurantListViewState;
+import com.camel.go4lunch.models.RestaurantListViewState.OpenLabel;
+import com.camel.go4lunch.utils.DistanceUtils;
 
 import java.text.DateFormat;
 import java.util.ArrayList;
@@ -13,122 +16,147 @@ import java.util.Calendar;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import io.reactivex.annotations.NonNull;
 import io.reactivex.functions.Function;
 
-public class RestaurantToListViewMapper implements Function<HashMap<String, Restaurant>, List<Restaurant>> {
-    Location mLocation;
+public class RestaurantToListViewMapper implements Function<HashMap<String, Restaurant>, List<RestaurantListViewState>> {
+    private static final int CLOSING_SOON_MINUTES = 60;
+    public static final int NO_OPEN_STATUS_CHANGE = -1;
+
+    double mLatitude;
+    double mLongitude;
     int mDistanceUnit;
     Calendar mNowCal;
+    int mNowMinuteOfWeek;
+    private final Map<String, RestaurantListViewState> mPreviousViewStates = new HashMap<>();
 
     public RestaurantToListViewMapper(Location location, int distanceUnit, Calendar nowCal) {
-        mLocation = location;
+        this(location != null ? location.getLatitude() : Double.NaN,
+                location != null ? location.getLongitude() : Double.NaN,
+                distanceUnit, nowCal);
+    }
+
+    // NaN coordinates when the user location is unknown
+    public RestaurantToListViewMapper(double latitude, double longitude, int distanceUnit, Calendar nowCal) {
+        mLatitude = latitude;
+        mLongitude = longitude;
         mDistanceUnit = distanceUnit;
         mNowCal = nowCal;
+        mNowMinuteOfWeek = OpeningSchedule.getMinuteOfWeek(nowCal);
     }
 
     @Override
-    public List<Restaurant> apply(@NonNull HashMap<String, Restaurant> restaurantHashMap) {
-        List<Restaurant> restaurantList = new ArrayList<>();
+    public List<RestaurantListViewState> apply(@NonNull HashMap<String, Restaurant> restaurantHashMap) {
+        List<RestaurantListViewState> viewStates = new ArrayList<>();
 
         for(Restaurant restaurant : restaurantHashMap.values()){
-            calculateDistanceFromUser(restaurant);
-            determineOpening(restaurant);
-            determineWorkmatesViewVisibility(restaurant);
-            restaurantList.add(restaurant);
+            RestaurantListViewState viewState = map(restaurant);
+            RestaurantListViewState previousViewState = mPreviousViewStates.get(restaurant.getUId());
+            viewStates.add(viewState.equals(previousViewState) ? previousViewState : viewState);
         }
-        Collections.sort(restaurantList);
+        Collections.sort(viewStates);
 
-        return restaurantList;
+        return viewStates;
     }
 
-    public void calculateDistanceFromUser(Restaurant restaurant) {
-        restaurant.setDistanceUnitString(mDistanceUnit);
-        if(mLocation != null) {
-            if(mDistanceUnit == R.string.unit_feet_short) {
-                restaurant.setDistanceFromUser((int) (mLocation.distanceTo(restaurant.getLocation()) * 3.28084f));
-            } else {
-                restaurant.setDistanceFromUser((int) mLocation.distanceTo(restaurant.getLocation()));
-            }
-            restaurant.setDistanceTvVisibility(View.VISIBLE);
-        } else {
-            restaurant.setDistanceTvVisibility(View.INVISIBLE);
+    // Rows that look the same as in this list keep their instance
+    public void setPreviousViewStates(List<RestaurantListViewState> previousViewStates) {
+        mPreviousViewStates.clear();
+        for(RestaurantListViewState viewState : previousViewStates) {
+            mPreviousViewStates.put(viewState.getUId(), viewState);
         }
     }
 
-    private void determineOpening(Restaurant restaurant) {
-        restaurant.setOpenTvColor(R.color.grey);
+    public RestaurantListViewState map(Restaurant restaurant) {
+        if(!Double.isNaN(mLatitude) && !Double.isNaN(mLongitude) && restaurant.hasLocation()) {
+            double distance = DistanceUtils.distanceBetween(mLatitude, mLongitude, restaurant.getLatitude(), restaurant.getLongitude());
+            return new RestaurantListViewState(restaurant,
+                    toDisplayedDistance(distance, mDistanceUnit),
+                    View.VISIBLE,
+                    mDistanceUnit,
+                    determineOpening(restaurant));
+        } else {
+            return new RestaurantListViewState(restaurant, 0, View.INVISIBLE, mDistanceUnit, determineOpening(restaurant));
+        }
+    }
 
+    public OpenLabel determineOpening(Restaurant restaurant) {
         if(restaurant.isOpeningHoursAvailable()) {
             if(restaurant.isAlwaysOpen()){
-                restaurant.setOpenTvString(R.string.open_now);
+                return new OpenLabel(R.string.open_now, null, View.VISIBLE, R.color.grey);
             }
             else {
-                restaurant.setOpenTvCloseTimeString(getOpenStatus(restaurant));
+                String openStatus = getOpenStatus(restaurant);
 
-                if (!restaurant.getOpenTvCloseTimeString().isEmpty()) {
-                    if(restaurant.getOpenTvCloseTimeString().equals("open")){
-                        restaurant.setOpenTvString(R.string.open_now);
+                if (!openStatus.isEmpty()) {
+                    if(openStatus.equals("open")){
+                        return new OpenLabel(R.string.open_now, openStatus, View.VISIBLE, R.color.grey);
                     }
-                    else if(restaurant.getOpenTvCloseTimeString().equals("closed")){
-                        restaurant.setOpenTvString(R.string.closed);
-                        restaurant.setOpenTvColor(R.color.red);
+                    else if(openStatus.equals("closed")){
+                        return new OpenLabel(R.string.closed, openStatus, View.VISIBLE, R.color.red);
                     }
                     else {
-                        restaurant.setOpenTvString(R.string.open_until);
+                        return new OpenLabel(R.string.open_until, openStatus, View.VISIBLE, R.color.grey);
                     }
-                    restaurant.setOpenTvVisibility(View.VISIBLE);
                 } else {
-                    restaurant.setOpenTvString(R.string.no_open_hours);
-                    restaurant.setOpenTvVisibility(View.INVISIBLE);
+                    return new OpenLabel(R.string.no_open_hours, openStatus, View.INVISIBLE, R.color.grey);
                 }
             }
+        } else if(restaurant.getOpenNow() != null) {
+            if(restaurant.getOpenNow()) {
+                return new OpenLabel(R.string.open_now, null, View.VISIBLE, R.color.grey);
+            } else {
+                return new OpenLabel(R.string.closed, null, View.VISIBLE, R.color.red);
+            }
         } else {
-            restaurant.setOpenTvString(R.string.no_open_hours);
-            restaurant.setOpenTvVisibility(View.INVISIBLE);
+            return new OpenLabel(R.string.no_open_hours, null, View.INVISIBLE, R.color.grey);
         }
     }
 
     public String getOpenStatus(Restaurant restaurant){
-        for(OpenPeriod period : restaurant.getOpeningPeriods()){
-            if((period.getOpeningDay() == mNowCal.get(Calendar.DAY_OF_WEEK))
-                    || (period.getClosingDay() == mNowCal.get(Calendar.DAY_OF_WEEK))) {
-
-                Calendar openCal = (Calendar) mNowCal.clone();
-                openCal.set(Calendar.DAY_OF_WEEK, period.getOpeningDay());
-                openCal.set(Calendar.HOUR_OF_DAY, period.getOpeningHour());
-                openCal.set(Calendar.MINUTE, period.getOpeningMinute());
-
-                Calendar closeCal = (Calendar) mNowCal.clone();
-                closeCal.set(Calendar.DAY_OF_WEEK, period.getClosingDay());
-                closeCal.set(Calendar.HOUR_OF_DAY, period.getClosingHour());
-                closeCal.set(Calendar.MINUTE, period.getClosingMinute());
-
-                if (mNowCal.after(openCal) && mNowCal.before(closeCal)) {
-                    mNowCal.add(Calendar.HOUR_OF_DAY, 1);
-                    if (mNowCal.after(closeCal)) {
-                        closeCal.set(Calendar.ZONE_OFFSET, mNowCal.getTimeZone().getRawOffset());
-                        return DateFormat.getTimeInstance(DateFormat.SHORT).format(closeCal.getTime());
-                    } else {
-                        return "open";
-                    }
-                }
-            }
+        int closingMinute = restaurant.getOpeningSchedule().getClosingMinute(mNowMinuteOfWeek);
+        if(closingMinute == OpeningSchedule.CLOSED) {
+            return "closed";
         }
-        return "closed";
+        if(closingMinute - mNowMinuteOfWeek >= CLOSING_SOON_MINUTES) {
+            return "open";
+        }
+
+        // Only the restaurants closing within the hour need a formatted time
+        Calendar closeCal = (Calendar) mNowCal.clone();
+        closeCal.add(Calendar.MINUTE, closingMinute - mNowMinuteOfWeek);
+        return DateFormat.getTimeInstance(DateFormat.SHORT).format(closeCal.getTime());
     }
 
-    private void determineWorkmatesViewVisibility(Restaurant restaurant) {
-        if(restaurant.getInterestedWorkmates().size() > 0){
-            restaurant.setWorkmateIvVisibility(View.VISIBLE);
-            restaurant.setWorkmateTvVisibility(View.VISIBLE);
-        } else {
-            restaurant.setWorkmateIvVisibility(View.INVISIBLE);
-            restaurant.setWorkmateTvVisibility(View.INVISIBLE);
+    public static int toDisplayedDistance(double distanceMeters, int distanceUnit) {
+        if(distanceUnit == R.string.unit_feet_short) {
+            return (int) (distanceMeters * 3.28084f);
         }
+        return (int) distanceMeters;
     }
 
+    // Minutes until the open label computed by getOpenStatus changes, NO_OPEN_STATUS_CHANGE when it never does
+    public static int getMinutesToOpenStatusChange(Restaurant restaurant, int nowMinuteOfWeek) {
+        if(!restaurant.isOpeningHoursAvailable() || restaurant.isAlwaysOpen()) {
+            return NO_OPEN_STATUS_CHANGE;
+        }
 
+        OpeningSchedule schedule = restaurant.getOpeningSchedule();
+        int closingMinute = schedule.getClosingMinute(nowMinuteOfWeek);
+        if(closingMinute == OpeningSchedule.ALWAYS_OPEN) {
+            return NO_OPEN_STATUS_CHANGE;
+        }
+        if(closingMinute != OpeningSchedule.CLOSED) {
+            int minutesToClosing = closingMinute - nowMinuteOfWeek;
+            if(minutesToClosing >= CLOSING_SOON_MINUTES) {      // Next change is "open" to "open until"
+                return minutesToClosing - CLOSING_SOON_MINUTES + 1;
+            }
+            return minutesToClosing;
+        }
 
+        int nextOpeningMinute = schedule.getNextOpeningMinute(nowMinuteOfWeek);
+        return nextOpeningMinute == OpeningSchedule.CLOSED ? NO_OPEN_STATUS_CHANGE : nextOpeningMinute - nowMinuteOfWeek;
+    }
 }
@@ -2,25 +2,32 @@ package com.camel.go4lunch.mappers;
 
 import com.camel.go4lunch.R;
 import com.camel.go4lunch.models.Restaurant;
+import com.camel.go4lunch.models.RestaurantMapViewState;
 
 import java.util.HashMap;
 
 import io.reactivex.annotations.NonNull;
 import io.reactivex.functions.Function;
 
-public class RestaurantToMapViewMapper implements Function<HashMap<String, Restaurant>, HashMap<String, Restaurant>> {
+public class RestaurantToMapViewMapper implements Function<HashMap<String, Restaurant>, HashMap<String, RestaurantMapViewState>> {
 
     @Override
-    public HashMap<String, Restaurant> apply(@NonNull HashMap<String, Restaurant> restaurantHashMap) {
+    public HashMap<String, RestaurantMapViewState> apply(@NonNull HashMap<String, Restaurant> restaurantHashMap) {
+        HashMap<String, RestaurantMapViewState> viewStates = new HashMap<>();
 
         for(Restaurant restaurant : restaurantHashMap.values()){
+            int markerOptionIconResource;
             if(restaurant.getInterestedWorkmates().size() > 0){
-                restaurant.setMarkerOptionIconResource(R.drawable.ic_pin_interested);
+                markerOptionIconResource = R.drawable.ic_pin_interested;
             } else {
-                restaurant.setMarkerOptionIconResource(R.drawable.ic_pin_normal);
+                markerOptionIconResource = R.drawable.ic_pin_normal;
             }
+            viewStates.put(restaurant.getUId(), new RestaurantMapViewState(restaurant.getUId(),
+                    restaurant.getLatitude(),
+                    restaurant.getLongitude(),
+                    markerOptionIconResource));
         }
 
-        return restaurantHashMap;
+        return viewStates;
     }
-}
\ No newline at end of file
+}
@@ -27,7 +27,7 @@ public class WorkmateToDetailsMapper implements Function< Workmate, Workmate>{
             }
         }
 
-        if(workmate.getLikedRestaurants().contains(mRestaurantUId)){
+        if(workmate.hasLikedRestaurant(mRestaurantUId)){
             workmate.setWorkmateLikedRestaurantTvText(R.string.liked);
             workmate.setWorkmateLikedRestaurantTvColor(R.color.green);
         } else {
@@ -0,0 +1,42 @@
+package com.camel.go4lunch.mappers;
+
+import com.camel.go4lunch.models.Workmate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.reactivex.annotations.NonNull;
+import io.reactivex.functions.Function;
+
+import static com.camel.go4lunch.api.WorkmateHelper.FIELD_CHOSEN_DAY;
+import static com.camel.go4lunch.api.WorkmateHelper.FIELD_CHOSEN_RESTAURANT_DATE;
+import static com.camel.go4lunch.api.WorkmateHelper.FIELD_CHOSEN_RESTAURANT_ID;
+import static com.camel.go4lunch.api.WorkmateHelper.FIELD_CHOSEN_RESTAURANT_NAME;
+import static com.camel.go4lunch.api.WorkmateHelper.FIELD_EMAIL;
+import static com.camel.go4lunch.api.WorkmateHelper.FIELD_FULL_NAME;
+import static com.camel.go4lunch.api.WorkmateHelper.FIELD_LIKED_RESTAURANTS;
+import static com.camel.go4lunch.api.WorkmateHelper.FIELD_NICKNAME;
+import static com.camel.go4lunch.api.WorkmateHelper.FIELD_PICTURE_URL;
+import static com.camel.go4lunch.api.WorkmateHelper.FIELD_UID;
+
+// Same document as set(workmate) writes through reflection, ui fields excluded
+public class WorkmateToFirestoreDataMapper implements Function<Workmate, Map<String, Object>> {
+
+    @Override
+    public Map<String, Object> apply(@NonNull Workmate workmate) {
+        HashMap<String, Object> data = new HashMap<>();
+
+        data.put(FIELD_UID, workmate.getUId());
+        data.put(FIELD_FULL_NAME, workmate.getFullName());
+        data.put(FIELD_NICKNAME, workmate.getNickname());
+        data.put(FIELD_EMAIL, workmate.getEmail());
+        data.put(FIELD_PICTURE_URL, workmate.getPictureUrl());
+        data.put(FIELD_CHOSEN_RESTAURANT_ID, workmate.getChosenRestaurantId());
+        data.put(FIELD_CHOSEN_RESTAURANT_NAME, workmate.getChosenRestaurantName());
+        data.put(FIELD_CHOSEN_RESTAURANT_DATE, workmate.getChosenRestaurantDate());
+        data.put(FIELD_CHOSEN_DAY, workmate.getChosenDay());
+        data.put(FIELD_LIKED_RESTAURANTS, workmate.getLikedRestaurants());
+
+        return data;
+    }
+}
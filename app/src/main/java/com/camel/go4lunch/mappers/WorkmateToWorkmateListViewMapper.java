@@ -13,6 +13,17 @@ import io.reactivex.annotations.NonNull;
 import io.reactivex.functions.Function;
 
 public class WorkmateToWorkmateListViewMapper implements Function<List<Workmate>, List<Workmate>> {
+    private final boolean mSort;
+
+    public WorkmateToWorkmateListViewMapper() {
+        this(true);
+    }
+
+    // The rows changed by a snapshot of an already sorted list, only their labels are set
+    public WorkmateToWorkmateListViewMapper(boolean sort) {
+        mSort = sort;
+    }
+
     @Override
     public List<Workmate> apply(@NonNull List<Workmate> workmateList) {
         for (Workmate workmate : workmateList){
@@ -29,7 +40,9 @@ public class WorkmateToWorkmateListViewMapper implements Function<List<Workmate>
                 setNotDecidedYet(workmate);
             }
         }
-        Collections.sort(workmateList);
+        if(mSort) {
+            Collections.sort(workmateList);
+        }
         return workmateList;
     }
 
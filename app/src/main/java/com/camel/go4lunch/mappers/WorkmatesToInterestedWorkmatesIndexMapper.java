@@ -0,0 +1,47 @@
+package com.camel.go4lunch.mappers;
+
+import com.camel.go4lunch.api.LunchHelper;
+import com.camel.go4lunch.models.Workmate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import io.reactivex.annotations.NonNull;
+import io.reactivex.functions.Function;
+
+import static com.camel.go4lunch.utils.Utils.isToday;
+
+// Groups the workmates who chose a restaurant today by the id of that restaurant
+public class WorkmatesToInterestedWorkmatesIndexMapper implements Function<List<Workmate>, HashMap<String, List<Workmate>>> {
+
+    @Override
+    public HashMap<String, List<Workmate>> apply(@NonNull List<Workmate> workmates) {
+        HashMap<String, List<Workmate>> interestedWorkmatesIndex = new HashMap<>();
+        String todayId = LunchHelper.getTodayId();
+
+        for (Workmate workmate : workmates) {
+            String restaurantId = workmate.getChosenRestaurantId();
+            if(restaurantId == null || restaurantId.isEmpty() || !isChosenToday(workmate, todayId)) {
+                continue;
+            }
+
+            List<Workmate> interestedWorkmates = interestedWorkmatesIndex.get(restaurantId);
+            if(interestedWorkmates == null) {
+                interestedWorkmates = new ArrayList<>();
+                interestedWorkmatesIndex.put(restaurantId, interestedWorkmates);
+            }
+            interestedWorkmates.add(workmate);
+        }
+
+        return interestedWorkmatesIndex;
+    }
+
+    // Documents not migrated yet only have the date of the choice
+    private boolean isChosenToday(Workmate workmate, String todayId) {
+        if(workmate.getChosenDay() != null) {
+            return todayId.equals(workmate.getChosenDay());
+        }
+        return isToday(workmate.getChosenRestaurantDate());
+    }
+}
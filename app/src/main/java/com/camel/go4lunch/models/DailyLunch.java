@@ -0,0 +1,48 @@
+package com.camel.go4lunch.models;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+// Workmates lunching at each restaurant on one day, a workmate is counted at one restaurant at most
+public class DailyLunch {
+    private final HashMap<String, List<String>> mWorkmateIdsByRestaurant = new HashMap<>();
+
+    public List<String> getWorkmateIds(String restaurantId) {
+        List<String> workmateIds = mWorkmateIdsByRestaurant.get(restaurantId);
+        return workmateIds != null ? new ArrayList<>(workmateIds) : new ArrayList<>();
+    }
+
+    public int getWorkmateCount(String restaurantId) {
+        List<String> workmateIds = mWorkmateIdsByRestaurant.get(restaurantId);
+        return workmateIds != null ? workmateIds.size() : 0;
+    }
+
+    public HashMap<String, List<String>> getWorkmateIdsByRestaurant() {
+        return mWorkmateIdsByRestaurant;
+    }
+
+    public void addWorkmate(String restaurantId, String workmateId) {
+        removeWorkmate(workmateId);
+
+        List<String> workmateIds = mWorkmateIdsByRestaurant.get(restaurantId);
+        if(workmateIds == null) {
+            workmateIds = new ArrayList<>();
+            mWorkmateIdsByRestaurant.put(restaurantId, workmateIds);
+        }
+        workmateIds.add(workmateId);
+    }
+
+    public void removeWorkmate(String workmateId) {
+        Iterator<Map.Entry<String, List<String>>> iterator = mWorkmateIdsByRestaurant.entrySet().iterator();
+        while (iterator.hasNext()) {
+            List<String> workmateIds = iterator.next().getValue();
+            workmateIds.remove(workmateId);
+            if(workmateIds.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.camel.go4lunch.models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Opening periods compiled once into sorted, non overlapping intervals over the minutes of the week,
+ * Sunday 00:00 being minute 0 like Calendar.SUNDAY is the first day.
+ * Overnight periods simply end on the next day, a period running past Saturday night is split at the week end.
+ * A closing day outside the Calendar days is an offset from the opening day, like the lenient Calendar used before.
+ * Queries are a binary search over primitive arrays and allocate nothing.
+ */
+public class OpeningSchedule {
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+    public static final int CLOSED = -1;
+    public static final int ALWAYS_OPEN = Integer.MAX_VALUE;
+
+    private final int[] mStarts;
+    private final int[] mEnds;
+
+    private OpeningSchedule(int[] starts, int[] ends) {
+        mStarts = starts;
+        mEnds = ends;
+    }
+
+    public static OpeningSchedule compile(List<OpenPeriod> periods) {
+        List<int[]> intervals = new ArrayList<>();
+        for (OpenPeriod period : periods) {
+            int start = getMinuteOfWeek(period.getOpeningDay(), period.getOpeningHour(), period.getOpeningMinute());
+            int duration = (period.getClosingDay() - period.getOpeningDay()) * MINUTES_PER_DAY
+                    + (period.getClosingHour() - period.getOpeningHour()) * 60
+                    + period.getClosingMinute() - period.getOpeningMinute();
+            if(duration <= 0 && isCalendarDay(period.getClosingDay())) {       // Saturday to Sunday, closes next week
+                duration += MINUTES_PER_WEEK;
+            }
+            if(duration <= 0) {                                 // Ends before it starts, never open
+                continue;
+            }
+
+            int end = start + duration;
+            if(end > MINUTES_PER_WEEK) {
+                intervals.add(new int[]{start, MINUTES_PER_WEEK});
+                intervals.add(new int[]{0, end - MINUTES_PER_WEEK});
+            } else {
+                intervals.add(new int[]{start, end});
+            }
+        }
+        Collections.sort(intervals, (interval1, interval2) -> Integer.compare(interval1[0], interval2[0]));
+
+        // Overlapping or touching intervals are merged so the closing time is the real one
+        int[] starts = new int[intervals.size()];
+        int[] ends = new int[intervals.size()];
+        int count = 0;
+        for (int[] interval : intervals) {
+            if(count > 0 && interval[0] <= ends[count - 1]) {
+                ends[count - 1] = Math.max(ends[count - 1], interval[1]);
+            } else {
+                starts[count] = interval[0];
+                ends[count] = interval[1];
+                count++;
+            }
+        }
+        return new OpeningSchedule(Arrays.copyOf(starts, count), Arrays.copyOf(ends, count));
+    }
+
+    // Days are Calendar days, out of range ones wrap around the week like a lenient Calendar does
+    public static int getMinuteOfWeek(int calendarDay, int hour, int minute) {
+        int day = ((calendarDay - Calendar.SUNDAY) % 7 + 7) % 7;
+        return day * MINUTES_PER_DAY + hour * 60 + minute;
+    }
+
+    private static boolean isCalendarDay(int day) {
+        return day >= Calendar.SUNDAY && day <= Calendar.SATURDAY;
+    }
+
+    public static int getMinuteOfWeek(Calendar calendar) {
+        return getMinuteOfWeek(calendar.get(Calendar.DAY_OF_WEEK),
+                calendar.get(Calendar.HOUR_OF_DAY),
+                calendar.get(Calendar.MINUTE));
+    }
+
+    public boolean isEmpty() {
+        return mStarts.length == 0;
+    }
+
+    public boolean isOpen(int minuteOfWeek) {
+        return getIntervalIndex(minuteOfWeek) != CLOSED;
+    }
+
+    // Minute of the week the restaurant closes at, beyond MINUTES_PER_WEEK when it is next week, CLOSED when closed now,
+    // ALWAYS_OPEN when it never closes
+    public int getClosingMinute(int minuteOfWeek) {
+        int index = getIntervalIndex(minuteOfWeek);
+        if(index == CLOSED) {
+            return CLOSED;
+        }
+
+        int closingMinute = mEnds[index];
+        if(closingMinute == MINUTES_PER_WEEK && mStarts[0] == 0) {     // Still open after Saturday night
+            if(mEnds[0] == MINUTES_PER_WEEK) {
+                return ALWAYS_OPEN;
+            }
+            closingMinute += mEnds[0];
+        }
+        return closingMinute;
+    }
+
+    // Minute of the week the restaurant opens at next, beyond MINUTES_PER_WEEK when it is next week, CLOSED when it never opens
+    public int getNextOpeningMinute(int minuteOfWeek) {
+        if(mStarts.length == 0) {
+            return CLOSED;
+        }
+        int index = getLastIntervalStartingAt(minuteOfWeek) + 1;
+        return index < mStarts.length ? mStarts[index] : mStarts[0] + MINUTES_PER_WEEK;
+    }
+
+    private int getIntervalIndex(int minuteOfWeek) {
+        int index = getLastIntervalStartingAt(minuteOfWeek);
+        return index != CLOSED && minuteOfWeek < mEnds[index] ? index : CLOSED;
+    }
+
+    private int getLastIntervalStartingAt(int minuteOfWeek) {
+        int low = 0;
+        int high = mStarts.length - 1;
+        int index = CLOSED;
+        while (low <= high) {                                   // Last interval starting at or before the minute
+            int middle = (low + high) >>> 1;
+            if(mStarts[middle] <= minuteOfWeek) {
+                index = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,67 @@
+package com.camel.go4lunch.models;
+
+import java.util.Date;
+import java.util.UUID;
+
+// A restaurant choice, or its removal, made locally and not yet acknowledged by Firestore
+public class PendingChoice {
+    private final String mId;
+    private final String mWorkmateUId;
+    private final String mRestaurantId;
+    private final String mRestaurantName;
+    private final long mChosenAt;
+    private final String mDayId;
+
+    public PendingChoice(String workmateUId, String restaurantId, String restaurantName, long chosenAt, String dayId) {
+        mId = UUID.randomUUID().toString();
+        mWorkmateUId = workmateUId;
+        mRestaurantId = restaurantId;
+        mRestaurantName = restaurantName;
+        mChosenAt = chosenAt;
+        mDayId = dayId;
+    }
+
+    public static PendingChoice removal(String workmateUId, long removedAt, String dayId) {
+        return new PendingChoice(workmateUId, "", "", removedAt, dayId);
+    }
+
+    public String getId() {
+        return mId;
+    }
+
+    public String getWorkmateUId() {
+        return mWorkmateUId;
+    }
+
+    public String getRestaurantId() {
+        return mRestaurantId;
+    }
+
+    public String getRestaurantName() {
+        return mRestaurantName;
+    }
+
+    public long getChosenAt() {
+        return mChosenAt;
+    }
+
+    public String getDayId() {
+        return mDayId;
+    }
+
+    public boolean isRemoval() {
+        return mRestaurantId.isEmpty();
+    }
+
+    // Same fields as the Firestore write, so the workmate looks the same before and after the ack
+    public void applyTo(Workmate workmate) {
+        workmate.setChosenRestaurantId(mRestaurantId);
+        workmate.setChosenRestaurantName(mRestaurantName);
+        if(isRemoval()) {
+            workmate.setChosenDay("");
+        } else {
+            workmate.setChosenRestaurantDate(new Date(mChosenAt));
+            workmate.setChosenDay(mDayId);
+        }
+    }
+}
@@ -1,43 +1,70 @@
 package com.camel.go4lunch.models;
 
-import android.location.Location;
-
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
-public class Restaurant implements Comparable<Restaurant>{
+/**
+ * Place data shared by every screen and threads, immutable: the mappers fill a Builder,
+ * a change is published as a new instance and each screen derives its own view state.
+ */
+public class Restaurant {
     private final String mUId;
-    private String mName;
-    private String mAddress;
-    private String mPhoneNumber;
-    private String mWebsite;
-    private String mPhotoUrl;
-    private float mRating;
-    private Location mLocation;
-    private int mDistanceFromUser;
-    private final List<String> mInterestedWorkmates = new ArrayList<>();
-    private final List<OpenPeriod> mOpeningPeriods = new ArrayList<>();
-    private boolean mOpeningHoursAvailable;
-    private boolean mAlwaysOpen;
+    private final String mName;
+    private final String mAddress;
+    private final String mPhoneNumber;
+    private final String mWebsite;
+    private final String mPhotoUrl;
+    private final float mRating;
+    private final double mLatitude;                            // NaN until the place has coordinates
+    private final double mLongitude;
+    private final List<String> mInterestedWorkmates;
+    private final List<OpenPeriod> mOpeningPeriods;
+    private final OpeningSchedule mOpeningSchedule;
+    private final boolean mOpeningHoursAvailable;
+    private final boolean mAlwaysOpen;
+    private final Boolean mOpenNow;
+    private final boolean mDetailsLoaded;
 
     // For Ui
-    private int mDistanceTvVisibility;
-    private int mStar1IvVisibility;
-    private int mStar2IvVisibility;
-    private int mStar3IvVisibility;
-    private int mOpenTvString;
-    private String mOpenTvCloseTimeString;
-    private int mOpenTvVisibility;
-    private int mOpenTvColor;
-    private int mWorkmateTvVisibility;
-    private int mWorkmateIvVisibility;
-    private int mDetailsCallLlVisibility;
-    private int mDetailsWebsiteLlVisibility;
-    private int mMarkerOptionIconResource;
-    private int mDistanceUnitString;
-
-    public Restaurant(String placeId) {
-        mUId = placeId;
+    private final int mStar1IvVisibility;
+    private final int mStar2IvVisibility;
+    private final int mStar3IvVisibility;
+    private final int mDetailsCallLlVisibility;
+    private final int mDetailsWebsiteLlVisibility;
+
+    private Restaurant(Builder builder) {
+        mUId = builder.mUId;
+        mName = builder.mName;
+        mAddress = builder.mAddress;
+        mPhoneNumber = builder.mPhoneNumber;
+        mWebsite = builder.mWebsite;
+        mPhotoUrl = builder.mPhotoUrl;
+        mRating = builder.mRating;
+        mLatitude = builder.mLatitude;
+        mLongitude = builder.mLongitude;
+        mInterestedWorkmates = Collections.unmodifiableList(new ArrayList<>(builder.mInterestedWorkmates));
+        mOpeningPeriods = Collections.unmodifiableList(new ArrayList<>(builder.mOpeningPeriods));
+        mOpeningSchedule = builder.mOpeningSchedule != null ? builder.mOpeningSchedule : OpeningSchedule.compile(mOpeningPeriods);
+        mOpeningHoursAvailable = builder.mOpeningHoursAvailable;
+        mAlwaysOpen = builder.mAlwaysOpen;
+        mOpenNow = builder.mOpenNow;
+        mDetailsLoaded = builder.mDetailsLoaded;
+        mStar1IvVisibility = builder.mStar1IvVisibility;
+        mStar2IvVisibility = builder.mStar2IvVisibility;
+        mStar3IvVisibility = builder.mStar3IvVisibility;
+        mDetailsCallLlVisibility = builder.mDetailsCallLlVisibility;
+        mDetailsWebsiteLlVisibility = builder.mDetailsWebsiteLlVisibility;
+    }
+
+    // Starts from every field of this restaurant, which is left untouched
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    // Copy published when the interested workmates change, the instance already displayed is left untouched
+    public Restaurant withInterestedWorkmates(List<String> interestedWorkmates) {
+        return toBuilder().setInterestedWorkmates(interestedWorkmates).build();
     }
 
     public String getUId() {
@@ -48,64 +75,36 @@ public class Restaurant implements Comparable<Restaurant>{
         return mName;
     }
 
-    public void setName(String name) {
-        mName = name;
-    }
-
     public String getAddress() {
         return mAddress;
     }
 
-    public void setAddress(String address) {
-        mAddress = address;
-    }
-
     public String getPhoneNumber() {
         return mPhoneNumber;
     }
 
-    public void setPhoneNumber(String phoneNumber) {
-        mPhoneNumber = phoneNumber;
-    }
-
     public String getWebsite() {
         return mWebsite;
     }
 
-    public void setWebsite(String website) {
-        mWebsite = website;
-    }
-
     public String getPhotoUrl() {
         return mPhotoUrl;
     }
 
-    public void setPhotoUrl(String photoUrl) {
-        mPhotoUrl = photoUrl;
-    }
-
     public float getRating() {
         return mRating;
     }
 
-    public void setRating(float rating) {
-        mRating = rating;
-    }
-
-    public Location getLocation() {
-        return mLocation;
-    }
-
-    public void setLocation(Location location) {
-        mLocation = location;
+    public boolean hasLocation() {
+        return !Double.isNaN(mLatitude) && !Double.isNaN(mLongitude);
     }
 
-    public int getDistanceFromUser() {
-        return mDistanceFromUser;
+    public double getLatitude() {
+        return mLatitude;
     }
 
-    public void setDistanceFromUser(int distanceFromUser) {
-        mDistanceFromUser = distanceFromUser;
+    public double getLongitude() {
+        return mLongitude;
     }
 
     public List<String> getInterestedWorkmates() {
@@ -116,135 +115,203 @@ public class Restaurant implements Comparable<Restaurant>{
         return mOpeningPeriods;
     }
 
-    public boolean isOpeningHoursAvailable() {
-        return mOpeningHoursAvailable;
+    // Compiled once from the opening periods when the restaurant is built
+    public OpeningSchedule getOpeningSchedule() {
+        return mOpeningSchedule;
     }
 
-    public void setOpeningHoursAvailable(boolean openingHoursAvailable) {
-        mOpeningHoursAvailable = openingHoursAvailable;
+    public boolean isOpeningHoursAvailable() {
+        return mOpeningHoursAvailable;
     }
 
     public boolean isAlwaysOpen() {
         return mAlwaysOpen;
     }
 
-    public void setAlwaysOpen(boolean alwaysOpen) {
-        mAlwaysOpen = alwaysOpen;
-    }
-
-    public int getDistanceTvVisibility() {
-        return mDistanceTvVisibility;
+    // Only known from the Nearby Search until the opening periods are loaded, null when not provided
+    public Boolean getOpenNow() {
+        return mOpenNow;
     }
 
-    public void setDistanceTvVisibility(int distanceTvVisibility) {
-        mDistanceTvVisibility = distanceTvVisibility;
+    public boolean isDetailsLoaded() {
+        return mDetailsLoaded;
     }
 
     public int getStar1IvVisibility() {
         return mStar1IvVisibility;
     }
 
-    public void setStar1IvVisibility(int star1IvVisibility) {
-        mStar1IvVisibility = star1IvVisibility;
-    }
-
     public int getStar2IvVisibility() {
         return mStar2IvVisibility;
     }
 
-    public void setStar2IvVisibility(int star2IvVisibility) {
-        mStar2IvVisibility = star2IvVisibility;
-    }
-
     public int getStar3IvVisibility() {
         return mStar3IvVisibility;
     }
 
-    public void setStar3IvVisibility(int star3IvVisibility) {
-        mStar3IvVisibility = star3IvVisibility;
-    }
-
-    public int getOpenTvString() {
-        return mOpenTvString;
-    }
-
-    public void setOpenTvString(int openTvString) {
-        mOpenTvString = openTvString;
-    }
-
-    public String getOpenTvCloseTimeString() {
-        return mOpenTvCloseTimeString;
-    }
-
-    public void setOpenTvCloseTimeString(String openTvCloseTimeString) {
-        mOpenTvCloseTimeString = openTvCloseTimeString;
-    }
-
-    public int getOpenTvVisibility() {
-        return mOpenTvVisibility;
-    }
-
-    public void setOpenTvVisibility(int openTvVisibility) {
-        mOpenTvVisibility = openTvVisibility;
-    }
-
-    public int getOpenTvColor() {
-        return mOpenTvColor;
-    }
-
-    public void setOpenTvColor(int openTvColor) {
-        mOpenTvColor = openTvColor;
-    }
-
-    public int getWorkmateTvVisibility() {
-        return mWorkmateTvVisibility;
-    }
-
-    public void setWorkmateTvVisibility(int workmateTvVisibility) {
-        mWorkmateTvVisibility = workmateTvVisibility;
-    }
-
-    public int getWorkmateIvVisibility() {
-        return mWorkmateIvVisibility;
-    }
-
-    public void setWorkmateIvVisibility(int workmateIvVisibility) {
-        mWorkmateIvVisibility = workmateIvVisibility;
-    }
-
     public int getDetailsCallLlVisibility() {
         return mDetailsCallLlVisibility;
     }
 
-    public void setDetailsCallLlVisibility(int detailsCallLlVisibility) {
-        mDetailsCallLlVisibility = detailsCallLlVisibility;
-    }
-
     public int getDetailsWebsiteLlVisibility() {
         return mDetailsWebsiteLlVisibility;
     }
 
-    public void setDetailsWebsiteLlVisibility(int detailsWebsiteLlVisibility) {
-        mDetailsWebsiteLlVisibility = detailsWebsiteLlVisibility;
-    }
-
-    public int getMarkerOptionIconResource() {
-        return mMarkerOptionIconResource;
-    }
-
-    public void setMarkerOptionIconResource(int markerOptionIconResource) {
-        mMarkerOptionIconResource = markerOptionIconResource;
-    }
-
-    public int getDistanceUnitString() {
-        return mDistanceUnitString;
-    }
-
-    public void setDistanceUnitString(int distanceUnitString) {
-        mDistanceUnitString = distanceUnitString;
-    }
-
-    public int compareTo(Restaurant restaurant) {
-        return mDistanceFromUser - restaurant.getDistanceFromUser();
+    /**
+     * Mutable side of a restaurant, only used by the thread that builds it.
+     */
+    public static class Builder {
+        private final String mUId;
+        private String mName;
+        private String mAddress;
+        private String mPhoneNumber;
+        private String mWebsite;
+        private String mPhotoUrl;
+        private float mRating;
+        private double mLatitude = Double.NaN;
+        private double mLongitude = Double.NaN;
+        private List<String> mInterestedWorkmates = new ArrayList<>();
+        private final List<OpenPeriod> mOpeningPeriods = new ArrayList<>();
+        private OpeningSchedule mOpeningSchedule;               // Reused from the copied restaurant until the periods change
+        private boolean mOpeningHoursAvailable;
+        private boolean mAlwaysOpen;
+        private Boolean mOpenNow;
+        private boolean mDetailsLoaded;
+        private int mStar1IvVisibility;
+        private int mStar2IvVisibility;
+        private int mStar3IvVisibility;
+        private int mDetailsCallLlVisibility;
+        private int mDetailsWebsiteLlVisibility;
+
+        public Builder(String placeId) {
+            mUId = placeId;
+        }
+
+        private Builder(Restaurant restaurant) {
+            mUId = restaurant.mUId;
+            mName = restaurant.mName;
+            mAddress = restaurant.mAddress;
+            mPhoneNumber = restaurant.mPhoneNumber;
+            mWebsite = restaurant.mWebsite;
+            mPhotoUrl = restaurant.mPhotoUrl;
+            mRating = restaurant.mRating;
+            mLatitude = restaurant.mLatitude;
+            mLongitude = restaurant.mLongitude;
+            mInterestedWorkmates = restaurant.mInterestedWorkmates;
+            mOpeningPeriods.addAll(restaurant.mOpeningPeriods);
+            mOpeningSchedule = restaurant.mOpeningSchedule;
+            mOpeningHoursAvailable = restaurant.mOpeningHoursAvailable;
+            mAlwaysOpen = restaurant.mAlwaysOpen;
+            mOpenNow = restaurant.mOpenNow;
+            mDetailsLoaded = restaurant.mDetailsLoaded;
+            mStar1IvVisibility = restaurant.mStar1IvVisibility;
+            mStar2IvVisibility = restaurant.mStar2IvVisibility;
+            mStar3IvVisibility = restaurant.mStar3IvVisibility;
+            mDetailsCallLlVisibility = restaurant.mDetailsCallLlVisibility;
+            mDetailsWebsiteLlVisibility = restaurant.mDetailsWebsiteLlVisibility;
+        }
+
+        public Builder setName(String name) {
+            mName = name;
+            return this;
+        }
+
+        public Builder setAddress(String address) {
+            mAddress = address;
+            return this;
+        }
+
+        public Builder setPhoneNumber(String phoneNumber) {
+            mPhoneNumber = phoneNumber;
+            return this;
+        }
+
+        public Builder setWebsite(String website) {
+            mWebsite = website;
+            return this;
+        }
+
+        public Builder setPhotoUrl(String photoUrl) {
+            mPhotoUrl = photoUrl;
+            return this;
+        }
+
+        public Builder setRating(float rating) {
+            mRating = rating;
+            return this;
+        }
+
+        public Builder setLocation(double latitude, double longitude) {
+            mLatitude = latitude;
+            mLongitude = longitude;
+            return this;
+        }
+
+        public Builder setInterestedWorkmates(List<String> interestedWorkmates) {
+            mInterestedWorkmates = interestedWorkmates;
+            return this;
+        }
+
+        public Builder setOpeningPeriods(List<OpenPeriod> openingPeriods) {
+            mOpeningPeriods.clear();
+            mOpeningPeriods.addAll(openingPeriods);
+            mOpeningSchedule = null;
+            return this;
+        }
+
+        public Builder addOpeningPeriod(OpenPeriod openPeriod) {
+            mOpeningPeriods.add(openPeriod);
+            mOpeningSchedule = null;
+            return this;
+        }
+
+        public Builder setOpeningHoursAvailable(boolean openingHoursAvailable) {
+            mOpeningHoursAvailable = openingHoursAvailable;
+            return this;
+        }
+
+        public Builder setAlwaysOpen(boolean alwaysOpen) {
+            mAlwaysOpen = alwaysOpen;
+            return this;
+        }
+
+        public Builder setOpenNow(Boolean openNow) {
+            mOpenNow = openNow;
+            return this;
+        }
+
+        public Builder setDetailsLoaded(boolean detailsLoaded) {
+            mDetailsLoaded = detailsLoaded;
+            return this;
+        }
+
+        public Builder setStar1IvVisibility(int star1IvVisibility) {
+            mStar1IvVisibility = star1IvVisibility;
+            return this;
+        }
+
+        public Builder setStar2IvVisibility(int star2IvVisibility) {
+            mStar2IvVisibility = star2IvVisibility;
+            return this;
+        }
+
+        public Builder setStar3IvVisibility(int star3IvVisibility) {
+            mStar3IvVisibility = star3IvVisibility;
+            return this;
+        }
+
+        public Builder setDetailsCallLlVisibility(int detailsCallLlVisibility) {
+            mDetailsCallLlVisibility = detailsCallLlVisibility;
+            return this;
+        }
+
+        public Builder setDetailsWebsiteLlVisibility(int detailsWebsiteLlVisibility) {
+            mDetailsWebsiteLlVisibility = detailsWebsiteLlVisibility;
+            return this;
+        }
+
+        public Restaurant build() {
+            return new Restaurant(this);
+        }
     }
 }
@@ -0,0 +1,42 @@
+package com.camel.go4lunch.models;
+
+import java.util.HashMap;
+import java.util.List;
+
+// Removed ids are applied before added and updated restaurants
+public class RestaurantChangeSet {
+    private final long mVersion;
+    private final HashMap<String, Restaurant> mAdded;
+    private final HashMap<String, Restaurant> mUpdated;
+    private final List<String> mRemoved;
+
+    public RestaurantChangeSet(long version,
+                               HashMap<String, Restaurant> added,
+                               HashMap<String, Restaurant> updated,
+                               List<String> removed) {
+        mVersion = version;
+        mAdded = added;
+        mUpdated = updated;
+        mRemoved = removed;
+    }
+
+    public long getVersion() {
+        return mVersion;
+    }
+
+    public HashMap<String, Restaurant> getAdded() {
+        return mAdded;
+    }
+
+    public HashMap<String, Restaurant> getUpdated() {
+        return mUpdated;
+    }
+
+    public List<String> getRemoved() {
+        return mRemoved;
+    }
+
+    public boolean isEmpty() {
+        return mAdded.isEmpty() && mUpdated.isEmpty() && mRemoved.isEmpty();
+    }
+}
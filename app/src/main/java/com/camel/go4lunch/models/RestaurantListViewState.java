@@ -0,0 +1,191 @@
+package com.camel.go4lunch.models;
+
+import android.view.View;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * What a row of the restaurant list shows, derived from a restaurant and never modified.
+ * A change is a new instance, an unchanged row keeps its instance so the differ skips it by identity.
+ */
+public class RestaurantListViewState implements Comparable<RestaurantListViewState> {
+    private final Restaurant mRestaurant;
+    private final int mDistanceFromUser;
+    private final int mDistanceTvVisibility;
+    private final int mDistanceUnitString;
+    private final OpenLabel mOpenLabel;
+    private final int mWorkmatesVisibility;
+
+    public RestaurantListViewState(Restaurant restaurant, int distanceFromUser, int distanceTvVisibility,
+                                   int distanceUnitString, OpenLabel openLabel) {
+        mRestaurant = restaurant;
+        mDistanceFromUser = distanceFromUser;
+        mDistanceTvVisibility = distanceTvVisibility;
+        mDistanceUnitString = distanceUnitString;
+        mOpenLabel = openLabel;
+        mWorkmatesVisibility = restaurant.getInterestedWorkmates().size() > 0 ? View.VISIBLE : View.INVISIBLE;
+    }
+
+    // Same instance when the distance shown does not change
+    public RestaurantListViewState withDistance(int distanceFromUser) {
+        if(distanceFromUser == mDistanceFromUser && mDistanceTvVisibility == View.VISIBLE) {
+            return this;
+        }
+        return new RestaurantListViewState(mRestaurant, distanceFromUser, View.VISIBLE, mDistanceUnitString, mOpenLabel);
+    }
+
+    // Same instance when the open label does not change
+    public RestaurantListViewState withOpenLabel(OpenLabel openLabel) {
+        if(openLabel.equals(mOpenLabel)) {
+            return this;
+        }
+        return new RestaurantListViewState(mRestaurant, mDistanceFromUser, mDistanceTvVisibility, mDistanceUnitString, openLabel);
+    }
+
+    public Restaurant getRestaurant() {
+        return mRestaurant;
+    }
+
+    public String getUId() {
+        return mRestaurant.getUId();
+    }
+
+    public String getName() {
+        return mRestaurant.getName();
+    }
+
+    public String getAddress() {
+        return mRestaurant.getAddress();
+    }
+
+    public String getPhotoUrl() {
+        return mRestaurant.getPhotoUrl();
+    }
+
+    public List<String> getInterestedWorkmates() {
+        return mRestaurant.getInterestedWorkmates();
+    }
+
+    public int getStar1IvVisibility() {
+        return mRestaurant.getStar1IvVisibility();
+    }
+
+    public int getStar2IvVisibility() {
+        return mRestaurant.getStar2IvVisibility();
+    }
+
+    public int getStar3IvVisibility() {
+        return mRestaurant.getStar3IvVisibility();
+    }
+
+    public int getDistanceFromUser() {
+        return mDistanceFromUser;
+    }
+
+    public int getDistanceTvVisibility() {
+        return mDistanceTvVisibility;
+    }
+
+    public int getDistanceUnitString() {
+        return mDistanceUnitString;
+    }
+
+    public OpenLabel getOpenLabel() {
+        return mOpenLabel;
+    }
+
+    public int getOpenTvString() {
+        return mOpenLabel.getOpenTvString();
+    }
+
+    public String getOpenTvCloseTimeString() {
+        return mOpenLabel.getOpenTvCloseTimeString();
+    }
+
+    public int getOpenTvVisibility() {
+        return mOpenLabel.getOpenTvVisibility();
+    }
+
+    public int getOpenTvColor() {
+        return mOpenLabel.getOpenTvColor();
+    }
+
+    public int getWorkmateIvVisibility() {
+        return mWorkmatesVisibility;
+    }
+
+    public int getWorkmateTvVisibility() {
+        return mWorkmatesVisibility;
+    }
+
+    @Override
+    public int compareTo(RestaurantListViewState viewState) {
+        return Integer.compare(mDistanceFromUser, viewState.mDistanceFromUser);
+    }
+
+    // The restaurant is compared by identity, a restaurant that changed is always a new instance
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(o == null || getClass() != o.getClass()) return false;
+        RestaurantListViewState viewState = (RestaurantListViewState) o;
+        return mRestaurant == viewState.mRestaurant
+                && mDistanceFromUser == viewState.mDistanceFromUser
+                && mDistanceTvVisibility == viewState.mDistanceTvVisibility
+                && mDistanceUnitString == viewState.mDistanceUnitString
+                && mOpenLabel.equals(viewState.mOpenLabel);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(System.identityHashCode(mRestaurant), mDistanceFromUser, mDistanceTvVisibility,
+                mDistanceUnitString, mOpenLabel);
+    }
+
+    public static class OpenLabel {
+        private final int mOpenTvString;
+        private final String mOpenTvCloseTimeString;
+        private final int mOpenTvVisibility;
+        private final int mOpenTvColor;
+
+        public OpenLabel(int openTvString, String openTvCloseTimeString, int openTvVisibility, int openTvColor) {
+            mOpenTvString = openTvString;
+            mOpenTvCloseTimeString = openTvCloseTimeString;
+            mOpenTvVisibility = openTvVisibility;
+            mOpenTvColor = openTvColor;
+        }
+
+        public int getOpenTvString() {
+            return mOpenTvString;
+        }
+
+        public String getOpenTvCloseTimeString() {
+            return mOpenTvCloseTimeString;
+        }
+
+        public int getOpenTvVisibility() {
+            return mOpenTvVisibility;
+        }
+
+        public int getOpenTvColor() {
+            return mOpenTvColor;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) return true;
+            if(o == null || getClass() != o.getClass()) return false;
+            OpenLabel openLabel = (OpenLabel) o;
+            return mOpenTvString == openLabel.mOpenTvString
+                    && mOpenTvVisibility == openLabel.mOpenTvVisibility
+                    && mOpenTvColor == openLabel.mOpenTvColor
+                    && Objects.equals(mOpenTvCloseTimeString, openLabel.mOpenTvCloseTimeString);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(mOpenTvString, mOpenTvCloseTimeString, mOpenTvVisibility, mOpenTvColor);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.camel.go4lunch.models;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Markers to add or update and markers to remove, accumulated until the map applies them.
+ * The last change of a restaurant wins, so applying them twice gives the same markers.
+ * A visible list replaces the markers shown, it is applied before the changes that followed it.
+ */
+public class RestaurantMapViewChanges {
+    private final HashMap<String, RestaurantMapViewState> mChanged = new HashMap<>();
+    private final LinkedHashSet<String> mRemoved = new LinkedHashSet<>();
+    private List<RestaurantMapViewState> mVisible;
+
+    // The restaurants inside the map viewport, from which every marker is shown again
+    public void setVisible(List<RestaurantMapViewState> visible) {
+        mChanged.clear();
+        mRemoved.clear();
+        mVisible = visible;
+    }
+
+    public void putChanged(RestaurantMapViewState viewState) {
+        mRemoved.remove(viewState.getUId());
+        mChanged.put(viewState.getUId(), viewState);
+    }
+
+    public void putRemoved(String placeId) {
+        mChanged.remove(placeId);
+        mRemoved.add(placeId);
+    }
+
+    public HashMap<String, RestaurantMapViewState> getChanged() {
+        return mChanged;
+    }
+
+    public LinkedHashSet<String> getRemoved() {
+        return mRemoved;
+    }
+
+    // Null when the markers shown are only changed
+    public List<RestaurantMapViewState> getVisible() {
+        return mVisible;
+    }
+
+    public boolean isEmpty() {
+        return mVisible == null && mChanged.isEmpty() && mRemoved.isEmpty();
+    }
+}
@@ -0,0 +1,56 @@
+package com.camel.go4lunch.models;
+
+import java.util.Objects;
+
+/**
+ * What the marker of a restaurant shows on the map, derived from a restaurant and never modified.
+ */
+public class RestaurantMapViewState {
+    private final String mUId;
+    private final double mLatitude;
+    private final double mLongitude;
+    private final int mMarkerOptionIconResource;
+
+    public RestaurantMapViewState(String uId, double latitude, double longitude, int markerOptionIconResource) {
+        mUId = uId;
+        mLatitude = latitude;
+        mLongitude = longitude;
+        mMarkerOptionIconResource = markerOptionIconResource;
+    }
+
+    public String getUId() {
+        return mUId;
+    }
+
+    public boolean hasLocation() {
+        return !Double.isNaN(mLatitude) && !Double.isNaN(mLongitude);
+    }
+
+    public double getLatitude() {
+        return mLatitude;
+    }
+
+    public double getLongitude() {
+        return mLongitude;
+    }
+
+    public int getMarkerOptionIconResource() {
+        return mMarkerOptionIconResource;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(o == null || getClass() != o.getClass()) return false;
+        RestaurantMapViewState viewState = (RestaurantMapViewState) o;
+        return Double.compare(mLatitude, viewState.mLatitude) == 0
+                && Double.compare(mLongitude, viewState.mLongitude) == 0
+                && mMarkerOptionIconResource == viewState.mMarkerOptionIconResource
+                && mUId.equals(viewState.mUId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(mUId, mLatitude, mLongitude, mMarkerOptionIconResource);
+    }
+}
@@ -3,8 +3,11 @@ package com.camel.go4lunch.models;
 import com.google.firebase.firestore.Exclude;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.annotation.Nullable;
 
@@ -20,8 +23,11 @@ public class Workmate implements Comparable<Workmate>{
     private String mChosenRestaurantId = "";
     private String mChosenRestaurantName = "";
     private Date mChosenRestaurantDate;
+    private String mChosenDay;
 
+    // Still a list in Firestore, lookups go through a set built on first use and dropped on every change
     private List<String> mLikedRestaurants = new ArrayList<>();
+    private Set<String> mLikedRestaurantSet;
 
     // For Ui
     @Exclude private int mWorkmateChosenTvVisibility;
@@ -103,6 +109,15 @@ public class Workmate implements Comparable<Workmate>{
         mChosenRestaurantDate = chosenRestaurantDate;
     }
 
+    // Day of the choice in the office time zone, yyyy-MM-dd, null on documents written before it existed
+    public String getChosenDay() {
+        return mChosenDay;
+    }
+
+    public void setChosenDay(String chosenDay) {
+        mChosenDay = chosenDay;
+    }
+
     public String getChosenRestaurantName() {
         return mChosenRestaurantName;
     }
@@ -111,12 +126,42 @@ public class Workmate implements Comparable<Workmate>{
         mChosenRestaurantName = chosenRestaurantName;
     }
 
+    // Read only, changes go through the setter or the like mutators so the set is never stale
     public List<String> getLikedRestaurants() {
-        return mLikedRestaurants;
+        return Collections.unmodifiableList(mLikedRestaurants);
     }
 
     public void setLikedRestaurants(List<String> likedRestaurants) {
-        mLikedRestaurants = likedRestaurants;
+        mLikedRestaurants = likedRestaurants == null ? new ArrayList<>() : new ArrayList<>(likedRestaurants);
+        mLikedRestaurantSet = null;
+    }
+
+    @Exclude
+    public void addLikedRestaurant(String restaurantId) {
+        if(!hasLikedRestaurant(restaurantId)) {
+            mLikedRestaurants.add(restaurantId);
+            mLikedRestaurantSet = null;
+        }
+    }
+
+    @Exclude
+    public void removeLikedRestaurant(String restaurantId) {
+        if(mLikedRestaurants.remove(restaurantId)) {
+            mLikedRestaurantSet = null;
+        }
+    }
+
+    @Exclude
+    public Set<String> getLikedRestaurantSet() {
+        if(mLikedRestaurantSet == null) {
+            mLikedRestaurantSet = Collections.unmodifiableSet(new HashSet<>(mLikedRestaurants));
+        }
+        return mLikedRestaurantSet;
+    }
+
+    @Exclude
+    public boolean hasLikedRestaurant(String restaurantId) {
+        return getLikedRestaurantSet().contains(restaurantId);
     }
 
     @Exclude
@@ -0,0 +1,49 @@
+package com.camel.go4lunch.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Workmates changed by one snapshot, along with the whole sorted list they lead to
+public class WorkmateChangeSet {
+    private final List<Workmate> mWorkmates;
+    private final List<Workmate> mAdded;
+    private final List<Workmate> mModified;
+    private final List<String> mRemoved;
+
+    public WorkmateChangeSet(List<Workmate> workmates,
+                             List<Workmate> added,
+                             List<Workmate> modified,
+                             List<String> removed) {
+        mWorkmates = workmates;
+        mAdded = added;
+        mModified = modified;
+        mRemoved = removed;
+    }
+
+    public List<Workmate> getWorkmates() {
+        return mWorkmates;
+    }
+
+    public List<Workmate> getAdded() {
+        return mAdded;
+    }
+
+    public List<Workmate> getModified() {
+        return mModified;
+    }
+
+    public List<String> getRemoved() {
+        return mRemoved;
+    }
+
+    // Rows to bind again, the others are unchanged
+    public List<Workmate> getChanged() {
+        List<Workmate> changed = new ArrayList<>(mAdded);
+        changed.addAll(mModified);
+        return changed;
+    }
+
+    public boolean isEmpty() {
+        return mAdded.isEmpty() && mModified.isEmpty() && mRemoved.isEmpty();
+    }
+}
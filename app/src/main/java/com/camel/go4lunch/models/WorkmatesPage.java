@@ -0,0 +1,37 @@
+package com.camel.go4lunch.models;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.List;
+
+// Documents changed by one snapshot of a page of the workmates query, its last document is the cursor of the next page
+public class WorkmatesPage {
+    private final List<Workmate> mChangedWorkmates;
+    private final List<String> mRemovedIds;
+    private final int mSize;
+    private final DocumentSnapshot mLastDocument;
+
+    public WorkmatesPage(List<Workmate> changedWorkmates, List<String> removedIds, int size, DocumentSnapshot lastDocument) {
+        mChangedWorkmates = changedWorkmates;
+        mRemovedIds = removedIds;
+        mSize = size;
+        mLastDocument = lastDocument;
+    }
+
+    // Added or modified, every document of the page for the first snapshot of a listener
+    public List<Workmate> getChangedWorkmates() {
+        return mChangedWorkmates;
+    }
+
+    public List<String> getRemovedIds() {
+        return mRemovedIds;
+    }
+
+    public int getSize() {
+        return mSize;
+    }
+
+    public DocumentSnapshot getLastDocument() {
+        return mLastDocument;
+    }
+}
@@ -2,17 +2,31 @@ package com.camel.go4lunch.repositories;
 
 import com.camel.go4lunch.BuildConfig;
 import com.camel.go4lunch.api.PlacesService;
+import com.camel.go4lunch.cache.NearbyTileCache;
+import com.camel.go4lunch.cache.PlaceDetailsCache;
 import com.camel.go4lunch.models.googlePlaceAutocomplete.PlaceAutocomplete;
 import com.camel.go4lunch.models.googlePlaceDetailsResult.PlaceDetailsResults;
+import com.camel.go4lunch.models.googlePlaceResult.Location;
+import com.camel.go4lunch.models.googlePlaceResult.PlaceSearch;
 import com.camel.go4lunch.models.googlePlaceResult.PlaceSearchResults;
+import com.camel.go4lunch.utils.DistanceUtils;
+import com.camel.go4lunch.utils.GeoHash;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import io.reactivex.Maybe;
 import io.reactivex.Observable;
+import io.reactivex.exceptions.Exceptions;
 import io.reactivex.schedulers.Schedulers;
 
 @Singleton
@@ -20,43 +34,244 @@ public class GooglePlacesRepository {
     public static final int PLACE_SERVICE_TIMEOUT = 10;
     public static final String PLACE_TYPE = "restaurant";
     public static final String AUTOCOMPLETE_PLACE_TYPE = "establishment";
+    private static final String STATUS_OK = "OK";
+    private static final String STATUS_ZERO_RESULTS = "ZERO_RESULTS";
+    private static final String STATUS_UNKNOWN_ERROR = "UNKNOWN_ERROR";
+    private static final int NEARBY_TILE_MIN_PRECISION = 6;
+    private static final int NEARBY_TILE_MAX_PRECISION = 7;
+    private static final int NEARBY_MAX_TILES_PER_SEARCH = 12;
 
     private final PlacesService mPlacesService;
+    private final PlaceDetailsCache mPlaceDetailsCache;
+    private final NearbyTileCache mNearbyTileCache;
+    private final ConcurrentHashMap<String, Observable<PlaceDetailsResults>> mDetailsRequestsInFlight = new ConcurrentHashMap<>();
 
-    private String mNextPageToken;
-    private String mSessionToken;
+    // Next page token of each cell of the current search that still has results
+    private volatile NearbyPaging mPaging;
+    private long mSearchId;
+    private volatile String mSessionToken;
 
     @Inject
-    public GooglePlacesRepository(PlacesService placesService){
+    public GooglePlacesRepository(PlacesService placesService,
+                                  PlaceDetailsCache placeDetailsCache,
+                                  NearbyTileCache nearbyTileCache){
         mPlacesService = placesService;
+        mPlaceDetailsCache = placeDetailsCache;
+        mNearbyTileCache = nearbyTileCache;
         generateSessionToken();
     }
 
     public Observable<PlaceSearchResults> getNearbyPlaces(double latitude, double longitude, double radius){
+        long searchId = startSearch();
+        List<String> cells = getSearchCells(latitude, longitude, radius);
+
+        if(cells.isEmpty()) {   // Search area too large to be tiled, fetch it directly
+            return fetchNearbyPlaces(latitude, longitude, radius)
+                    .map(results -> {
+                        CellPage page = new CellPage(null, results.getPlaceSearches(), results.getNextPageToken(), results.getStatus());
+                        return assembleSearch(searchId, Collections.singletonList(page), latitude, longitude, radius);
+                    });
+        }
+
+        return Observable.fromIterable(cells)
+                .flatMap(this::getNearbyPlacesForCell)
+                .toList()
+                .toObservable()
+                .map(cellPages -> assembleSearch(searchId, cellPages, latitude, longitude, radius));
+    }
+
+    private Observable<PlaceSearchResults> fetchNearbyPlaces(double latitude, double longitude, double radius) {
         String latlng = latitude + "," + longitude;
 
         return mPlacesService.fetchNearbyPlaces(BuildConfig.MAPS_API_KEY, latlng, String.valueOf(radius), PLACE_TYPE)
                 .subscribeOn(Schedulers.io())
-                .map(results -> {
-                    mNextPageToken = results.getNextPageToken();
-                    return results;
-                })
                 .timeout(PLACE_SERVICE_TIMEOUT, TimeUnit.SECONDS);
     }
 
+    // ---------------
+    // Nearby tiles
+    // ---------------
+
+    // Finest precision keeping the search under NEARBY_MAX_TILES_PER_SEARCH cells, empty if none fits
+    private List<String> getSearchCells(double latitude, double longitude, double radius) {
+        List<String> cells = GeoHash.getCoveringCells(latitude, longitude, radius, NEARBY_TILE_MIN_PRECISION);
+        if(cells.size() > NEARBY_MAX_TILES_PER_SEARCH) {
+            return new ArrayList<>();
+        }
+        List<String> finerCells = GeoHash.getCoveringCells(latitude, longitude, radius, NEARBY_TILE_MAX_PRECISION);
+        return finerCells.size() <= NEARBY_MAX_TILES_PER_SEARCH ? finerCells : cells;
+    }
+
+    // A truncated cell is cached with its next page token, so a dense cell is paged from the cache instead of fetched again
+    private Observable<CellPage> getNearbyPlacesForCell(String cell) {
+        return Observable.defer(() -> {
+            NearbyTileCache.Tile tile = mNearbyTileCache.get(cell);
+            if(tile != null) {
+                return Observable.just(new CellPage(cell, tile.getPlaceSearches(), tile.getNextPageToken(), STATUS_OK));
+            }
+
+            double[] bounds = GeoHash.getBounds(cell);
+            double centerLatitude = (bounds[GeoHash.MIN_LAT] + bounds[GeoHash.MAX_LAT]) / 2;
+            double centerLongitude = (bounds[GeoHash.MIN_LNG] + bounds[GeoHash.MAX_LNG]) / 2;
+            double cellRadius = DistanceUtils.distanceBetween(centerLatitude, centerLongitude,
+                    bounds[GeoHash.MAX_LAT], bounds[GeoHash.MAX_LNG]);
+
+            return fetchNearbyPlaces(centerLatitude, centerLongitude, cellRadius)
+                    .map(results -> {
+                        CellPage page = new CellPage(cell, results.getPlaceSearches(), results.getNextPageToken(), results.getStatus());
+                        if(page.isSuccessful()) {
+                            mNearbyTileCache.put(cell, page.mPlaceSearches, page.mNextPageToken);
+                        }
+                        return page;
+                    });
+        }).onErrorReturn(throwable -> new CellPage(cell, throwable));   // Never cached, fetched again next time
+    }
+
     public Observable<PlaceSearchResults> getNextPageNearbyPlaces() {
+        NearbyPaging paging = mPaging;
+        if(paging == null || paging.mPageTokens.isEmpty()) {
+            return Observable.just(createPlaceSearchResults(new ArrayList<>(), null, STATUS_ZERO_RESULTS));
+        }
 
-        return mPlacesService.fetchNextPageNearbyPlaces(BuildConfig.MAPS_API_KEY, mNextPageToken)
-                .subscribeOn(Schedulers.io())
-                .map(results -> {
-                    mNextPageToken = results.getNextPageToken();
-                    return results;
-                })
-                .timeout(PLACE_SERVICE_TIMEOUT, TimeUnit.SECONDS);
+        // Every cell still having results is paged, each page only keeps the places of its own cell
+        return Observable.fromIterable(paging.mPageTokens)
+                .flatMap(pageToken -> mPlacesService.fetchNextPageNearbyPlaces(BuildConfig.MAPS_API_KEY, pageToken.mNextPageToken)
+                        .subscribeOn(Schedulers.io())
+                        .timeout(PLACE_SERVICE_TIMEOUT, TimeUnit.SECONDS)
+                        .map(results -> {
+                            CellPage page = new CellPage(pageToken.mCell, results.getPlaceSearches(), results.getNextPageToken(), results.getStatus());
+                            if(page.isSuccessful() && pageToken.mCell != null) {
+                                mNearbyTileCache.append(pageToken.mCell, page.mPlaceSearches, page.mNextPageToken);
+                            }
+                            return page;
+                        })
+                        .onErrorReturn(throwable -> new CellPage(pageToken.mCell, throwable)))
+                .toList()
+                .toObservable()
+                .map(cellPages -> assembleSearch(paging.mSearchId, cellPages, paging.mLatitude, paging.mLongitude, paging.mRadius));
+    }
+
+    private PlaceSearchResults assembleSearch(long searchId, List<CellPage> cellPages, double latitude, double longitude, double radius) {
+        LinkedHashMap<String, PlaceSearch> places = new LinkedHashMap<>();
+        List<PageToken> pageTokens = new ArrayList<>();
+        String failedStatus = null;
+        Throwable error = null;
+        boolean anySuccessful = false;
+
+        for (CellPage cellPage : cellPages) {
+            for (PlaceSearch placeSearch : cellPage.mPlaceSearches) {
+                if(isInSearch(cellPage.mCell, placeSearch, latitude, longitude, radius)) {
+                    places.put(placeSearch.getPlaceId(), placeSearch);
+                }
+            }
+            if(hasToken(cellPage.mNextPageToken)) {
+                pageTokens.add(new PageToken(cellPage.mCell, cellPage.mNextPageToken));
+            }
+            if(cellPage.isSuccessful()) {
+                anySuccessful = true;
+            } else if(failedStatus == null) {
+                failedStatus = cellPage.mStatus;
+            }
+            if(cellPage.mError != null && error == null) {
+                error = cellPage.mError;
+            }
+        }
+
+        // Only a search where every cell failed is an error, a timeout or a lost connection is then reported as before
+        if(!anySuccessful && error != null) {
+            throw Exceptions.propagate(error);
+        }
+
+        // Cells are assembled in grid order, give the list back a stable order from the search center
+        List<PlaceSearch> placeSearches = new ArrayList<>(places.values());
+        Collections.sort(placeSearches, (placeSearch1, placeSearch2) -> Double.compare(
+                getDistance(latitude, longitude, placeSearch1),
+                getDistance(latitude, longitude, placeSearch2)));
+
+        publishPaging(new NearbyPaging(searchId, latitude, longitude, radius, pageTokens));
+
+        // A failing cell is reported even when the others found places
+        String status = failedStatus != null ? failedStatus : placeSearches.isEmpty() ? STATUS_ZERO_RESULTS : STATUS_OK;
+        return createPlaceSearchResults(placeSearches, pageTokens.isEmpty() ? null : pageTokens.get(0).mNextPageToken, status);
+    }
+
+    // A tiled search keeps the places of the cell inside the search circle, a direct search keeps everything
+    private boolean isInSearch(String cell, PlaceSearch placeSearch, double latitude, double longitude, double radius) {
+        if(cell == null) {
+            return true;
+        }
+        Location location = getLocation(placeSearch);
+        return location != null
+                && GeoHash.contains(cell, location.getLat(), location.getLng())
+                && getDistance(latitude, longitude, placeSearch) <= radius;
+    }
+
+    private synchronized long startSearch() {
+        mPaging = null;
+        return ++mSearchId;
+    }
+
+    // Results of an older search finishing late never replace the paging of the current one
+    private synchronized void publishPaging(NearbyPaging paging) {
+        if(paging.mSearchId == mSearchId) {
+            mPaging = paging;
+        }
+    }
+
+    private static boolean hasToken(String nextPageToken) {
+        return nextPageToken != null && !nextPageToken.isEmpty();
+    }
+
+    private PlaceSearchResults createPlaceSearchResults(List<PlaceSearch> placeSearches, String nextPageToken, String status) {
+        PlaceSearchResults results = new PlaceSearchResults();
+        results.setPlaceSearches(placeSearches);
+        results.setNextPageToken(nextPageToken);
+        results.setStatus(status);
+        return results;
+    }
+
+    // Places without coordinates, only kept by a direct search, come last
+    private double getDistance(double latitude, double longitude, PlaceSearch placeSearch) {
+        Location location = getLocation(placeSearch);
+        if(location == null) {
+            return Double.MAX_VALUE;
+        }
+        return DistanceUtils.distanceBetween(latitude, longitude, location.getLat(), location.getLng());
+    }
+
+    private Location getLocation(PlaceSearch placeSearch) {
+        if(placeSearch.getPlaceSearchGeometry() == null) {
+            return null;
+        }
+        return placeSearch.getPlaceSearchGeometry().getLocation();
     }
 
     public Observable<PlaceDetailsResults> getDetailsForPlaceId(String placeId) {
+        Observable<PlaceDetailsResults> request = mDetailsRequestsInFlight.get(placeId);
+        if(request == null) {
+            Observable<PlaceDetailsResults> newRequest = createDetailsRequest(placeId);
+            request = mDetailsRequestsInFlight.putIfAbsent(placeId, newRequest);
+            if(request == null) {
+                request = newRequest;
+            }
+        }
+        return request;
+    }
 
+    // Concurrent callers for the same place_id share one cache read / network call and its result
+    private Observable<PlaceDetailsResults> createDetailsRequest(String placeId) {
+        AtomicReference<Observable<PlaceDetailsResults>> request = new AtomicReference<>();
+        request.set(Maybe.fromCallable(() -> mPlaceDetailsCache.get(placeId))
+                .subscribeOn(Schedulers.io())
+                .toObservable()
+                .switchIfEmpty(Observable.defer(() -> fetchDetailsForPlaceId(placeId)))
+                .doFinally(() -> mDetailsRequestsInFlight.remove(placeId, request.get()))   // Never a newer request
+                .replay(1)
+                .refCount());
+        return request.get();
+    }
+
+    private Observable<PlaceDetailsResults> fetchDetailsForPlaceId(String placeId) {
         String fields = "name,"
                 + "place_id,"
                 + "address_component,"
@@ -71,6 +286,9 @@ public class GooglePlacesRepository {
                 .subscribeOn(Schedulers.io())
                 .map(results -> {
                     generateSessionToken();
+                    if(results.getPlaceDetails() != null) {
+                        mPlaceDetailsCache.put(placeId, results);
+                    }
                     return results;
                 })
                 .timeout(PLACE_SERVICE_TIMEOUT, TimeUnit.SECONDS);
@@ -90,10 +308,68 @@ public class GooglePlacesRepository {
     }
 
     public boolean haveNextPageToken() {
-        return mNextPageToken != null && !mNextPageToken.isEmpty();
+        NearbyPaging paging = mPaging;
+        return paging != null && !paging.mPageTokens.isEmpty();
     }
 
     private void generateSessionToken(){
         mSessionToken = UUID.randomUUID().toString();
     }
+
+    // Places of one cell, or of the whole search when it is not tiled
+    private static class CellPage {
+        final String mCell;
+        final List<PlaceSearch> mPlaceSearches;
+        final String mNextPageToken;
+        final String mStatus;
+        final Throwable mError;
+
+        CellPage(String cell, List<PlaceSearch> placeSearches, String nextPageToken, String status) {
+            mCell = cell;
+            mPlaceSearches = placeSearches != null ? placeSearches : new ArrayList<>();
+            mNextPageToken = nextPageToken;
+            mStatus = status;
+            mError = null;
+        }
+
+        // A cell whose request failed, the other cells of the search are still shown
+        CellPage(String cell, Throwable error) {
+            mCell = cell;
+            mPlaceSearches = new ArrayList<>();
+            mNextPageToken = null;
+            mStatus = STATUS_UNKNOWN_ERROR;
+            mError = error;
+        }
+
+        boolean isSuccessful() {
+            return STATUS_OK.equals(mStatus) || STATUS_ZERO_RESULTS.equals(mStatus);
+        }
+    }
+
+    private static class PageToken {
+        final String mCell;
+        final String mNextPageToken;
+
+        PageToken(String cell, String nextPageToken) {
+            mCell = cell;
+            mNextPageToken = nextPageToken;
+        }
+    }
+
+    // Immutable, replaced as a whole so it is safely read from any thread
+    private static class NearbyPaging {
+        final long mSearchId;
+        final double mLatitude;
+        final double mLongitude;
+        final double mRadius;
+        final List<PageToken> mPageTokens;
+
+        NearbyPaging(long searchId, double latitude, double longitude, double radius, List<PageToken> pageTokens) {
+            mSearchId = searchId;
+            mLatitude = latitude;
+            mLongitude = longitude;
+            mRadius = radius;
+            mPageTokens = Collections.unmodifiableList(pageTokens);
+        }
+    }
 }
@@ -1,45 +1,175 @@
 package com.camel.go4lunch.repositories;
 
 import com.camel.go4lunch.models.Restaurant;
+import com.camel.go4lunch.models.RestaurantChangeSet;
+import com.camel.go4lunch.utils.GeoHashGrid;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import io.reactivex.Observable;
 import io.reactivex.subjects.BehaviorSubject;
+import io.reactivex.subjects.PublishSubject;
 
+/**
+ * Restaurants of the current search, written from the search pipeline threads and read from any thread.
+ * <p>
+ * Writes are serialized on mWriteLock so the map, the list size and the emitted snapshots and change sets
+ * always agree, and emissions reach the subscribers in order. Reads never lock: the ConcurrentHashMap makes
+ * a restaurant, in the state it had when it was added, visible to every thread reading it afterwards.
+ * A restaurant must therefore be replaced, not modified, once it has been added.
+ * <p>
+ * Each search starts a new generation, restaurants added with an older generation are dropped.
+ * <p>
+ * The full list is emitted once when the pending restaurants of a page arrive and once when they have all settled,
+ * the restaurants completed in between only go through the change sets.
+ * <p>
+ * Located restaurants are also kept in a geohash grid, so viewport and nearest queries only visit nearby cells.
+ */
 @Singleton
 public class RestaurantRepository {
-    private final HashMap<String,Restaurant> mRestaurantHashMap;
-    private int newListSize;
+    public static final int SPATIAL_INDEX_PRECISION = 6;
+
+    private final ConcurrentHashMap<String, Restaurant> mRestaurantHashMap = new ConcurrentHashMap<>();
+    private final AtomicInteger mNewListSize = new AtomicInteger();
+    private final AtomicLong mGeneration = new AtomicLong();
     private final BehaviorSubject<HashMap<String, Restaurant>> mRestaurantListObservable;
 
+    private final Object mWriteLock = new Object();
+    private final PublishSubject<RestaurantChangeSet> mChangeSetObservable = PublishSubject.create();
+    private final LinkedHashSet<String> mPendingRemovedIds = new LinkedHashSet<>();
+    private final HashSet<String> mSettledIds = new HashSet<>();
+    private long mVersion;
+    private final GeoHashGrid mSpatialIndex = new GeoHashGrid(SPATIAL_INDEX_PRECISION);
+
     @Inject
     public RestaurantRepository() {
-        mRestaurantHashMap = new HashMap<>();
-
         mRestaurantListObservable = BehaviorSubject.create();
     }
 
     public void addNewRestaurant(Restaurant restaurant) {
-        mRestaurantHashMap.put(restaurant.getUId(), restaurant);
+        addNewRestaurant(restaurant, mGeneration.get());
+    }
+
+    public void addNewRestaurant(Restaurant restaurant, long generation) {
+        synchronized (mWriteLock) {
+            if(generation != mGeneration.get()) {
+                return;
+            }
 
-        if(mRestaurantHashMap.size() == newListSize) {
-            mRestaurantListObservable.onNext(new HashMap<>(mRestaurantHashMap));
+            HashMap<String, Restaurant> added = new HashMap<>();
+            HashMap<String, Restaurant> updated = new HashMap<>();
+            indexRestaurant(restaurant);
+            if(mRestaurantHashMap.put(restaurant.getUId(), restaurant) == null) {
+                added.put(restaurant.getUId(), restaurant);
+            } else {
+                updated.put(restaurant.getUId(), restaurant);
+            }
+            emitChangeSet(added, updated);
+
+            // Nothing while the page settles, then every update on its own (a workmate choosing the restaurant)
+            mSettledIds.add(restaurant.getUId());
+            if(mSettledIds.size() == mNewListSize.get()) {
+                mRestaurantListObservable.onNext(new HashMap<>(mRestaurantHashMap));
+            }
         }
     }
 
-    public void clearRestaurantList(){
-        mRestaurantHashMap.clear();
+    public void addPendingRestaurants(List<Restaurant> restaurants) {
+        addPendingRestaurants(restaurants, mGeneration.get());
+    }
+
+    // Lightweight restaurants from the Nearby Search, emitted right away and replaced once their details arrive
+    public void addPendingRestaurants(List<Restaurant> restaurants, long generation) {
+        synchronized (mWriteLock) {
+            if(generation != mGeneration.get()) {
+                return;
+            }
+
+            HashMap<String, Restaurant> added = new HashMap<>();
+            for(Restaurant restaurant : restaurants) {
+                if(mRestaurantHashMap.putIfAbsent(restaurant.getUId(), restaurant) == null) {
+                    indexRestaurant(restaurant);
+                    added.put(restaurant.getUId(), restaurant);
+                }
+            }
+
+            if(!restaurants.isEmpty()) {
+                emitChangeSet(added, new HashMap<>());
+                mRestaurantListObservable.onNext(new HashMap<>(mRestaurantHashMap));
+            }
+        }
+    }
+
+    /**
+     * Starts a new search generation and returns it.
+     * Removals are held back until the next emission, so consumers keep the previous list until new results arrive.
+     */
+    public long clearRestaurantList(){
+        synchronized (mWriteLock) {
+            mPendingRemovedIds.addAll(mRestaurantHashMap.keySet());
+            mRestaurantHashMap.clear();
+            mSpatialIndex.clear();
+            mSettledIds.clear();
+            mNewListSize.set(0);
+            return mGeneration.incrementAndGet();
+        }
+    }
+
+    public long getGeneration() {
+        return mGeneration.get();
     }
 
     public Observable<HashMap<String, Restaurant>> observeRestaurantList() {
         return mRestaurantListObservable;
     }
 
+    /**
+     * Starts with the current content as added restaurants, then only emits what changed.
+     * Nothing is emitted before the first change, like observeRestaurantList().
+     */
+    public Observable<RestaurantChangeSet> observeRestaurantChanges() {
+        return Observable.create(emitter -> {
+            synchronized (mWriteLock) {
+                if(mVersion > 0) {
+                    emitter.onNext(new RestaurantChangeSet(mVersion,
+                            new HashMap<>(mRestaurantHashMap),
+                            new HashMap<>(),
+                            new ArrayList<>()));
+                }
+                emitter.setDisposable(mChangeSetObservable.subscribe(emitter::onNext, emitter::onError));
+            }
+        });
+    }
+
+    // Restaurants located inside the bounding box, a visible map region for instance
+    public Observable<List<Restaurant>> getRestaurantsInBounds(double minLat, double minLng, double maxLat, double maxLng) {
+        return Observable.fromCallable(() -> {
+            synchronized (mWriteLock) {
+                return getRestaurantsWithIds(mSpatialIndex.queryBounds(minLat, minLng, maxLat, maxLng));
+            }
+        });
+    }
+
+    // Up to count restaurants, the nearest from the given position first
+    public Observable<List<Restaurant>> getNearestRestaurants(double latitude, double longitude, int count) {
+        return Observable.fromCallable(() -> {
+            synchronized (mWriteLock) {
+                return getRestaurantsWithIds(mSpatialIndex.queryNearest(latitude, longitude, count));
+            }
+        });
+    }
+
     public Observable<Restaurant> getRestaurantWithId(String placeId) {
         return Observable.just(Objects.requireNonNull(mRestaurantHashMap.get(placeId)));
     }
@@ -49,14 +179,64 @@ public class RestaurantRepository {
     }
 
     public void setNewListSize(int size) {
-        newListSize = size;
-        if(newListSize == 0){
-            mRestaurantHashMap.clear();
-            mRestaurantListObservable.onNext(new HashMap<>(mRestaurantHashMap));
+        setNewListSize(size, mGeneration.get());
+    }
+
+    public void setNewListSize(int size, long generation) {
+        synchronized (mWriteLock) {
+            if(generation != mGeneration.get()) {
+                return;
+            }
+
+            mNewListSize.set(size);
+            if(size == 0){
+                mPendingRemovedIds.addAll(mRestaurantHashMap.keySet());
+                mRestaurantHashMap.clear();
+                mSpatialIndex.clear();
+                mSettledIds.clear();
+                emitChangeSet(new HashMap<>(), new HashMap<>());
+                mRestaurantListObservable.onNext(new HashMap<>(mRestaurantHashMap));
+            }
         }
     }
 
-    public void setAddListSize(int size) {
-        newListSize += size;
+    public void setAddListSize(int size, long generation) {
+        synchronized (mWriteLock) {
+            if(generation == mGeneration.get()) {
+                mNewListSize.addAndGet(size);
+            }
+        }
+    }
+
+    // Called with mWriteLock held
+    private void indexRestaurant(Restaurant restaurant) {
+        if(restaurant.hasLocation()) {
+            mSpatialIndex.put(restaurant.getUId(), restaurant.getLatitude(), restaurant.getLongitude());
+        } else {
+            mSpatialIndex.remove(restaurant.getUId());
+        }
+    }
+
+    // Called with mWriteLock held
+    private List<Restaurant> getRestaurantsWithIds(List<String> placeIds) {
+        List<Restaurant> restaurants = new ArrayList<>();
+        for(String placeId : placeIds) {
+            restaurants.add(mRestaurantHashMap.get(placeId));
+        }
+        return restaurants;
+    }
+
+    // Called with mWriteLock held
+    private void emitChangeSet(HashMap<String, Restaurant> added, HashMap<String, Restaurant> updated) {
+        // A restaurant removed by a new search and found again is an update for the consumers
+        for(String placeId : new ArrayList<>(added.keySet())) {
+            if(mPendingRemovedIds.remove(placeId)) {
+                updated.put(placeId, added.remove(placeId));
+            }
+        }
+
+        mVersion++;
+        mChangeSetObservable.onNext(new RestaurantChangeSet(mVersion, added, updated, new ArrayList<>(mPendingRemovedIds)));
+        mPendingRemovedIds.clear();
     }
 }
@@ -5,92 +5,160 @@ import android.util.Log;
 import com.camel.go4lunch.mappers.NearbyPlacesResultToRestaurantMapper;
 import com.camel.go4lunch.mappers.PlaceDetailsResultToRestaurantMapper;
 import com.camel.go4lunch.models.Restaurant;
-import com.camel.go4lunch.models.Workmate;
+import com.camel.go4lunch.models.RestaurantChangeSet;
 import com.camel.go4lunch.utils.NoMorePageException;
 
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
+import javax.inject.Singleton;
 
 import io.reactivex.Observable;
-import io.reactivex.disposables.Disposable;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.CompositeDisposable;
 import io.reactivex.schedulers.Schedulers;
 import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
 
+// Shared by every view model, so a new search cancels the previous one wherever it was started
+@Singleton
 public class RestaurantUseCase{
     private final GooglePlacesRepository mGooglePlacesRepository;
     private final com.camel.go4lunch.repositories.RestaurantRepository mRestaurantRepository;
     private final com.camel.go4lunch.repositories.WorkmatesRepository mWorkmatesRepository;
 
-    private Disposable mDisposable;
+    private static final String TAG = "RestaurantUseCase";
+    public static final int DEFAULT_MAX_CONCURRENCY = 4;
+    public static final int DETAILS_RETRY_COUNT = 1;
+    private static final String PIPELINE_THREAD_NAME = "RestaurantPipeline-";
+    private static final long PIPELINE_THREAD_KEEP_ALIVE_SECONDS = 30;
+
+    private final Scheduler mPipelineScheduler;
+    private final int mMaxConcurrency;
+
+    // Every pipeline of the current search, its pages included, disposed as a whole when a new search starts
+    private final CompositeDisposable mSearchDisposables = new CompositeDisposable();
 
     private final PublishSubject<Exception> mErrorsObservable = PublishSubject.create();
+    private final Subject<Integer> mFailedItemsObservable = PublishSubject.<Integer>create().toSerialized();
 
     @Inject
     public RestaurantUseCase(GooglePlacesRepository googlePlacesRepository,
                              com.camel.go4lunch.repositories.RestaurantRepository restaurantRepository,
                              com.camel.go4lunch.repositories.WorkmatesRepository workmatesRepository){
+        this(googlePlacesRepository,
+                restaurantRepository,
+                workmatesRepository,
+                createPipelineScheduler(DEFAULT_MAX_CONCURRENCY),
+                DEFAULT_MAX_CONCURRENCY);
+    }
+
+    public RestaurantUseCase(GooglePlacesRepository googlePlacesRepository,
+                             com.camel.go4lunch.repositories.RestaurantRepository restaurantRepository,
+                             com.camel.go4lunch.repositories.WorkmatesRepository workmatesRepository,
+                             Scheduler pipelineScheduler,
+                             int maxConcurrency){
         mGooglePlacesRepository = googlePlacesRepository;
         mRestaurantRepository = restaurantRepository;
         mWorkmatesRepository = workmatesRepository;
+        mPipelineScheduler = pipelineScheduler;
+        mMaxConcurrency = maxConcurrency;
+    }
+
+    // Bounded and named, idle threads are released so the pipeline costs nothing when unused
+    private static Scheduler createPipelineScheduler(int threadCount) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount,
+                threadCount,
+                PIPELINE_THREAD_KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> new Thread(runnable, PIPELINE_THREAD_NAME + threadNumber.incrementAndGet()));
+        executor.allowCoreThreadTimeOut(true);
+        return Schedulers.from(executor);
     }
 
     public void getNearbyPlaces(double latitude, double longitude, double radius) {
-        mRestaurantRepository.clearRestaurantList();
-        mDisposable = mGooglePlacesRepository.getNearbyPlaces(latitude, longitude, radius)
+        mSearchDisposables.clear();
+        long generation = mRestaurantRepository.clearRestaurantList();
+        mSearchDisposables.add(mGooglePlacesRepository.getNearbyPlaces(latitude, longitude, radius)
                 .subscribeOn(Schedulers.io())
                 .map(new NearbyPlacesResultToRestaurantMapper())
                 .map(restaurants -> {
-                    mRestaurantRepository.setNewListSize(restaurants.size());
+                    mRestaurantRepository.setNewListSize(restaurants.size(), generation);
+                    mRestaurantRepository.addPendingRestaurants(restaurants, generation);
                     return restaurants;
                 })
-                .switchMap(Observable::fromIterable)
+                .switchMap(this::getDetailsForPlaces)
                 .flatMap(this::getInterestedWorkmates)
-                .flatMap(this::getDetailsForPlace)
                 .subscribe(
-                        mRestaurantRepository::addNewRestaurant,
+                        restaurant -> mRestaurantRepository.addNewRestaurant(restaurant, generation),
                         throwable -> {
                             mErrorsObservable.onNext(new Exception(throwable));
-                            Log.e("RestaurantUseCase", "getNearbyPlaces: " + throwable.toString());
-                        });
+                            Log.e(TAG, "getNearbyPlaces: " + throwable.toString());
+                        }));
     }
 
+    private Observable<Restaurant> getDetailsForPlaces(List<Restaurant> pendingRestaurants) {
+        SearchProgress searchProgress = new SearchProgress(pendingRestaurants.size());
+        return Observable.fromIterable(pendingRestaurants)
+                .flatMap(pendingRestaurant -> getDetailsOrPending(pendingRestaurant, searchProgress), mMaxConcurrency);
+    }
+
+    // A failing place keeps its pending restaurant, so it never takes the rest of the search down
+    private Observable<Restaurant> getDetailsOrPending(Restaurant pendingRestaurant, SearchProgress searchProgress) {
+        return Observable.defer(() -> getDetailsForPlace(pendingRestaurant))
+                .retry(DETAILS_RETRY_COUNT)
+                .doOnNext(restaurant -> searchProgress.onItemSettled(false))
+                .onErrorResumeNext(throwable -> {
+                    Log.w(TAG, "getDetailsOrPending: " + pendingRestaurant.getUId() + " " + throwable.toString());
+                    searchProgress.onItemSettled(true);
+                    return Observable.just(pendingRestaurant);
+                });
+    }
+
+    // Live listener that never completes, so it can't be bounded by mMaxConcurrency without starving the stage
     private Observable<Restaurant> getInterestedWorkmates(Restaurant restaurant){
-        return mWorkmatesRepository.getInterestedWorkmatesForRestaurants(restaurant.getUId())
-                .subscribeOn(Schedulers.io())
-                .map(interestedWorkmates -> {
-                    restaurant.getInterestedWorkmates().clear();
-                    for(Workmate workmate : interestedWorkmates) {
-                        restaurant.getInterestedWorkmates().add(workmate.getUId());
-                    }
+        return mWorkmatesRepository.getInterestedWorkmateIdsForRestaurant(restaurant.getUId())
+                .observeOn(mPipelineScheduler)
+                .map(restaurant::withInterestedWorkmates)
+                .onErrorReturn(throwable -> {
+                    Log.w(TAG, "getInterestedWorkmates: " + restaurant.getUId() + " " + throwable.toString());
                     return restaurant;
                 });
     }
 
-    private Observable<Restaurant> getDetailsForPlace(Restaurant restaurant){
-        return mGooglePlacesRepository.getDetailsForPlaceId(restaurant.getUId())
-                .subscribeOn(Schedulers.io())
-                .map(new PlaceDetailsResultToRestaurantMapper(restaurant));
+    // The pending restaurant already displayed is never mutated, the details are built into a new instance
+    private Observable<Restaurant> getDetailsForPlace(Restaurant pendingRestaurant){
+        return mGooglePlacesRepository.getDetailsForPlaceId(pendingRestaurant.getUId())
+                .observeOn(mPipelineScheduler)
+                .map(new PlaceDetailsResultToRestaurantMapper(pendingRestaurant));
     }
 
     public void loadNextPage() {
         if(mGooglePlacesRepository.haveNextPageToken()) {
-            mDisposable = mGooglePlacesRepository.getNextPageNearbyPlaces()
+            long generation = mRestaurantRepository.getGeneration();
+            mSearchDisposables.add(mGooglePlacesRepository.getNextPageNearbyPlaces()
                     .map(new NearbyPlacesResultToRestaurantMapper())
                     .map(restaurants -> {
-                        mRestaurantRepository.setAddListSize(restaurants.size());
+                        mRestaurantRepository.setAddListSize(restaurants.size(), generation);
+                        mRestaurantRepository.addPendingRestaurants(restaurants, generation);
                         return restaurants;
                     })
-                    .switchMap(Observable::fromIterable)
+                    .switchMap(this::getDetailsForPlaces)
                     .flatMap(this::getInterestedWorkmates)
-                    .flatMap(this::getDetailsForPlace)
                     .subscribeOn(Schedulers.io())
                     .subscribe(
-                            mRestaurantRepository::addNewRestaurant,
+                            restaurant -> mRestaurantRepository.addNewRestaurant(restaurant, generation),
                             throwable -> {
                                 mErrorsObservable.onNext(new Exception(throwable));
-                                Log.e("RestaurantUseCase", "getNearbyPlaces: " + throwable.toString());
-                            });
+                                Log.e(TAG, "getNearbyPlaces: " + throwable.toString());
+                            }));
         } else {
             mErrorsObservable.onNext(new NoMorePageException());
         }
@@ -102,7 +170,14 @@ public class RestaurantUseCase{
                     if(restaurantPresent){
                         return mRestaurantRepository.getRestaurantWithId(restaurantId);
                     }else {
-                        return getDetailsForPlace(new Restaurant(restaurantId));
+                        return Observable.just(new Restaurant.Builder(restaurantId).build());
+                    }
+                })
+                .flatMap(restaurant -> {
+                    if(restaurant.isDetailsLoaded()){
+                        return Observable.just(restaurant);
+                    }else {
+                        return getDetailsForPlace(restaurant);
                     }
                 })
                 .subscribeOn(Schedulers.io());
@@ -112,13 +187,47 @@ public class RestaurantUseCase{
         return mRestaurantRepository.observeRestaurantList();
     }
 
+    public Observable<RestaurantChangeSet> observeRestaurantChanges(){
+        return mRestaurantRepository.observeRestaurantChanges();
+    }
+
+    public Observable<List<Restaurant>> getRestaurantsInBounds(double minLat, double minLng, double maxLat, double maxLng){
+        return mRestaurantRepository.getRestaurantsInBounds(minLat, minLng, maxLat, maxLng);
+    }
+
+    public Observable<List<Restaurant>> getNearestRestaurants(double latitude, double longitude, int count){
+        return mRestaurantRepository.getNearestRestaurants(latitude, longitude, count);
+    }
+
     public Observable<Exception> observeErrors(){
         return mErrorsObservable;
     }
 
+    // Amount of restaurants shown without their details once every place of a page has been tried
+    public Observable<Integer> observeFailedItems(){
+        return mFailedItemsObservable;
+    }
+
     public void clearDisposable(){
-        if(mDisposable != null) {
-            mDisposable.dispose();
+        mSearchDisposables.clear();
+    }
+
+    private class SearchProgress {
+        private final int mItemCount;
+        private final AtomicInteger mSettledCount = new AtomicInteger();
+        private final AtomicInteger mFailedCount = new AtomicInteger();
+
+        SearchProgress(int itemCount) {
+            mItemCount = itemCount;
+        }
+
+        void onItemSettled(boolean failed) {
+            if(failed) {
+                mFailedCount.incrementAndGet();
+            }
+            if(mSettledCount.incrementAndGet() == mItemCount && mFailedCount.get() > 0) {
+                mFailedItemsObservable.onNext(mFailedCount.get());
+            }
         }
     }
 }
@@ -10,6 +10,8 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import dagger.hilt.android.qualifiers.ApplicationContext;
+import io.reactivex.Observable;
+import io.reactivex.subjects.BehaviorSubject;
 
 @Singleton
 public class UserDataRepository {
@@ -24,6 +26,7 @@ public class UserDataRepository {
 
     // For Location
     private Location mLocation;
+    private final BehaviorSubject<Location> mLocationObservable = BehaviorSubject.create();
     private boolean mPermissionGranted;
     private int mDistanceUnit = R.string.unit_meter_short;
 
@@ -73,12 +76,19 @@ public class UserDataRepository {
 
     public void setLocation(Location location){
         mLocation = location;
+        if(location != null) {
+            mLocationObservable.onNext(location);
+        }
     }
 
     public Location getLocation() {
         return mLocation;
     }
 
+    public Observable<Location> observeLocation() {
+        return mLocationObservable;
+    }
+
     public void setLocationPermissionGranted(boolean granted) {
         mPermissionGranted = granted;
     }
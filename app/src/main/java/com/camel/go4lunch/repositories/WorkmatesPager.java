@@ -0,0 +1,406 @@
+package com.camel.go4lunch.repositories;
+
+import android.util.Log;
+
+import com.camel.go4lunch.models.Workmate;
+import com.camel.go4lunch.models.WorkmateChangeSet;
+import com.camel.go4lunch.models.WorkmatesPage;
+import com.camel.go4lunch.utils.SortedWorkmateList;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+import javax.inject.Inject;
+
+import io.reactivex.Observable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.subjects.PublishSubject;
+
+/**
+ * Workmates list loaded page by page with query cursors, in two sections: today's choices by restaurant
+ * name then nickname, then the whole collection by document id once every choice is loaded.
+ * Only the pages around the visible rows keep their snapshot listener, the others keep their last content.
+ * A page's cursor is the last document of the previous page when that page was first loaded.
+ * A workmate held by both sections shows the row of a live page first, today's choice when both are live.
+ * One sorted list lives as long as the pager, a snapshot only moves the rows it changed and the
+ * list is emitted along with those changes.
+ */
+public class WorkmatesPager {
+    private static final String TAG = "WorkmatesPager";
+    public static final int PAGE_SIZE = 25;
+    public static final int LIVE_PAGES_AROUND_VISIBLE = 1;
+    public static final int PREFETCH_DISTANCE = 10;
+
+    private final WorkmatesRepository mWorkmatesRepository;
+    private Section mChosenSection;                             // Null until today's id is known, replaced at midnight
+    private final Section mWorkmatesSection;
+    private Disposable mTodayIdDisposable;
+    private final SortedWorkmateList mWorkmates = new SortedWorkmateList();
+    private final PublishSubject<WorkmateChangeSet> mChangesObservable = PublishSubject.create();
+    private boolean mEmitted;
+
+    @Inject
+    public WorkmatesPager(WorkmatesRepository workmatesRepository) {
+        mWorkmatesRepository = workmatesRepository;
+        mWorkmatesSection = new Section(workmatesRepository::observeWorkmatesPage);
+    }
+
+    // Starts with the current rows as added ones, then only emits what changed
+    public Observable<WorkmateChangeSet> observeWorkmates() {
+        return Observable.create(emitter -> {
+            synchronized (this) {
+                if(mEmitted) {
+                    List<Workmate> workmates = mWorkmates.getWorkmates();
+                    emitter.onNext(new WorkmateChangeSet(workmates, new ArrayList<>(workmates), new ArrayList<>(), new ArrayList<>()));
+                }
+                emitter.setDisposable(mChangesObservable.subscribe(emitter::onNext, emitter::onError));
+            }
+        });
+    }
+
+    public synchronized void start() {
+        if(mTodayIdDisposable == null || mTodayIdDisposable.isDisposed()) {
+            mTodayIdDisposable = mWorkmatesRepository.observeTodayId()
+                    .subscribe(this::onTodayIdChanged,
+                            throwable -> Log.e(TAG, "observeTodayId: ", throwable));
+        }
+    }
+
+    // Today's choices first, the other workmates are only paged once the last choice is loaded
+    public synchronized void loadNextPage() {
+        if(mChosenSection == null) {
+            return;
+        }
+        if(!mChosenSection.mLastPageReached) {
+            mChosenSection.loadNextPage();
+        } else {
+            mWorkmatesSection.loadNextPage();
+        }
+    }
+
+    // Keeps the pages around the visible rows live and loads the next one before the end is reached.
+    // A section without visible rows keeps its page nearest to them live, the last choices or the first workmates
+    public synchronized void onVisibleRangeChanged(List<Workmate> visibleWorkmates, int rowsAfterVisible) {
+        if(mChosenSection == null) {
+            return;
+        }
+
+        List<Workmate> chosenWorkmates = new ArrayList<>();
+        List<Workmate> otherWorkmates = new ArrayList<>();
+        for (Workmate workmate : visibleWorkmates) {
+            if(!workmate.getChosenRestaurantName().isEmpty() && mChosenSection.mPageIndexById.containsKey(workmate.getUId())) {
+                chosenWorkmates.add(workmate);
+            } else {
+                otherWorkmates.add(workmate);
+            }
+        }
+
+        RowChanges changes = new RowChanges();
+        mChosenSection.keepVisiblePagesLive(chosenWorkmates, mChosenSection.mPages.size() - 1, changes);
+        mWorkmatesSection.keepVisiblePagesLive(otherWorkmates, 0, changes);
+        emitWorkmates(changes);
+
+        if(rowsAfterVisible < PREFETCH_DISTANCE) {
+            loadNextPage();
+        }
+    }
+
+    public synchronized void clear() {
+        if(mTodayIdDisposable != null) {
+            mTodayIdDisposable.dispose();
+        }
+        if(mChosenSection != null) {
+            mChosenSection.clear();
+            mChosenSection = null;
+        }
+        mWorkmatesSection.clear();
+
+        List<String> removed = new ArrayList<>();
+        for (Workmate workmate : mWorkmates.getWorkmates()) {
+            removed.add(workmate.getUId());
+        }
+        mWorkmates.clear();
+        if(!removed.isEmpty()) {
+            mChangesObservable.onNext(new WorkmateChangeSet(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), removed));
+        }
+    }
+
+    public synchronized int getLivePageCount() {
+        return (mChosenSection != null ? mChosenSection.getLivePageCount() : 0) + mWorkmatesSection.getLivePageCount();
+    }
+
+    // Yesterday's choices leave the list at midnight, today's ones are paged from the start
+    private synchronized void onTodayIdChanged(String todayId) {
+        RowChanges changes = new RowChanges();
+        if(mChosenSection != null) {
+            Section previousSection = mChosenSection;
+            Set<String> uIds = new HashSet<>(previousSection.mPageIndexById.keySet());
+            previousSection.clear();
+            for (String uId : uIds) {
+                updateRow(uId, changes);
+            }
+        }
+
+        mChosenSection = new Section((startAfter, pageSize) -> mWorkmatesRepository.observeChosenWorkmatesPage(todayId, startAfter, pageSize));
+        mChosenSection.loadNextPage();
+        emitWorkmates(changes);
+    }
+
+    // The first snapshot is emitted even when empty, so an empty list is shown
+    private void emitWorkmates(RowChanges changes) {
+        if(changes.isEmpty() && mEmitted) {
+            return;
+        }
+        mEmitted = true;
+        mChangesObservable.onNext(changes.toChangeSet(mWorkmates.getWorkmates()));
+    }
+
+    // A row of a detached page may be older, so a live page is preferred
+    private void updateRow(String uId, RowChanges changes) {
+        Page chosenPage = mChosenSection != null ? mChosenSection.getPage(uId) : null;
+        Page workmatePage = mWorkmatesSection.getPage(uId);
+        Page page = chosenPage != null && (workmatePage == null || chosenPage.isAttached() || !workmatePage.isAttached())
+                ? chosenPage
+                : workmatePage;
+        Workmate row = page != null ? page.mWorkmates.get(uId) : null;
+
+        Workmate shownRow = mWorkmates.get(uId);
+        if(row == shownRow) {
+            return;
+        }
+        if(row == null) {
+            mWorkmates.remove(uId);
+            changes.remove(uId);
+        } else {
+            mWorkmates.put(row);
+            changes.put(row, shownRow == null);
+        }
+    }
+
+    private interface PageQuery {
+        Observable<WorkmatesPage> observe(DocumentSnapshot startAfter, int pageSize);
+    }
+
+    // Pages of one query, in the order of its cursors
+    private class Section {
+        final PageQuery mPageQuery;
+        final List<Page> mPages = new ArrayList<>();
+        final HashMap<String, Integer> mPageIndexById = new HashMap<>();
+        boolean mLoading;
+        boolean mLastPageReached;
+
+        Section(PageQuery pageQuery) {
+            mPageQuery = pageQuery;
+        }
+
+        void loadNextPage() {
+            if(mLoading || mLastPageReached) {
+                return;
+            }
+
+            DocumentSnapshot startAfter = null;
+            if(!mPages.isEmpty()) {
+                startAfter = mPages.get(mPages.size() - 1).mNextPageCursor;
+                if(startAfter == null) {
+                    return;
+                }
+            }
+
+            Page page = new Page(startAfter);
+            mPages.add(page);
+            mLoading = true;
+            attach(page);
+        }
+
+        void keepVisiblePagesLive(List<Workmate> visibleWorkmates, int nearestPage, RowChanges changes) {
+            int firstVisiblePage = Integer.MAX_VALUE;
+            int lastVisiblePage = -1;
+            for (Workmate workmate : visibleWorkmates) {
+                Integer pageIndex = mPageIndexById.get(workmate.getUId());
+                if(pageIndex != null) {
+                    firstVisiblePage = Math.min(firstVisiblePage, pageIndex);
+                    lastVisiblePage = Math.max(lastVisiblePage, pageIndex);
+                }
+            }
+
+            int firstLivePage = nearestPage;
+            int lastLivePage = nearestPage;
+            if(lastVisiblePage >= 0) {
+                firstLivePage = firstVisiblePage - LIVE_PAGES_AROUND_VISIBLE;
+                lastLivePage = lastVisiblePage + LIVE_PAGES_AROUND_VISIBLE;
+            }
+            for (int i = 0; i < mPages.size(); i++) {
+                Page page = mPages.get(i);
+                boolean live = i >= firstLivePage && i <= lastLivePage;
+                if(live && !page.isAttached()) {
+                    attach(page);
+                } else if(!live && page.isAttached()) {
+                    page.detach();
+                    for (String uId : page.mWorkmates.keySet()) {       // The other section may hold a newer row
+                        updateRow(uId, changes);
+                    }
+                }
+            }
+        }
+
+        Page getPage(String uId) {
+            Integer pageIndex = mPageIndexById.get(uId);
+            return pageIndex != null ? mPages.get(pageIndex) : null;
+        }
+
+        int getLivePageCount() {
+            int livePageCount = 0;
+            for (Page page : mPages) {
+                if(page.isAttached()) {
+                    livePageCount++;
+                }
+            }
+            return livePageCount;
+        }
+
+        void clear() {
+            for (Page page : mPages) {
+                page.detach();
+            }
+            mPages.clear();
+            mPageIndexById.clear();
+            mLoading = false;
+            mLastPageReached = false;
+        }
+
+        private void attach(Page page) {
+            page.mSynced = false;
+            page.mDisposable = mPageQuery.observe(page.mStartAfter, PAGE_SIZE)
+                    .subscribe(workmatesPage -> onPageChanged(this, page, workmatesPage),
+                            throwable -> Log.e(TAG, "observeWorkmatesPage: ", throwable));
+        }
+
+        void applyPage(Page page, int pageIndex, WorkmatesPage workmatesPage, RowChanges changes) {
+            // A listener attached again starts with the whole page, the rows missing from it left the page meanwhile
+            if(!page.mSynced) {
+                page.mSynced = true;
+                Set<String> ids = new HashSet<>();
+                for (Workmate workmate : workmatesPage.getChangedWorkmates()) {
+                    ids.add(workmate.getUId());
+                }
+                for (String uId : new ArrayList<>(page.mWorkmates.keySet())) {
+                    if(!ids.contains(uId)) {
+                        removeFromPage(page, pageIndex, uId, changes);
+                    }
+                }
+            }
+            for (Workmate workmate : workmatesPage.getChangedWorkmates()) {
+                page.mWorkmates.put(workmate.getUId(), workmate);
+                Integer currentPageIndex = mPageIndexById.get(workmate.getUId());
+                if(currentPageIndex == null || currentPageIndex > pageIndex) {
+                    mPageIndexById.put(workmate.getUId(), pageIndex);
+                }
+                updateRow(workmate.getUId(), changes);
+            }
+            for (String uId : workmatesPage.getRemovedIds()) {
+                removeFromPage(page, pageIndex, uId, changes);
+            }
+
+            // The last page grows when documents are added after it, until a next page is loaded from its cursor
+            if(pageIndex == mPages.size() - 1) {
+                if(workmatesPage.getLastDocument() != null) {
+                    page.mNextPageCursor = workmatesPage.getLastDocument();
+                }
+                mLoading = false;
+                mLastPageReached = workmatesPage.getSize() < PAGE_SIZE;
+            }
+        }
+
+        private void removeFromPage(Page page, int pageIndex, String uId, RowChanges changes) {
+            page.mWorkmates.remove(uId);
+            Integer currentPageIndex = mPageIndexById.get(uId);
+            if(currentPageIndex != null && currentPageIndex == pageIndex) {
+                mPageIndexById.remove(uId);
+                for (int i = 0; i < mPages.size(); i++) {              // Only when a workmate moved to another page
+                    if(mPages.get(i).mWorkmates.containsKey(uId)) {
+                        mPageIndexById.put(uId, i);
+                        break;
+                    }
+                }
+            }
+            updateRow(uId, changes);
+        }
+    }
+
+    private synchronized void onPageChanged(Section section, Page page, WorkmatesPage workmatesPage) {
+        int pageIndex = section.mPages.indexOf(page);
+        if(pageIndex < 0) {
+            return;
+        }
+
+        RowChanges changes = new RowChanges();
+        section.applyPage(page, pageIndex, workmatesPage, changes);
+        emitWorkmates(changes);
+
+        // Every choice is loaded, the other workmates follow them
+        if(section == mChosenSection && section.mLastPageReached && mWorkmatesSection.mPages.isEmpty()) {
+            mWorkmatesSection.loadNextPage();
+        }
+    }
+
+    // Rows changed by one snapshot, a row added then changed again is still added, a row added then removed is dropped
+    private static class RowChanges {
+        final LinkedHashMap<String, Workmate> mAdded = new LinkedHashMap<>();
+        final LinkedHashMap<String, Workmate> mModified = new LinkedHashMap<>();
+        final Set<String> mRemoved = new HashSet<>();
+
+        void put(Workmate workmate, boolean added) {
+            String uId = workmate.getUId();
+            if(mAdded.containsKey(uId) || (added && !mRemoved.remove(uId))) {
+                mAdded.put(uId, workmate);
+            } else {
+                mModified.put(uId, workmate);
+            }
+        }
+
+        void remove(String uId) {
+            mModified.remove(uId);
+            if(mAdded.remove(uId) == null) {
+                mRemoved.add(uId);
+            }
+        }
+
+        boolean isEmpty() {
+            return mAdded.isEmpty() && mModified.isEmpty() && mRemoved.isEmpty();
+        }
+
+        WorkmateChangeSet toChangeSet(List<Workmate> workmates) {
+            return new WorkmateChangeSet(workmates,
+                    new ArrayList<>(mAdded.values()),
+                    new ArrayList<>(mModified.values()),
+                    new ArrayList<>(mRemoved));
+        }
+    }
+
+    private static class Page {
+        final DocumentSnapshot mStartAfter;
+        DocumentSnapshot mNextPageCursor;
+        final HashMap<String, Workmate> mWorkmates = new HashMap<>();
+        boolean mSynced;                                        // False until the first snapshot of the current listener
+        Disposable mDisposable;
+
+        Page(DocumentSnapshot startAfter) {
+            mStartAfter = startAfter;
+        }
+
+        boolean isAttached() {
+            return mDisposable != null && !mDisposable.isDisposed();
+        }
+
+        void detach() {
+            if(mDisposable != null) {
+                mDisposable.dispose();
+            }
+        }
+    }
+}
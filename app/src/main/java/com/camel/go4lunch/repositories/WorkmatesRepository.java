@@ -5,41 +5,103 @@ import static com.camel.go4lunch.utils.Utils.isToday;
 import android.net.Uri;
 import android.util.Log;
 
+import com.google.android.gms.tasks.Task;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.DocumentChange;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
 import com.google.firebase.storage.FirebaseStorage;
 import com.google.firebase.storage.StorageReference;
+import com.camel.go4lunch.api.FirestoreListenerRegistry;
+import com.camel.go4lunch.cache.PendingChoiceQueue;
+import com.camel.go4lunch.api.LunchHelper;
 import com.camel.go4lunch.api.WorkmateHelper;
+import com.camel.go4lunch.mappers.FirestoreDataToWorkmateMapper;
+import com.camel.go4lunch.mappers.WorkmatesToInterestedWorkmatesIndexMapper;
+import com.camel.go4lunch.models.DailyLunch;
+import com.camel.go4lunch.models.PendingChoice;
 import com.camel.go4lunch.models.Workmate;
+import com.camel.go4lunch.models.WorkmatesPage;
+import com.camel.go4lunch.utils.LikedRestaurantsBuffer;
 import com.camel.go4lunch.utils.liveEvent.ErrorLiveEvent;
 import com.camel.go4lunch.utils.liveEvent.LiveEvent;
 import com.camel.go4lunch.utils.liveEvent.SignOutLiveEvent;
 
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import io.reactivex.Completable;
 import io.reactivex.Observable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.disposables.Disposables;
 import io.reactivex.subjects.BehaviorSubject;
 import io.reactivex.subjects.PublishSubject;
 
 @Singleton
 public class WorkmatesRepository{
     private static final String TAG = "WorkmatesRepository";
+    private static final String WORKMATE_LISTENER_KEY = "workmate/";
+    private static final String CHOSEN_WORKMATES_LISTENER_KEY = "chosenWorkmates/";
+    private static final String LUNCH_LISTENER_KEY = "lunch/";
+    public static final long LIKE_COALESCING_WINDOW_MILLIS = 500;
+    public static final long CHOICE_RETRY_MIN_DELAY_MILLIS = 2000;
+    public static final long CHOICE_RETRY_MAX_DELAY_MILLIS = 60000;
+
+    private final FirestoreListenerRegistry mListenerRegistry;
+    private final PendingChoiceQueue mPendingChoiceQueue;
 
     private final PublishSubject<LiveEvent> mTaskResultObservable = PublishSubject.create();
     private final BehaviorSubject<Workmate> mCurrentUserObservable = BehaviorSubject.create();
-    private final BehaviorSubject<List<Workmate>> mWorkmateListObservable = BehaviorSubject.create();
 
     private Workmate mCurrentUser;
+    private Disposable mCurrentUserDisposable = Disposables.disposed();
+
+    // Likes are shown at once and written as deltas once the toggles settle, guarded by the buffer itself
+    private final LikedRestaurantsBuffer mLikedRestaurantsBuffer = new LikedRestaurantsBuffer();
+    private final PublishSubject<String> mLikeTogglesObservable = PublishSubject.create();
+    private List<String> mServerLikedRestaurants = new ArrayList<>();
+
+    // Today's id in the office time zone, then the next one at each midnight, one timer for every listener
+    private final Observable<String> mTodayIdObservable = Observable.defer(() -> {
+                String todayId = LunchHelper.getTodayId();
+                long millisToMidnight = LunchHelper.getNextDayStart(todayId).getTime() - System.currentTimeMillis();
+                return Observable.just(todayId)
+                        .concatWith(Completable.timer(Math.max(0, millisToMidnight), TimeUnit.MILLISECONDS).<String>toObservable());
+            })
+            .repeat()
+            .distinctUntilChanged()
+            .replay(1)
+            .refCount();
+
+    // Choices are shown at once and written in order from the queue, the last server snapshot allows a rollback
+    private DocumentSnapshot mCurrentUserSnapshot;
+    private PendingChoice mChoiceInFlight;
+    private int mChoiceRetryCount;
+    private Disposable mChoiceRetryDisposable = Disposables.disposed();
 
     @Inject
-    public WorkmatesRepository() {
+    public WorkmatesRepository(FirestoreListenerRegistry listenerRegistry, PendingChoiceQueue pendingChoiceQueue) {
+        mListenerRegistry = listenerRegistry;
+        mPendingChoiceQueue = pendingChoiceQueue;
+
+        mLikeTogglesObservable
+                .debounce(LIKE_COALESCING_WINDOW_MILLIS, TimeUnit.MILLISECONDS)
+                .subscribe(restaurantId -> writeLikedRestaurants(),
+                        throwable -> Log.e(TAG, "mLikeTogglesObservable: ", throwable));
+
         FirebaseUser currentUser = FirebaseAuth.getInstance().getCurrentUser();
         if(currentUser != null){
             startCurrentUserObserver(currentUser.getUid());
@@ -53,7 +115,7 @@ public class WorkmatesRepository{
                     if (task.isSuccessful()) {
                         DocumentSnapshot document = task.getResult();
                         if (document.exists()) {                        // The workmate is already created, start observer
-                            mCurrentUser = Objects.requireNonNull(document.toObject(Workmate.class));
+                            mCurrentUser = toWorkmate(document);
                             startCurrentUserObserver(mCurrentUser.getUId());
                         } else {                                        // The workmate is already created, create and start observer
                             WorkmateHelper.setWorkmate(mCurrentUser)
@@ -71,89 +133,342 @@ public class WorkmatesRepository{
                 });
     }
 
-    public void startCurrentUserObserver(String uId){
-        WorkmateHelper.getWorkmateReferenceWithId(uId)
-                .addSnapshotListener((value, error) -> {
-                    if(error != null){
-                        mTaskResultObservable.onNext(new ErrorLiveEvent(error));
-                        Log.e(TAG, "startCurrentUserObserver: error.toString() : ", error);
-                        return;
-                    }
-                    if(value != null && value.exists()) {
-                        mCurrentUser = Objects.requireNonNull(value.toObject(Workmate.class));
-                        mCurrentUserObservable.onNext(mCurrentUser);
+    // Replaces the previous observer, so signing in again never stacks listeners on the user document
+    public synchronized void startCurrentUserObserver(String uId){
+        mCurrentUserDisposable.dispose();
+        mCurrentUserDisposable = mListenerRegistry.<DocumentSnapshot>observe(WORKMATE_LISTENER_KEY + uId,
+                emitter -> {
+                    ListenerRegistration registration = WorkmateHelper.getWorkmateReferenceWithId(uId)
+                            .addSnapshotListener((value, error) -> {
+                                if(error != null){
+                                    mTaskResultObservable.onNext(new ErrorLiveEvent(error));
+                                    Log.e(TAG, "startCurrentUserObserver: error.toString() : ", error);
+                                    return;
+                                }
+                                if(value != null) {
+                                    emitter.onNext(value);
+                                }
+                            });
+                    emitter.setCancellable(registration::remove);
+                })
+                .subscribe(value -> {
+                    if(value.exists()) {
+                        mCurrentUserSnapshot = value;
+                        emitCurrentUser(value);
+                        migrateChosenDay(mCurrentUser);
+                        sendPendingChoices();           // Also resumes the choices queued before a restart
                     } else {
                         mTaskResultObservable.onNext(new SignOutLiveEvent());
                     }
                 });
     }
 
+    // Server state with the local writes not acknowledged yet applied over it
+    private synchronized void emitCurrentUser(DocumentSnapshot snapshot) {
+        Workmate currentUser = toWorkmate(snapshot);
+        synchronized (mLikedRestaurantsBuffer) {
+            mServerLikedRestaurants = currentUser.getLikedRestaurants();
+            currentUser.setLikedRestaurants(mLikedRestaurantsBuffer.apply(mServerLikedRestaurants));
+        }
+        PendingChoice pendingChoice = mPendingChoiceQueue.getLatest(currentUser.getUId());
+        if(pendingChoice != null) {
+            pendingChoice.applyTo(currentUser);
+        }
+        mCurrentUser = currentUser;
+        mCurrentUserObservable.onNext(mCurrentUser);
+    }
+
     public Observable<Workmate> observeCurrentUser() {
         return mCurrentUserObservable;
     }
 
-    public Observable<List<Workmate>> observeWorkmates(){
-        WorkmateHelper.getWorkmates()
-                .addSnapshotListener((value, error) -> {
-                    if(error != null){
-                        mTaskResultObservable.onNext(new ErrorLiveEvent(error));
-                        Log.e(TAG, "observeWorkmates: ", error);
-                    }
-                    if(value != null) {
-                        List<Workmate> workmateList = new ArrayList<>();
-                        for (DocumentSnapshot document : value.getDocuments()) {
-                            Workmate workmate = document.toObject(Workmate.class);
-                            if(workmate.getChosenRestaurantDate() != null && !isToday(workmate.getChosenRestaurantDate())){
-                                workmate.setChosenRestaurantName("");
-                            }
-                            workmateList.add(workmate);
-                        }
-                        mWorkmateListObservable.onNext(workmateList);
-                    }
+    // Live page of the workmates list starting after the given document, the first page when null.
+    // Only the documents changed by a snapshot are deserialized
+    public Observable<WorkmatesPage> observeWorkmatesPage(DocumentSnapshot startAfter, int pageSize){
+        return observePage(WorkmateHelper.getWorkmatesPage(startAfter, pageSize));
+    }
+
+    // Live page of the day's choices by restaurant name then nickname, the first page when startAfter is null
+    public Observable<WorkmatesPage> observeChosenWorkmatesPage(String dayId, DocumentSnapshot startAfter, int pageSize){
+        return observePage(WorkmateHelper.getChosenWorkmatesPage(dayId, startAfter, pageSize));
+    }
+
+    // Today's id, then the next one at each midnight
+    public Observable<String> observeTodayId(){
+        return mTodayIdObservable;
+    }
+
+    private Observable<WorkmatesPage> observePage(Query query){
+        return Observable.create(
+                emitter -> {
+                    ListenerRegistration registration = query
+                            .addSnapshotListener((value, error) -> {
+                                if(error != null){
+                                    mTaskResultObservable.onNext(new ErrorLiveEvent(error));
+                                    Log.e(TAG, "observeWorkmatesPage: ", error);
+                                }
+                                if(value != null) {
+                                    emitter.onNext(toWorkmatesPage(value));
+                                }
+                            });
+                    emitter.setCancellable(registration::remove);
                 });
-        return mWorkmateListObservable;
+    }
+
+    private WorkmatesPage toWorkmatesPage(QuerySnapshot value) {
+        List<Workmate> changedWorkmates = new ArrayList<>();
+        List<String> removedIds = new ArrayList<>();
+        for (DocumentChange documentChange : value.getDocumentChanges()) {
+            DocumentSnapshot document = documentChange.getDocument();
+            if(documentChange.getType() == DocumentChange.Type.REMOVED) {
+                removedIds.add(document.getId());
+                continue;
+            }
+
+            Workmate workmate = toWorkmate(document);
+            if(workmate.getChosenRestaurantDate() != null && !isToday(workmate.getChosenRestaurantDate())){
+                workmate.setChosenRestaurantName("");
+            }
+            changedWorkmates.add(workmate);
+        }
+        List<DocumentSnapshot> documents = value.getDocuments();
+        DocumentSnapshot lastDocument = documents.isEmpty() ? null : documents.get(documents.size() - 1);
+        return new WorkmatesPage(changedWorkmates, removedIds, documents.size(), lastDocument);
     }
 
     public Observable<List<Workmate>> getInterestedWorkmatesForRestaurants(String restaurantId){
-        return Observable.create(
-                emitter ->
-                        WorkmateHelper.getTodayWorkmateInterestedForRestaurantId(restaurantId)
-                                .addSnapshotListener((value, error) -> {
-                                    if(error != null){
-                                        mTaskResultObservable.onNext(new ErrorLiveEvent(error));
-                                        Log.e(TAG, "setChosenRestaurantForUserId: ", error);
-                                    }
-                                    if(value != null){
-                                        List<Workmate> interestedWorkmates = new ArrayList<>();
-                                        for (DocumentSnapshot doc : value.getDocuments()) {
-                                            interestedWorkmates.add(doc.toObject(Workmate.class));
-                                        }
-                                        emitter.onNext(interestedWorkmates);
-                                    }
-                                }));
+        return observeInterestedWorkmatesIndex()
+                .map(interestedWorkmatesIndex -> {
+                    List<Workmate> interestedWorkmates = interestedWorkmatesIndex.get(restaurantId);
+                    return interestedWorkmates != null ? interestedWorkmates : new ArrayList<Workmate>();
+                })
+                .distinctUntilChanged(WorkmatesRepository::haveSameWorkmates);
     }
 
-    public void setChosenRestaurantForUserId(String restaurantUId, String restaurantName) {
-        WorkmateHelper.setChosenRestaurantForUserId(mCurrentUser.getUId(), restaurantUId, restaurantName)
-                .addOnFailureListener(error -> {
-                    mTaskResultObservable.onNext(new ErrorLiveEvent(error));
-                    Log.e(TAG, "setChosenRestaurantForUserId: ", error);
+    // Ids only, read from today's lunch document, enough for the counts of the map and list screens
+    public Observable<List<String>> getInterestedWorkmateIdsForRestaurant(String restaurantId){
+        return observeTodayLunch()
+                .map(dailyLunch -> dailyLunch.getWorkmateIds(restaurantId))
+                .distinctUntilChanged();
+    }
+
+    // Moves to the next day's document at midnight
+    public Observable<DailyLunch> observeTodayLunch(){
+        return mTodayIdObservable.switchMap(this::observeLunchForDay);
+    }
+
+    private Observable<DailyLunch> observeLunchForDay(String dayId){
+        return mListenerRegistry.observe(LUNCH_LISTENER_KEY + dayId,
+                emitter -> {
+                    ListenerRegistration registration = LunchHelper.getLunchReferenceForDayId(dayId)
+                            .addSnapshotListener((value, error) -> {
+                                if(error != null){
+                                    mTaskResultObservable.onNext(new ErrorLiveEvent(error));
+                                    Log.e(TAG, "observeTodayLunch: ", error);
+                                }
+                                if(value != null){
+                                    emitter.onNext(LunchHelper.toDailyLunch(value.getData()));
+                                }
+                            });
+                    emitter.setCancellable(registration::remove);
                 });
     }
 
-    public void removeChosenRestaurantForUserId() {
-        WorkmateHelper.removeChosenRestaurantForUserId(mCurrentUser.getUId())
-                .addOnFailureListener(error -> {
-                    mTaskResultObservable.onNext(new ErrorLiveEvent(error));
-                    Log.e(TAG, "removeChosenRestaurantForUserId: ", error);
+    // One listener on today's choices serves every restaurant, alive while at least one of them is observed.
+    // A second one on the date of the choice catches the documents not migrated to chosenDay yet
+    private Observable<HashMap<String, List<Workmate>>> observeInterestedWorkmatesIndex(){
+        return mTodayIdObservable.switchMap(this::observeInterestedWorkmatesIndexForDay);
+    }
+
+    private Observable<HashMap<String, List<Workmate>>> observeInterestedWorkmatesIndexForDay(String todayId){
+        return mListenerRegistry.observe(CHOSEN_WORKMATES_LISTENER_KEY + todayId,
+                emitter -> {
+                    ChosenWorkmates chosenWorkmates = new ChosenWorkmates();
+                    ListenerRegistration dayRegistration = WorkmateHelper.getWorkmatesWithChosenRestaurantForDay(todayId)
+                            .addSnapshotListener((value, error) -> {
+                                if(error != null){
+                                    mTaskResultObservable.onNext(new ErrorLiveEvent(error));
+                                    Log.e(TAG, "observeInterestedWorkmatesIndex: ", error);
+                                }
+                                if(value != null){
+                                    emitter.onNext(chosenWorkmates.setDayDocuments(value.getDocuments()));
+                                }
+                            });
+                    ListenerRegistration legacyRegistration = WorkmateHelper.getLegacyWorkmatesWithChosenRestaurantForDay(todayId)
+                            .addSnapshotListener((value, error) -> {
+                                if(error != null){
+                                    Log.e(TAG, "observeInterestedWorkmatesIndex: legacy ", error);
+                                }
+                                if(value != null){
+                                    emitter.onNext(chosenWorkmates.setLegacyDocuments(value.getDocuments()));
+                                }
+                            });
+                    emitter.setCancellable(() -> {
+                        dayRegistration.remove();
+                        legacyRegistration.remove();
+                    });
                 });
     }
 
-    public void setLikedRestaurants(List<String> likedRestaurants) {
-        WorkmateHelper.setLikedRestaurantForCurrentUser(mCurrentUser.getUId(), likedRestaurants)
-                .addOnFailureListener(error -> {
-                    mTaskResultObservable.onNext(new ErrorLiveEvent(error));
-                    Log.e(TAG, "setLikedRestaurants: ", error);
+    // Each workmate backfills its own document on sign in, the date query covers the ones who did not sign in since
+    private void migrateChosenDay(Workmate workmate) {
+        if(workmate.getChosenDay() == null && workmate.getChosenRestaurantDate() != null) {
+            WorkmateHelper.setChosenDayForUserId(workmate.getUId(), LunchHelper.getDayId(workmate.getChosenRestaurantDate()))
+                    .addOnFailureListener(error -> Log.e(TAG, "migrateChosenDay: ", error));
+        }
+    }
+
+    // Hot path of every snapshot, mapped by hand instead of the reflection of toObject()
+    private static Workmate toWorkmate(DocumentSnapshot document) {
+        return new FirestoreDataToWorkmateMapper().apply(Objects.requireNonNull(document.getData()));
+    }
+
+    // A choice made for another restaurant must not refresh this one
+    private static boolean haveSameWorkmates(List<Workmate> workmates1, List<Workmate> workmates2) {
+        if(workmates1.size() != workmates2.size()) {
+            return false;
+        }
+        for (int i = 0; i < workmates1.size(); i++) {
+            Workmate workmate1 = workmates1.get(i);
+            Workmate workmate2 = workmates2.get(i);
+            if(!Objects.equals(workmate1.getUId(), workmate2.getUId())
+                    || !Objects.equals(workmate1.getNickname(), workmate2.getNickname())
+                    || !Objects.equals(workmate1.getFullName(), workmate2.getFullName())
+                    || !Objects.equals(workmate1.getPictureUrl(), workmate2.getPictureUrl())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void setChosenRestaurantForUserId(String restaurantUId, String restaurantName) {
+        Date now = new Date();
+        queueChoice(new PendingChoice(mCurrentUser.getUId(), restaurantUId, restaurantName, now.getTime(), LunchHelper.getDayId(now)));
+    }
+
+    public void removeChosenRestaurantForUserId() {
+        Date now = new Date();
+        queueChoice(PendingChoice.removal(mCurrentUser.getUId(), now.getTime(), LunchHelper.getDayId(now)));
+    }
+
+    // Shown at once, sent once the queue, which may still be reading its file, has it
+    private synchronized void queueChoice(PendingChoice choice) {
+        choice.applyTo(mCurrentUser);
+        mCurrentUserObservable.onNext(mCurrentUser);
+        mPendingChoiceQueue.offer(choice, this::onChoiceQueued);
+    }
+
+    private synchronized void onChoiceQueued() {
+        // A new choice is worth an immediate attempt, even while waiting for a retry
+        mChoiceRetryDisposable.dispose();
+        sendPendingChoices();
+    }
+
+    // One write at a time, in the order the choices were made
+    private synchronized void sendPendingChoices() {
+        if(mChoiceInFlight != null || !mChoiceRetryDisposable.isDisposed()) {
+            return;
+        }
+
+        PendingChoice choice = mPendingChoiceQueue.peek();
+        if(choice == null) {
+            return;
+        }
+        if(!choice.getDayId().equals(LunchHelper.getTodayId())) {    // That lunch is over, the choice no longer matters
+            mPendingChoiceQueue.remove(choice);
+            rollbackCurrentUser();
+            sendPendingChoices();
+            return;
+        }
+
+        mChoiceInFlight = choice;
+        Task<Void> task = choice.isRemoval()
+                ? WorkmateHelper.removeChosenRestaurantForUserId(choice.getWorkmateUId())
+                : WorkmateHelper.setChosenRestaurantForUserId(choice.getWorkmateUId(), choice.getRestaurantId(), choice.getRestaurantName());
+        task.addOnCompleteListener(result -> onChoiceWriteCompleted(choice, result));
+    }
+
+    private synchronized void onChoiceWriteCompleted(PendingChoice choice, Task<Void> task) {
+        mChoiceInFlight = null;
+
+        if(task.isSuccessful()) {
+            mChoiceRetryCount = 0;
+            mPendingChoiceQueue.remove(choice);
+        } else if(isRetryable(task.getException())) {                 // Offline, kept in the queue
+            long delay = Math.min(CHOICE_RETRY_MIN_DELAY_MILLIS << Math.min(mChoiceRetryCount, 16), CHOICE_RETRY_MAX_DELAY_MILLIS);
+            mChoiceRetryCount++;
+            mChoiceRetryDisposable = Completable.timer(delay, TimeUnit.MILLISECONDS)
+                    .subscribe(this::retryPendingChoices);
+            Log.w(TAG, "onChoiceWriteCompleted: retry in " + delay + "ms", task.getException());
+            return;
+        } else {                                                        // Rejected, back to the server state
+            mChoiceRetryCount = 0;
+            mPendingChoiceQueue.remove(choice);
+            rollbackCurrentUser();
+            mTaskResultObservable.onNext(new ErrorLiveEvent(task.getException()));
+            Log.e(TAG, "onChoiceWriteCompleted: ", task.getException());
+        }
+        sendPendingChoices();
+    }
+
+    private synchronized void retryPendingChoices() {
+        mChoiceRetryDisposable.dispose();
+        sendPendingChoices();
+    }
+
+    private void rollbackCurrentUser() {
+        if(mCurrentUserSnapshot != null) {
+            emitCurrentUser(mCurrentUserSnapshot);
+        }
+    }
+
+    private static boolean isRetryable(Exception exception) {
+        if(!(exception instanceof FirebaseFirestoreException)) {
+            return false;
+        }
+        switch (((FirebaseFirestoreException) exception).getCode()) {
+            case UNAVAILABLE:
+            case DEADLINE_EXCEEDED:
+            case ABORTED:
+            case RESOURCE_EXHAUSTED:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public void toggleLikedRestaurant(String restaurantId) {
+        synchronized (mLikedRestaurantsBuffer) {
+            mLikedRestaurantsBuffer.toggle(restaurantId, mServerLikedRestaurants);
+            mCurrentUser.setLikedRestaurants(mLikedRestaurantsBuffer.apply(mServerLikedRestaurants));
+        }
+        mCurrentUserObservable.onNext(mCurrentUser);
+        mLikeTogglesObservable.onNext(restaurantId);
+    }
+
+    // Rapid toggles end up in at most one write, none when they cancel out
+    private void writeLikedRestaurants() {
+        LikedRestaurantsBuffer.Write write;
+        String uId;
+        synchronized (mLikedRestaurantsBuffer) {
+            write = mLikedRestaurantsBuffer.drain(mServerLikedRestaurants);
+            uId = mCurrentUser.getUId();
+        }
+        if(write == null) {
+            return;
+        }
+
+        WorkmateHelper.updateLikedRestaurantsForUserId(uId, write.getAdded(), write.getRemoved())
+                .addOnCompleteListener(task -> {
+                    synchronized (mLikedRestaurantsBuffer) {
+                        mLikedRestaurantsBuffer.onWriteCompleted(write);
+                        mCurrentUser.setLikedRestaurants(mLikedRestaurantsBuffer.apply(mServerLikedRestaurants));
+                    }
+                    if(!task.isSuccessful()) {          // Rolled back to the server state
+                        mCurrentUserObservable.onNext(mCurrentUser);
+                        mTaskResultObservable.onNext(new ErrorLiveEvent(task.getException()));
+                        Log.e(TAG, "writeLikedRestaurants: ", task.getException());
+                    }
                 });
     }
 
@@ -187,6 +502,34 @@ public class WorkmatesRepository{
                     });
         }
     }
-}
 
+    // Latest documents of both queries of today's choices, a migrated document matching both counts once
+    private static class ChosenWorkmates {
+        private List<DocumentSnapshot> mDayDocuments = new ArrayList<>();
+        private List<DocumentSnapshot> mLegacyDocuments = new ArrayList<>();
 
+        synchronized HashMap<String, List<Workmate>> setDayDocuments(List<DocumentSnapshot> documents) {
+            mDayDocuments = documents;
+            return index();
+        }
+
+        synchronized HashMap<String, List<Workmate>> setLegacyDocuments(List<DocumentSnapshot> documents) {
+            mLegacyDocuments = documents;
+            return index();
+        }
+
+        // Indexed once here rather than once per observed restaurant
+        private HashMap<String, List<Workmate>> index() {
+            LinkedHashMap<String, Workmate> workmates = new LinkedHashMap<>();
+            for (DocumentSnapshot doc : mDayDocuments) {
+                workmates.put(doc.getId(), toWorkmate(doc));
+            }
+            for (DocumentSnapshot doc : mLegacyDocuments) {
+                if(!workmates.containsKey(doc.getId())) {
+                    workmates.put(doc.getId(), toWorkmate(doc));
+                }
+            }
+            return new WorkmatesToInterestedWorkmatesIndexMapper().apply(new ArrayList<>(workmates.values()));
+        }
+    }
+}
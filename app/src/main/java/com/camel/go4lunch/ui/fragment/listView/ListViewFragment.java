@@ -16,8 +16,9 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.snackbar.Snackbar;
 import com.camel.go4lunch.R;
 import com.camel.go4lunch.databinding.FragmentListViewBinding;
-import com.camel.go4lunch.models.Restaurant;
+import com.camel.go4lunch.models.RestaurantListViewState;
 import com.camel.go4lunch.utils.liveEvent.LiveEvent;
+import com.camel.go4lunch.utils.liveEvent.ShowPartialResultsLiveEvent;
 import com.camel.go4lunch.utils.liveEvent.ShowSnackbarLiveEvent;
 import com.camel.go4lunch.utils.liveEvent.StopRefreshLiveEvent;
 
@@ -36,7 +37,7 @@ public class ListViewFragment extends Fragment implements ListViewPlacesAdapter.
     private FragmentListViewBinding mBinding;
     private ListViewPlacesAdapter mAdapter;
 
-    private List<Restaurant> mRestaurantList = new ArrayList<>();
+    private List<RestaurantListViewState> mRestaurantList = new ArrayList<>();
 
     public ListViewFragment() {}
 
@@ -69,7 +70,7 @@ public class ListViewFragment extends Fragment implements ListViewPlacesAdapter.
         mViewModel.observeEvents().observe(getViewLifecycleOwner(), onEventReceived());
     }
 
-    private Observer<List<Restaurant>> onRestaurantListChanged() {
+    private Observer<List<RestaurantListViewState>> onRestaurantListChanged() {
         return restaurantList -> {
             mBinding.listViewFragmentSrl.setRefreshing(false);
 
@@ -92,6 +93,9 @@ public class ListViewFragment extends Fragment implements ListViewPlacesAdapter.
         return event -> {
             if(event instanceof ShowSnackbarLiveEvent){
                 showSnackBar(((ShowSnackbarLiveEvent) event).getStingId());
+            } else if(event instanceof ShowPartialResultsLiveEvent){
+                int failedCount = ((ShowPartialResultsLiveEvent) event).getFailedCount();
+                showSnackBar(getResources().getQuantityString(R.plurals.restaurants_without_details, failedCount, failedCount));
             } else if(event instanceof StopRefreshLiveEvent){
                 mBinding.listViewFragmentSrl.setRefreshing(false);
                 showSnackBar(R.string.no_more_restaurants_found);
@@ -120,7 +124,11 @@ public class ListViewFragment extends Fragment implements ListViewPlacesAdapter.
     }
 
     private void showSnackBar(int stringId){
-        Snackbar.make(mBinding.getRoot(), getString(stringId), Snackbar.LENGTH_LONG).show();
+        showSnackBar(getString(stringId));
+    }
+
+    private void showSnackBar(String message){
+        Snackbar.make(mBinding.getRoot(), message, Snackbar.LENGTH_LONG).show();
     }
 
     @Override
@@ -16,14 +16,14 @@ import com.bumptech.glide.Glide;
 import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.camel.go4lunch.R;
 import com.camel.go4lunch.databinding.FragmentListViewPlaceItemBinding;
-import com.camel.go4lunch.models.Restaurant;
+import com.camel.go4lunch.models.RestaurantListViewState;
 
 import java.util.List;
 
 public class ListViewPlacesAdapter extends RecyclerView.Adapter<ListViewPlacesAdapter.PlacesViewHolder> {
 
     private final OnPlaceListener mPlaceListener;
-    private final AsyncListDiffer<Restaurant> mRestaurantList;
+    private final AsyncListDiffer<RestaurantListViewState> mRestaurantList;
 
     public ListViewPlacesAdapter(OnPlaceListener placeListener) {
         mPlaceListener = placeListener;
@@ -47,7 +47,7 @@ public class ListViewPlacesAdapter extends RecyclerView.Adapter<ListViewPlacesAd
         return mRestaurantList.getCurrentList().size();
     }
 
-    public void updateList(List<Restaurant> restaurants) {
+    public void updateList(List<RestaurantListViewState> restaurants) {
         mRestaurantList.submitList(restaurants);
     }
 
@@ -62,7 +62,7 @@ public class ListViewPlacesAdapter extends RecyclerView.Adapter<ListViewPlacesAd
         }
 
         @SuppressLint("WrongConstant")
-        public void updateViewHolder(Restaurant restaurant){
+        public void updateViewHolder(RestaurantListViewState restaurant){
             Context context = mBinding.getRoot().getContext();
             mBinding.placeItemNameTv.setText(restaurant.getName());
             mBinding.placeItemTypeAndAddressTv.setText(restaurant.getAddress());
@@ -106,14 +106,15 @@ public class ListViewPlacesAdapter extends RecyclerView.Adapter<ListViewPlacesAd
         void onPlaceClick(int position);
     }
 
-    public static class DifferCallback extends DiffUtil.ItemCallback<Restaurant> {
-        public boolean areItemsTheSame(Restaurant oldItem, Restaurant newItem) {
+    // View states are immutable, an unchanged row is the same instance
+    public static class DifferCallback extends DiffUtil.ItemCallback<RestaurantListViewState> {
+        public boolean areItemsTheSame(RestaurantListViewState oldItem, RestaurantListViewState newItem) {
             return oldItem.getUId().equals(newItem.getUId());
         }
 
         @Override
-        public boolean areContentsTheSame(@NonNull Restaurant oldItem, @NonNull Restaurant newItem) {
-            return oldItem.getName().equals(newItem.getName());
+        public boolean areContentsTheSame(@NonNull RestaurantListViewState oldItem, @NonNull RestaurantListViewState newItem) {
+            return oldItem.equals(newItem);
         }
     }
 }
@@ -1,5 +1,6 @@
 package com.camel.go4lunch.ui.fragment.listView;
 
+import android.location.Location;
 import android.util.Log;
 
 import androidx.lifecycle.LiveData;
@@ -9,34 +10,67 @@ import androidx.lifecycle.ViewModel;
 import com.camel.go4lunch.R;
 import com.camel.go4lunch.mappers.RestaurantToListViewMapper;
 import com.camel.go4lunch.models.Restaurant;
+import com.camel.go4lunch.models.RestaurantListViewState;
 import com.camel.go4lunch.repositories.RestaurantUseCase;
 import com.camel.go4lunch.repositories.UserDataRepository;
+import com.camel.go4lunch.utils.DistanceRanker;
+import com.camel.go4lunch.utils.DistanceUtils;
+import com.camel.go4lunch.utils.OpenStatusScheduler;
 import com.camel.go4lunch.utils.SingleLiveEvent;
 import com.camel.go4lunch.utils.liveEvent.LiveEvent;
+import com.camel.go4lunch.utils.liveEvent.ShowPartialResultsLiveEvent;
 import com.camel.go4lunch.utils.liveEvent.ShowSnackbarLiveEvent;
 import com.camel.go4lunch.utils.liveEvent.StopRefreshLiveEvent;
 
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 
 import dagger.hilt.android.lifecycle.HiltViewModel;
+import io.reactivex.Completable;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.disposables.Disposables;
 import io.reactivex.schedulers.Schedulers;
 
 @HiltViewModel
 public class ListViewViewModel extends ViewModel {
     private static final String TAG = "ListViewViewModel";
+    private static final double DISTANCE_STEP_METERS = 10;
+    private static final int NEAREST_PAGE_SIZE = 40;
+    private static final double NEAREST_REFRESH_METERS = 100;
 
     private final RestaurantUseCase mRestaurantUseCase;
     private final UserDataRepository mUserDataRepository;
 
     private final CompositeDisposable mDisposable = new CompositeDisposable();
-    private final MutableLiveData<List<Restaurant>> mRestaurantListLiveData = new MutableLiveData<>();
+    private final MutableLiveData<List<RestaurantListViewState>> mRestaurantListLiveData = new MutableLiveData<>();
     private final SingleLiveEvent<LiveEvent> mSingleLiveEvent = new SingleLiveEvent<>();
 
+    // Rows in the order given to the ranker, replaced one by one when their open label or distance changes
+    private final Object mViewStatesLock = new Object();
+    private List<RestaurantListViewState> mViewStates = new ArrayList<>();
+    private final Map<String, Integer> mViewStateIndexes = new HashMap<>();
+
+    // Open labels are updated when they change, not only when the list is emitted again
+    private final OpenStatusScheduler mOpenStatusScheduler = new OpenStatusScheduler();
+    private Disposable mOpenStatusTimer = Disposables.disposed();
+
+    // Only the nearest rows are shown, indexes in mViewStates given to the ranker, more are added by loadNextPage()
+    private int mShownCount = NEAREST_PAGE_SIZE;
+    private int[] mShownIndexes = new int[0];
+    private Location mNearestLocation;
+    private Disposable mNearestQuery = Disposables.disposed();
+
+    // Distances of the shown rows follow the user between two nearest queries, a new list is only emitted when it would look different
+    private final DistanceRanker mDistanceRanker = new DistanceRanker(DISTANCE_STEP_METERS);
+
     @Inject
     public ListViewViewModel(RestaurantUseCase restaurantUseCase,
                              UserDataRepository userDataRepository) {
@@ -56,19 +90,30 @@ public class ListViewViewModel extends ViewModel {
                         }
                 ));
 
+        mDisposable.add(mRestaurantUseCase.observeFailedItems()
+                .subscribeOn(Schedulers.computation())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                        failedCount -> mSingleLiveEvent.setValue(new ShowPartialResultsLiveEvent(failedCount)),
+                        throwable -> Log.e(TAG, "mRestaurantUseCase.observeFailedItems: ", throwable)
+                ));
+
         mDisposable.add(mRestaurantUseCase.observeRestaurantList()
                 .subscribeOn(Schedulers.computation())
-                .map(new RestaurantToListViewMapper(mUserDataRepository.getLocation(),
-                        mUserDataRepository.getDistanceUnit(),
-                        Calendar.getInstance()))
-                .subscribe(mRestaurantListLiveData::postValue,
+                .map(this::mapRestaurants)
+                .subscribe(this::setViewStates,
                         throwable -> {
                     Log.e(TAG, "mRestaurantRepository.observeRestaurantList: ", throwable);
                     mSingleLiveEvent.postValue(new ShowSnackbarLiveEvent(R.string.error));
                 }));
+
+        mDisposable.add(mUserDataRepository.observeLocation()
+                .observeOn(Schedulers.computation())
+                .subscribe(this::rankRestaurants,
+                        throwable -> Log.e(TAG, "mUserDataRepository.observeLocation: ", throwable)));
     }
 
-    public LiveData<List<Restaurant>> observeRestaurantList() {
+    public LiveData<List<RestaurantListViewState>> observeRestaurantList() {
         return mRestaurantListLiveData;
     }
 
@@ -99,9 +144,198 @@ public class ListViewViewModel extends ViewModel {
 
     public void clearDisposables(){
         mDisposable.clear();
+        synchronized (mViewStatesLock) {
+            mOpenStatusTimer.dispose();
+            mOpenStatusScheduler.clear();
+            mNearestQuery.dispose();
+        }
+    }
+
+    private List<RestaurantListViewState> mapRestaurants(HashMap<String, Restaurant> restaurantHashMap) {
+        RestaurantToListViewMapper mapper = createMapper(Calendar.getInstance());
+        synchronized (mViewStatesLock) {
+            mapper.setPreviousViewStates(mViewStates);
+        }
+        return mapper.apply(restaurantHashMap);
+    }
+
+    private void setViewStates(List<RestaurantListViewState> viewStates) {
+        List<Restaurant> restaurants = new ArrayList<>(viewStates.size());
+        for (RestaurantListViewState viewState : viewStates) {
+            restaurants.add(viewState.getRestaurant());
+        }
+
+        synchronized (mViewStatesLock) {
+            mViewStates = new ArrayList<>(viewStates);
+            mViewStateIndexes.clear();
+            for (int i = 0; i < viewStates.size(); i++) {
+                mViewStateIndexes.put(viewStates.get(i).getUId(), i);
+            }
+
+            // Already ranked by the mapper from the current location, the first rows are the nearest ones
+            mNearestQuery.dispose();
+            mNearestLocation = mUserDataRepository.getLocation();
+            showViewStates(getFirstIndexes(), mNearestLocation);
+
+            mOpenStatusScheduler.reset(restaurants, Calendar.getInstance());
+            scheduleNextOpenStatusChange();
+        }
+    }
+
+    // Re-ranks the rows already shown on every GPS tick, the nearest rows are only queried again once the user moved away
+    private void rankRestaurants(Location location) {
+        synchronized (mViewStatesLock) {
+            if(mViewStates.isEmpty()) {
+                return;
+            }
+            if(mNearestLocation == null || DistanceUtils.distanceBetween(mNearestLocation.getLatitude(), mNearestLocation.getLongitude(),
+                    location.getLatitude(), location.getLongitude()) >= NEAREST_REFRESH_METERS) {
+                queryNearest(location);
+            }
+            if(mDistanceRanker.update(location.getLatitude(), location.getLongitude())) {
+                updateDistances();
+                postViewStates();
+            }
+        }
+    }
+
+    // Asks the spatial index for the rows to show, instead of ranking every restaurant. Called with mViewStatesLock held
+    private void queryNearest(Location location) {
+        mNearestLocation = location;
+        mNearestQuery.dispose();
+        mNearestQuery = mRestaurantUseCase.getNearestRestaurants(location.getLatitude(), location.getLongitude(), mShownCount)
+                .subscribeOn(Schedulers.computation())
+                .subscribe(nearestRestaurants -> onNearestRestaurants(nearestRestaurants, location),
+                        throwable -> Log.e(TAG, "mRestaurantUseCase.getNearestRestaurants: ", throwable));
     }
 
+    private void onNearestRestaurants(List<Restaurant> nearestRestaurants, Location location) {
+        synchronized (mViewStatesLock) {
+            List<Integer> indexes = new ArrayList<>(mShownCount);
+            for (Restaurant restaurant : nearestRestaurants) {
+                Integer index = mViewStateIndexes.get(restaurant.getUId());
+                if(index != null) {
+                    indexes.add(index);
+                }
+            }
+            // Places without coordinates are not indexed, they fill the list after the located ones like the mapper ranks them
+            for (int i = 0; i < mViewStates.size() && indexes.size() < mShownCount; i++) {
+                if(!mViewStates.get(i).getRestaurant().hasLocation()) {
+                    indexes.add(i);
+                }
+            }
+
+            int[] shownIndexes = new int[indexes.size()];
+            for (int i = 0; i < shownIndexes.length; i++) {
+                shownIndexes[i] = indexes.get(i);
+            }
+            showViewStates(shownIndexes, location);
+        }
+    }
+
+    // Rows in the mapper order, called with mViewStatesLock held
+    private int[] getFirstIndexes() {
+        int[] indexes = new int[Math.min(mShownCount, mViewStates.size())];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = i;
+        }
+        return indexes;
+    }
+
+    // Called with mViewStatesLock held
+    private void showViewStates(int[] shownIndexes, Location location) {
+        double[] latitudes = new double[shownIndexes.length];
+        double[] longitudes = new double[shownIndexes.length];
+        for (int i = 0; i < shownIndexes.length; i++) {
+            Restaurant restaurant = mViewStates.get(shownIndexes[i]).getRestaurant();
+            latitudes[i] = restaurant.getLatitude();
+            longitudes[i] = restaurant.getLongitude();
+        }
+        mShownIndexes = shownIndexes;
+        mDistanceRanker.setPoints(latitudes, longitudes);
+        if(location != null) {
+            mDistanceRanker.update(location.getLatitude(), location.getLongitude());
+            updateDistances();
+        }
+        postViewStates();
+    }
+
+    // Called with mViewStatesLock held
+    private void updateDistances() {
+        int distanceUnit = mUserDataRepository.getDistanceUnit();
+        for (int i = 0; i < mShownIndexes.length; i++) {
+            RestaurantListViewState viewState = mViewStates.get(mShownIndexes[i]);
+            if(viewState.getRestaurant().hasLocation()) {
+                int distance = RestaurantToListViewMapper.toDisplayedDistance(mDistanceRanker.getDistance(i), distanceUnit);
+                mViewStates.set(mShownIndexes[i], viewState.withDistance(distance));
+            }
+        }
+    }
+
+    // Called with mViewStatesLock held
+    private void postViewStates() {
+        List<RestaurantListViewState> rankedViewStates = new ArrayList<>(mShownIndexes.length);
+        for (int rank = 0; rank < mDistanceRanker.size(); rank++) {
+            rankedViewStates.add(mViewStates.get(mShownIndexes[mDistanceRanker.getIndexAt(rank)]));
+        }
+        mRestaurantListLiveData.postValue(rankedViewStates);
+    }
+
+    private RestaurantToListViewMapper createMapper(Calendar now) {
+        return new RestaurantToListViewMapper(mUserDataRepository.getLocation(),
+                mUserDataRepository.getDistanceUnit(),
+                now);
+    }
+
+    // A single timer on the earliest change, whatever the number of restaurants. Called with mViewStatesLock held
+    private void scheduleNextOpenStatusChange() {
+        mOpenStatusTimer.dispose();
+        long nextChangeMillis = mOpenStatusScheduler.getNextChangeMillis();
+        if(nextChangeMillis == Long.MAX_VALUE) {
+            return;
+        }
+
+        mOpenStatusTimer = Completable.timer(Math.max(0, nextChangeMillis - System.currentTimeMillis()), TimeUnit.MILLISECONDS)
+                .subscribe(this::updateOpenStatuses,
+                        throwable -> Log.e(TAG, "scheduleNextOpenStatusChange: ", throwable));
+    }
+
+    private void updateOpenStatuses() {
+        synchronized (mViewStatesLock) {
+            Calendar now = Calendar.getInstance();
+            RestaurantToListViewMapper mapper = createMapper(now);
+            boolean changed = false;
+            for (Restaurant restaurant : mOpenStatusScheduler.pollDue(now)) {
+                Integer index = mViewStateIndexes.get(restaurant.getUId());
+                if(index != null) {
+                    RestaurantListViewState viewState = mViewStates.get(index);
+                    RestaurantListViewState updatedViewState = viewState.withOpenLabel(mapper.determineOpening(restaurant));
+                    mViewStates.set(index, updatedViewState);
+                    changed |= updatedViewState != viewState;
+                }
+            }
+            if(changed) {
+                postViewStates();
+            }
+            scheduleNextOpenStatusChange();
+        }
+    }
+
+    // Shows the next nearest rows, a new page of places is only searched once every row is shown
     public void loadNextPage() {
+        synchronized (mViewStatesLock) {
+            boolean allShown = mShownCount >= mViewStates.size();
+            mShownCount += NEAREST_PAGE_SIZE;
+            Location location = mUserDataRepository.getLocation();
+            if(!allShown) {
+                if(location != null) {
+                    queryNearest(location);
+                } else {
+                    showViewStates(getFirstIndexes(), null);
+                }
+                return;
+            }
+        }
         mRestaurantUseCase.loadNextPage();
     }
 }
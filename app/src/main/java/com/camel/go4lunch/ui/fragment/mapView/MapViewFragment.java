@@ -30,6 +30,7 @@ import com.google.android.gms.maps.OnMapReadyCallback;
 import com.google.android.gms.maps.SupportMapFragment;
 import com.google.android.gms.maps.model.BitmapDescriptorFactory;
 import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.LatLngBounds;
 import com.google.android.gms.maps.model.Marker;
 import com.google.android.gms.maps.model.MarkerOptions;
 import com.google.android.gms.maps.model.VisibleRegion;
@@ -37,19 +38,22 @@ import com.google.android.material.snackbar.Snackbar;
 import com.google.maps.android.SphericalUtil;
 import com.camel.go4lunch.R;
 import com.camel.go4lunch.databinding.FragmentMapViewBinding;
-import com.camel.go4lunch.models.Restaurant;
-import com.camel.go4lunch.utils.liveEvent.AddMarkersLiveEvent;
+import com.camel.go4lunch.models.RestaurantMapViewChanges;
+import com.camel.go4lunch.models.RestaurantMapViewState;
 import com.camel.go4lunch.utils.liveEvent.FocusCameraLiveEvent;
 import com.camel.go4lunch.utils.liveEvent.HideSearchButtonLiveEvent;
 import com.camel.go4lunch.utils.liveEvent.LiveEvent;
 import com.camel.go4lunch.utils.liveEvent.OpenSystemSettingsLiveEvent;
 import com.camel.go4lunch.utils.liveEvent.RemoveMarkersLiveEvent;
 import com.camel.go4lunch.utils.liveEvent.ShowSearchButtonLiveEvent;
+import com.camel.go4lunch.utils.liveEvent.ShowPartialResultsLiveEvent;
 import com.camel.go4lunch.utils.liveEvent.ShowSnackbarLiveEvent;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 
@@ -76,7 +80,7 @@ public class MapViewFragment extends Fragment implements
 
     private boolean mPermissionDenied = false;
 
-    HashMap<String, Restaurant> mRestaurantList = new HashMap<>();
+    private final HashMap<String, Marker> mMarkers = new HashMap<>();
 
     // ---------------
     // Setup
@@ -141,8 +145,10 @@ public class MapViewFragment extends Fragment implements
         configureRestaurantObserver();
     }
 
+    // A new map has no markers, the view model starts again from the whole list
     private void configureRestaurantObserver(){
-        mViewModel.observeRestaurantList().observe(getViewLifecycleOwner(), onRestaurantListChanged());
+        mMarkers.clear();
+        mViewModel.observeRestaurantChanges().observe(getViewLifecycleOwner(), onRestaurantChanges());
     }
 
     // ---------------
@@ -178,7 +184,8 @@ public class MapViewFragment extends Fragment implements
         mViewModel.onCameraIdle(mMap.getCameraPosition().target.latitude,
                 mMap.getCameraPosition().target.longitude,
                 mMap.getCameraPosition().zoom,
-                getVisibleRegionRadius());
+                getVisibleRegionRadius(),
+                mMap.getProjection().getVisibleRegion().latLngBounds);
     }
 
     private boolean onMarkerClick(Marker marker) {
@@ -192,30 +199,78 @@ public class MapViewFragment extends Fragment implements
     // Markers
     // ---------------
 
-    private Observer<HashMap<String, Restaurant>> onRestaurantListChanged(){
-        return restaurantList -> {
+    // Markers are only kept for the restaurants inside the viewport
+    private Observer<Boolean> onRestaurantChanges(){
+        return changesWaiting -> {
             hideProgressBar();
-            removeMarkers();
-            mRestaurantList = restaurantList;
-            if (mMap.getCameraPosition().zoom > LIMIT_ZOOM_VALUE) {
-                addMarkers();
+            RestaurantMapViewChanges restaurantChanges = mViewModel.takeRestaurantChanges();
+            boolean showMarkers = mMap.getCameraPosition().zoom > LIMIT_ZOOM_VALUE;
+            LatLngBounds visibleBounds = mMap.getProjection().getVisibleRegion().latLngBounds;
+
+            if(restaurantChanges.getVisible() != null) {
+                showVisibleMarkers(restaurantChanges.getVisible(), showMarkers);
+            }
+            for (String placeId : restaurantChanges.getRemoved()) {
+                removeMarker(placeId);
+            }
+            for (RestaurantMapViewState restaurant : restaurantChanges.getChanged().values()) {
+                if(showMarkers && restaurant.hasLocation()
+                        && visibleBounds.contains(new LatLng(restaurant.getLatitude(), restaurant.getLongitude()))) {
+                    updateMarker(restaurant);
+                } else {
+                    removeMarker(restaurant.getUId());
+                }
             }
         };
     }
 
-    private void addMarkers(){
-        for (Restaurant restaurant : mRestaurantList.values()) {
-            MarkerOptions markerOptions = new MarkerOptions()
-                    .position(new LatLng(restaurant.getLocation().getLatitude(), restaurant.getLocation().getLongitude()))
-                    .icon(BitmapDescriptorFactory.fromResource(restaurant.getMarkerOptionIconResource()));
+    private void showVisibleMarkers(List<RestaurantMapViewState> visibleRestaurants, boolean showMarkers){
+        HashSet<String> visibleIds = new HashSet<>();
+        if(showMarkers) {
+            for (RestaurantMapViewState restaurant : visibleRestaurants) {
+                visibleIds.add(restaurant.getUId());
+                updateMarker(restaurant);
+            }
+        }
+        for (String placeId : new ArrayList<>(mMarkers.keySet())) {
+            if(!visibleIds.contains(placeId)) {
+                removeMarker(placeId);
+            }
+        }
+    }
+
+    // Moves and restyles the marker already shown rather than adding it again
+    private void updateMarker(RestaurantMapViewState restaurant){
+        if(!restaurant.hasLocation()) {
+            removeMarker(restaurant.getUId());
+            return;
+        }
+        LatLng position = new LatLng(restaurant.getLatitude(), restaurant.getLongitude());
+        Marker marker = mMarkers.get(restaurant.getUId());
+        if(marker != null) {
+            marker.setPosition(position);
+            marker.setIcon(BitmapDescriptorFactory.fromResource(restaurant.getMarkerOptionIconResource()));
+            return;
+        }
+        MarkerOptions markerOptions = new MarkerOptions()
+                .position(position)
+                .icon(BitmapDescriptorFactory.fromResource(restaurant.getMarkerOptionIconResource()));
+
+        marker = mMap.addMarker(markerOptions);
+        marker.setTag(restaurant.getUId());
+        mMarkers.put(restaurant.getUId(), marker);
+    }
 
-            Marker marker = mMap.addMarker(markerOptions);
-            marker.setTag(restaurant.getUId());
+    private void removeMarker(String placeId){
+        Marker marker = mMarkers.remove(placeId);
+        if(marker != null) {
+            marker.remove();
         }
     }
 
     private void removeMarkers(){
         mMap.clear();
+        mMarkers.clear();
     }
 
     // ---------------
@@ -329,8 +384,9 @@ public class MapViewFragment extends Fragment implements
                 showSnackBar(((ShowSnackbarLiveEvent) event).getStingId());
                 hideProgressBar();
             }
-            else if(event instanceof AddMarkersLiveEvent){
-                addMarkers();
+            else if(event instanceof ShowPartialResultsLiveEvent){
+                int failedCount = ((ShowPartialResultsLiveEvent) event).getFailedCount();
+                showSnackBar(getResources().getQuantityString(R.plurals.restaurants_without_details, failedCount, failedCount));
             }
             else if(event instanceof RemoveMarkersLiveEvent){
                 removeMarkers();
@@ -358,7 +414,11 @@ public class MapViewFragment extends Fragment implements
     }
 
     private void showSnackBar(int stringId){
-        Snackbar.make(mBinding.mapViewFragmentCoordinator, getString(stringId), Snackbar.LENGTH_LONG).show();
+        showSnackBar(getString(stringId));
+    }
+
+    private void showSnackBar(String message){
+        Snackbar.make(mBinding.mapViewFragmentCoordinator, message, Snackbar.LENGTH_LONG).show();
     }
 
     private void showSearchButton(){
@@ -11,22 +11,28 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
 import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.LatLngBounds;
 import com.camel.go4lunch.R;
 import com.camel.go4lunch.mappers.RestaurantToMapViewMapper;
 import com.camel.go4lunch.models.Restaurant;
+import com.camel.go4lunch.models.RestaurantChangeSet;
+import com.camel.go4lunch.models.RestaurantMapViewChanges;
+import com.camel.go4lunch.models.RestaurantMapViewState;
 import com.camel.go4lunch.repositories.RestaurantUseCase;
 import com.camel.go4lunch.repositories.UserDataRepository;
 import com.camel.go4lunch.utils.SingleLiveEvent;
-import com.camel.go4lunch.utils.liveEvent.AddMarkersLiveEvent;
 import com.camel.go4lunch.utils.liveEvent.FocusCameraLiveEvent;
 import com.camel.go4lunch.utils.liveEvent.HideSearchButtonLiveEvent;
 import com.camel.go4lunch.utils.liveEvent.LiveEvent;
 import com.camel.go4lunch.utils.liveEvent.OpenSystemSettingsLiveEvent;
 import com.camel.go4lunch.utils.liveEvent.RemoveMarkersLiveEvent;
 import com.camel.go4lunch.utils.liveEvent.ShowSearchButtonLiveEvent;
+import com.camel.go4lunch.utils.liveEvent.ShowPartialResultsLiveEvent;
 import com.camel.go4lunch.utils.liveEvent.ShowSnackbarLiveEvent;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.concurrent.Executor;
 
 import javax.inject.Inject;
@@ -34,6 +40,8 @@ import javax.inject.Inject;
 import dagger.hilt.android.lifecycle.HiltViewModel;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.disposables.Disposables;
 import io.reactivex.schedulers.Schedulers;
 
 @HiltViewModel
@@ -46,14 +54,17 @@ public class MapViewViewModel extends ViewModel {
 
     private final CompositeDisposable mDisposable = new CompositeDisposable();
 
-    private final MutableLiveData<HashMap<String, Restaurant>> mRestaurantListLiveData = new MutableLiveData<>();
+    private final MutableLiveData<Boolean> mRestaurantChangesLiveData = new MutableLiveData<>();
+    private final Object mRestaurantChangesLock = new Object();
+    private final HashMap<String, RestaurantMapViewState> mRestaurants = new HashMap<>();
+    private RestaurantMapViewChanges mRestaurantChanges = new RestaurantMapViewChanges();
+    private Disposable mVisibleQueryDisposable = Disposables.disposed();
     private final SingleLiveEvent<LiveEvent> mSingleLiveEvent = new SingleLiveEvent<>();
 
     private boolean mEnableFirstMoveToLocation = true;
     private boolean mFetchNearbyPlacesAfterCameraIdle = false;
     private boolean mCanShowSearchButton = false;
     private boolean mCanShowZoomSnackbar = false;
-    private boolean mCanAddMarkers = false;
     private Location mLocation;
 
     @Inject
@@ -77,27 +88,103 @@ public class MapViewViewModel extends ViewModel {
                         }
                 ));
 
-        mDisposable.add(mRestaurantUseCase.observeRestaurantList()
+        mDisposable.add(mRestaurantUseCase.observeFailedItems()
                 .subscribeOn(Schedulers.io())
-                .map(new RestaurantToMapViewMapper())
+                .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(
-                        this::recipeRestaurantList,
+                        failedCount -> mSingleLiveEvent.setValue(new ShowPartialResultsLiveEvent(failedCount)),
+                        throwable -> Log.e(TAG, "mRestaurantUseCase.observeFailedItems: ", throwable)
+                ));
+
+        synchronized (mRestaurantChangesLock) {                                     // The change stream starts with the whole list
+            mRestaurants.clear();
+            mRestaurantChanges = new RestaurantMapViewChanges();
+        }
+        mDisposable.add(mRestaurantUseCase.observeRestaurantChanges()
+                .subscribeOn(Schedulers.io())
+                .observeOn(Schedulers.io())
+                .subscribe(
+                        this::applyChangeSet,
                         throwable -> {
-                            Log.e(TAG, "mRestaurantUseCase.observeRestaurantList: ", throwable);
+                            Log.e(TAG, "mRestaurantUseCase.observeRestaurantChanges: ", throwable);
                             mSingleLiveEvent.postValue(new ShowSnackbarLiveEvent(R.string.error));
                         }
                 ));
     }
 
-    public void recipeRestaurantList(HashMap<String, Restaurant> restaurantList){
-        mRestaurantListLiveData.postValue(restaurantList);
-        if(restaurantList.size() == 0){
+    // Only the restaurants of the change set are mapped, and only the markers that look different are handed to the map
+    private void applyChangeSet(RestaurantChangeSet changeSet) {
+        RestaurantToMapViewMapper mapper = new RestaurantToMapViewMapper();
+        HashMap<String, RestaurantMapViewState> added = mapper.apply(changeSet.getAdded());
+        HashMap<String, RestaurantMapViewState> updated = mapper.apply(changeSet.getUpdated());
+        boolean empty;
+
+        synchronized (mRestaurantChangesLock) {
+            for(String placeId : changeSet.getRemoved()) {
+                if(mRestaurants.remove(placeId) != null) {
+                    mRestaurantChanges.putRemoved(placeId);
+                }
+            }
+            putChangedViewStates(added);
+            putChangedViewStates(updated);
+            empty = mRestaurants.isEmpty();
+        }
+
+        mRestaurantChangesLiveData.postValue(true);
+        if(empty){
             mSingleLiveEvent.postValue(new ShowSnackbarLiveEvent(R.string.no_restaurants_found));
         }
     }
 
-    public LiveData<HashMap<String, Restaurant>> observeRestaurantList(){
-        return mRestaurantListLiveData;
+    // A marker that looks the same is left as is. Called with mRestaurantChangesLock held
+    private void putChangedViewStates(HashMap<String, RestaurantMapViewState> viewStates) {
+        for(RestaurantMapViewState viewState : viewStates.values()) {
+            if(!viewState.equals(mRestaurants.get(viewState.getUId()))) {
+                mRestaurants.put(viewState.getUId(), viewState);
+                mRestaurantChanges.putChanged(viewState);
+            }
+        }
+    }
+
+    // Posted values may be merged, so the map takes every change accumulated since it last took them
+    public LiveData<Boolean> observeRestaurantChanges(){
+        return mRestaurantChangesLiveData;
+    }
+
+    // Only the restaurants inside the viewport get a marker, found through the spatial index rather than a full scan
+    private void queryVisibleRestaurants(LatLngBounds bounds) {
+        mVisibleQueryDisposable.dispose();
+        mVisibleQueryDisposable = mRestaurantUseCase.getRestaurantsInBounds(bounds.southwest.latitude,
+                bounds.southwest.longitude,
+                bounds.northeast.latitude,
+                bounds.northeast.longitude)
+                .subscribeOn(Schedulers.io())
+                .subscribe(
+                        this::setVisibleRestaurants,
+                        throwable -> Log.e(TAG, "mRestaurantUseCase.getRestaurantsInBounds: ", throwable));
+    }
+
+    // A restaurant not received yet comes later as a change, the map then checks if it is in view
+    private void setVisibleRestaurants(List<Restaurant> restaurants) {
+        synchronized (mRestaurantChangesLock) {
+            List<RestaurantMapViewState> visible = new ArrayList<>(restaurants.size());
+            for(Restaurant restaurant : restaurants) {
+                RestaurantMapViewState viewState = mRestaurants.get(restaurant.getUId());
+                if(viewState != null) {
+                    visible.add(viewState);
+                }
+            }
+            mRestaurantChanges.setVisible(visible);
+        }
+        mRestaurantChangesLiveData.postValue(true);
+    }
+
+    public RestaurantMapViewChanges takeRestaurantChanges() {
+        synchronized (mRestaurantChangesLock) {
+            RestaurantMapViewChanges restaurantChanges = mRestaurantChanges;
+            mRestaurantChanges = new RestaurantMapViewChanges();
+            return restaurantChanges;
+        }
     }
 
     public void getNearbyPlaces(double latitude, double longitude, double radius) {
@@ -136,7 +223,7 @@ public class MapViewViewModel extends ViewModel {
         }
     }
 
-    public void onCameraIdle(double latitude, double longitude, float zoom, double radius) {
+    public void onCameraIdle(double latitude, double longitude, float zoom, double radius, LatLngBounds visibleBounds) {
         saveCameraData(latitude, longitude, zoom, radius);
 
         if(mFetchNearbyPlacesAfterCameraIdle){
@@ -144,7 +231,6 @@ public class MapViewViewModel extends ViewModel {
             mFetchNearbyPlacesAfterCameraIdle = false;
             mCanShowSearchButton = false;
             mCanShowZoomSnackbar = true;
-            mCanAddMarkers = true;
         }
 
         if (zoom > LIMIT_ZOOM_VALUE) {
@@ -153,10 +239,7 @@ public class MapViewViewModel extends ViewModel {
             } else {
                 mCanShowSearchButton = true;
             }
-            if(mCanAddMarkers){
-                mSingleLiveEvent.setValue(new AddMarkersLiveEvent());
-                mCanAddMarkers = false;
-            }
+            queryVisibleRestaurants(visibleBounds);
             mCanShowZoomSnackbar = true;
         } else {
             mSingleLiveEvent.setValue(new HideSearchButtonLiveEvent());
@@ -167,7 +250,6 @@ public class MapViewViewModel extends ViewModel {
                 mCanShowZoomSnackbar = false;
             }
             mCanShowSearchButton = true;
-            mCanAddMarkers = true;
         }
     }
 
@@ -192,6 +274,7 @@ public class MapViewViewModel extends ViewModel {
 
     public void clearDisposables() {
         mDisposable.clear();
+        mVisibleQueryDisposable.dispose();
     }
 
     // -------------
@@ -194,7 +194,7 @@ public class RestaurantDetailsFragment extends Fragment {
     }
 
     private void likeRestaurant() {
-        mViewModel.likeRestaurant(mRestaurant, mCurrentUser);
+        mViewModel.likeRestaurant(mRestaurant);
     }
 
     private void visitRestaurantWebsite() {
@@ -133,13 +133,8 @@ public class RestaurantDetailsViewModel extends ViewModel {
         });
     }
 
-    public void likeRestaurant(Restaurant restaurant, Workmate workmate) {
-        if(workmate.getLikedRestaurants().contains(restaurant.getUId())) {
-            workmate.getLikedRestaurants().remove(restaurant.getUId());
-        } else {
-            workmate.getLikedRestaurants().add(restaurant.getUId());
-        }
-        mExecutor.execute(() -> mWorkmatesRepository.setLikedRestaurants(workmate.getLikedRestaurants()));
+    public void likeRestaurant(Restaurant restaurant) {
+        mWorkmatesRepository.toggleLikedRestaurant(restaurant.getUId());
     }
 
     @Override
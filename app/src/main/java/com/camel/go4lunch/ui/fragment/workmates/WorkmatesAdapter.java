@@ -50,6 +50,20 @@ public class WorkmatesAdapter extends RecyclerView.Adapter<WorkmatesAdapter.Work
         mWorkmateList.submitList(workmates);
     }
 
+    // The callback runs once the new list is shown, when the pages under the visible rows can be known
+    public void updateList(List<Workmate> workmates, Runnable onListShown) {
+        mWorkmateList.submitList(workmates, onListShown);
+    }
+
+    // Rows of the list shown, which lags behind the last list submitted while it is diffed
+    public Workmate getWorkmate(int position) {
+        return mWorkmateList.getCurrentList().get(position);
+    }
+
+    public List<Workmate> getWorkmates(int firstPosition, int lastPosition) {
+        return mWorkmateList.getCurrentList().subList(firstPosition, lastPosition + 1);
+    }
+
     static class WorkmateViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener{
         private final FragmentWorkmateItemBinding mBinding;
         OnWorkmateListener mWorkmateListener;
@@ -7,11 +7,13 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
+import androidx.annotation.NonNull;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.navigation.Navigation;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.snackbar.Snackbar;
 import com.camel.go4lunch.R;
@@ -22,7 +24,6 @@ import com.camel.go4lunch.utils.liveEvent.ShowSnackbarLiveEvent;
 
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import dagger.hilt.android.AndroidEntryPoint;
@@ -33,8 +34,7 @@ public class WorkmatesFragment extends Fragment implements WorkmatesAdapter.OnWo
     private WorkmatesViewModel mViewModel;
     private FragmentWorkmatesBinding mBinding;
     private WorkmatesAdapter mAdapter;
-
-    private List<Workmate> mWorkmateList = new ArrayList<>();
+    private LinearLayoutManager mLayoutManager;
 
     public WorkmatesFragment() {}
 
@@ -67,7 +67,25 @@ public class WorkmatesFragment extends Fragment implements WorkmatesAdapter.OnWo
     private void configureRecyclerView() {
         mAdapter = new WorkmatesAdapter(this);
         mBinding.fragmentWorkmatesRv.setAdapter(mAdapter);
-        mBinding.fragmentWorkmatesRv.setLayoutManager(new LinearLayoutManager(requireActivity(), LinearLayoutManager.VERTICAL, false));
+        mLayoutManager = new LinearLayoutManager(requireActivity(), LinearLayoutManager.VERTICAL, false);
+        mBinding.fragmentWorkmatesRv.setLayoutManager(mLayoutManager);
+        mBinding.fragmentWorkmatesRv.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                onVisibleRangeChanged();
+            }
+        });
+    }
+
+    // The pager locates its pages from the workmates shown, positions change whenever a page or a choice arrives
+    private void onVisibleRangeChanged() {
+        int firstVisiblePosition = mLayoutManager.findFirstVisibleItemPosition();
+        int lastVisiblePosition = mLayoutManager.findLastVisibleItemPosition();
+        if(firstVisiblePosition == RecyclerView.NO_POSITION) {
+            return;
+        }
+        mViewModel.onVisibleRangeChanged(mAdapter.getWorkmates(firstVisiblePosition, lastVisiblePosition),
+                mAdapter.getItemCount() - 1 - lastVisiblePosition);
     }
 
     private void configureObservers(){
@@ -76,14 +94,13 @@ public class WorkmatesFragment extends Fragment implements WorkmatesAdapter.OnWo
     }
 
     private void onWorkmateListChanged(List<Workmate> workmateList){
-        mWorkmateList = workmateList;
-        mAdapter.updateList(mWorkmateList);
+        mAdapter.updateList(workmateList, this::onVisibleRangeChanged);
     }
 
 
     @Override
     public void onWorkmateClick(int position) {
-        Workmate workmate = mWorkmateList.get(position);
+        Workmate workmate = mAdapter.getWorkmate(position);
 
         if(!workmate.getChosenRestaurantId().isEmpty() && isToday(workmate.getChosenRestaurantDate())) {
             Bundle bundle = new Bundle();
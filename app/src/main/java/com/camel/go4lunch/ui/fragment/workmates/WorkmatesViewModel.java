@@ -9,6 +9,7 @@ import androidx.lifecycle.ViewModel;
 import com.camel.go4lunch.R;
 import com.camel.go4lunch.mappers.WorkmateToWorkmateListViewMapper;
 import com.camel.go4lunch.models.Workmate;
+import com.camel.go4lunch.repositories.WorkmatesPager;
 import com.camel.go4lunch.repositories.WorkmatesRepository;
 import com.camel.go4lunch.utils.SingleLiveEvent;
 import com.camel.go4lunch.utils.liveEvent.LiveEvent;
@@ -27,25 +28,36 @@ public class WorkmatesViewModel extends ViewModel {
     private static final String TAG = "WorkmatesViewModel";
 
     private final WorkmatesRepository mWorkmatesRepository;
+    private final WorkmatesPager mWorkmatesPager;
 
     private final CompositeDisposable mDisposable = new CompositeDisposable();
     private final MutableLiveData<List<Workmate>> mWorkmateListLiveData = new MutableLiveData<>();
     private final SingleLiveEvent<LiveEvent> mSingleLiveEvent = new SingleLiveEvent<>();
 
     @Inject
-    public WorkmatesViewModel(WorkmatesRepository workmatesRepository){
+    public WorkmatesViewModel(WorkmatesRepository workmatesRepository, WorkmatesPager workmatesPager){
         mWorkmatesRepository = workmatesRepository;
+        mWorkmatesPager = workmatesPager;
     }
 
     public void startObservers(){
-        mDisposable.add(mWorkmatesRepository.observeWorkmates()
-                .subscribeOn(Schedulers.computation())
-                .map(new WorkmateToWorkmateListViewMapper())
+        WorkmateToWorkmateListViewMapper mapper = new WorkmateToWorkmateListViewMapper(false);
+        mDisposable.add(mWorkmatesPager.observeWorkmates()
+                .observeOn(Schedulers.computation())
+                .map(changeSet -> {
+                    mapper.apply(changeSet.getChanged());                 // The other rows already have their labels
+                    return changeSet.getWorkmates();
+                })
                 .subscribe(mWorkmateListLiveData::postValue,
                         throwable -> {
-                            Log.e(TAG, "mWorkmatesRepository.observeWorkmates: ", throwable);
+                            Log.e(TAG, "mWorkmatesPager.observeWorkmates: ", throwable);
                             mSingleLiveEvent.postValue(new ShowSnackbarLiveEvent(R.string.error));
                         }));
+        mWorkmatesPager.start();
+    }
+
+    public void onVisibleRangeChanged(List<Workmate> visibleWorkmates, int rowsAfterVisible){
+        mWorkmatesPager.onVisibleRangeChanged(visibleWorkmates, rowsAfterVisible);
     }
 
     public LiveData<List<Workmate>> observeWorkmateList(){
@@ -64,5 +76,6 @@ public class WorkmatesViewModel extends ViewModel {
 
     public void clearDisposables(){
         mDisposable.clear();
+        mWorkmatesPager.clear();
     }
 }
@@ -0,0 +1,99 @@
+package com.camel.go4lunch.utils;
+
+/**
+ * Restaurants ranked by distance from a moving user, over primitive arrays filled once per list.
+ * An update is only accepted when the ranking changes or a distance moved by at least the step
+ * since the last accepted one, so GPS ticks that would show the same list are dropped.
+ * Not thread safe, callers synchronize.
+ */
+public class DistanceRanker {
+    private final double mDistanceStepMeters;
+
+    private double[] mLatitudes = new double[0];
+    private double[] mLongitudes = new double[0];
+    private double[] mCosLatitudes = new double[0];
+    private double[] mDistances = new double[0];
+    private double[] mShownDistances = new double[0];
+    private int[] mOrder = new int[0];
+    private int[] mShownOrder = new int[0];
+    private boolean mShown;
+
+    public DistanceRanker(double distanceStepMeters) {
+        mDistanceStepMeters = distanceStepMeters;
+    }
+
+    // Points without coordinates are given NaN and ranked last
+    public void setPoints(double[] latitudes, double[] longitudes) {
+        int count = latitudes.length;
+        mLatitudes = new double[count];
+        mLongitudes = new double[count];
+        mCosLatitudes = new double[count];
+        mDistances = new double[count];
+        mShownDistances = new double[count];
+        mOrder = new int[count];
+        mShownOrder = new int[count];
+        for (int i = 0; i < count; i++) {
+            mLatitudes[i] = Math.toRadians(latitudes[i]);
+            mLongitudes[i] = Math.toRadians(longitudes[i]);
+            mCosLatitudes[i] = Math.cos(mLatitudes[i]);
+            mOrder[i] = i;
+            mShownOrder[i] = i;
+        }
+        mShown = false;
+    }
+
+    public boolean update(double latitude, double longitude) {
+        DistanceUtils.distancesBetween(latitude, longitude, mLatitudes, mLongitudes, mCosLatitudes, mDistances);
+        for (int i = 0; i < mDistances.length; i++) {
+            if(Double.isNaN(mDistances[i])) {
+                mDistances[i] = Double.MAX_VALUE;
+            }
+        }
+        sortOrder();
+
+        if(mShown && !hasChanged()) {
+            return false;
+        }
+        System.arraycopy(mDistances, 0, mShownDistances, 0, mDistances.length);
+        System.arraycopy(mOrder, 0, mShownOrder, 0, mOrder.length);
+        mShown = true;
+        return true;
+    }
+
+    public int size() {
+        return mOrder.length;
+    }
+
+    // Index of the point at the given rank, as of the last accepted update, the points order before the first one
+    public int getIndexAt(int rank) {
+        return mShownOrder[rank];
+    }
+
+    public double getDistance(int index) {
+        return mShownDistances[index];
+    }
+
+    // Insertion sort, the ranking barely changes between two ticks so this is close to linear
+    private void sortOrder() {
+        for (int i = 1; i < mOrder.length; i++) {
+            int index = mOrder[i];
+            double distance = mDistances[index];
+            int j = i - 1;
+            while (j >= 0 && mDistances[mOrder[j]] > distance) {
+                mOrder[j + 1] = mOrder[j];
+                j--;
+            }
+            mOrder[j + 1] = index;
+        }
+    }
+
+    private boolean hasChanged() {
+        for (int i = 0; i < mOrder.length; i++) {
+            if(mOrder[i] != mShownOrder[i]
+                    || Math.abs(mDistances[i] - mShownDistances[i]) >= mDistanceStepMeters) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,34 @@
+package com.camel.go4lunch.utils;
+
+public class DistanceUtils {
+    private static final double EARTH_RADIUS_METERS = 6371008.8;
+
+    // Haversine distance in meters
+    public static double distanceBetween(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLat = Math.toRadians(latitude2 - latitude1);
+        double dLng = Math.toRadians(longitude2 - longitude1);
+        double sinLat = Math.sin(dLat / 2);
+        double sinLng = Math.sin(dLng / 2);
+
+        double a = sinLat * sinLat
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * sinLng * sinLng;
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // Same haversine from one point to many, over coordinates already in radians with the cosines of their latitudes
+    public static void distancesBetween(double latitude, double longitude,
+                                        double[] latitudesRadians, double[] longitudesRadians, double[] cosLatitudes,
+                                        double[] distances) {
+        double latitudeRadians = Math.toRadians(latitude);
+        double longitudeRadians = Math.toRadians(longitude);
+        double cosLatitude = Math.cos(latitudeRadians);
+
+        for (int i = 0; i < distances.length; i++) {
+            double sinLat = Math.sin((latitudesRadians[i] - latitudeRadians) / 2);
+            double sinLng = Math.sin((longitudesRadians[i] - longitudeRadians) / 2);
+
+            double a = sinLat * sinLat + cosLatitude * cosLatitudes[i] * sinLng * sinLng;
+            distances[i] = 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+        }
+    }
+}
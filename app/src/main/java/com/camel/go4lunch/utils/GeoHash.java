@@ -0,0 +1,117 @@
+package com.camel.go4lunch.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public class GeoHash {
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final double METERS_PER_LATITUDE_DEGREE = 111320;
+
+    public static final int MIN_LAT = 0;
+    public static final int MIN_LNG = 1;
+    public static final int MAX_LAT = 2;
+    public static final int MAX_LNG = 3;
+
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLat = -90, maxLat = 90;
+        double minLng = -180, maxLng = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int index = 0;
+
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double midLng = (minLng + maxLng) / 2;
+                if (longitude >= midLng) {
+                    index = index * 2 + 1;
+                    minLng = midLng;
+                } else {
+                    index = index * 2;
+                    maxLng = midLng;
+                }
+            } else {
+                double midLat = (minLat + maxLat) / 2;
+                if (latitude >= midLat) {
+                    index = index * 2 + 1;
+                    minLat = midLat;
+                } else {
+                    index = index * 2;
+                    maxLat = midLat;
+                }
+            }
+            evenBit = !evenBit;
+
+            if (++bit == 5) {
+                hash.append(BASE32.charAt(index));
+                bit = 0;
+                index = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    public static double[] getBounds(String hash) {
+        double[] bounds = {-90, -180, 90, 180};
+        boolean evenBit = true;
+
+        for (int i = 0; i < hash.length(); i++) {
+            int index = BASE32.indexOf(hash.charAt(i));
+            for (int n = 4; n >= 0; n--) {
+                int bitValue = (index >> n) & 1;
+                if (evenBit) {
+                    double midLng = (bounds[MIN_LNG] + bounds[MAX_LNG]) / 2;
+                    bounds[bitValue == 1 ? MIN_LNG : MAX_LNG] = midLng;
+                } else {
+                    double midLat = (bounds[MIN_LAT] + bounds[MAX_LAT]) / 2;
+                    bounds[bitValue == 1 ? MIN_LAT : MAX_LAT] = midLat;
+                }
+                evenBit = !evenBit;
+            }
+        }
+        return bounds;
+    }
+
+    public static boolean contains(String hash, double latitude, double longitude) {
+        return encode(latitude, longitude, hash.length()).equals(hash);
+    }
+
+    // Every cell of the given precision intersecting the bounding box of the circle
+    public static List<String> getCoveringCells(double latitude, double longitude, double radius, int precision) {
+        double latDelta = radius / METERS_PER_LATITUDE_DEGREE;
+        double lngDelta = radius / (METERS_PER_LATITUDE_DEGREE * Math.max(Math.cos(Math.toRadians(latitude)), 0.01));
+
+        return getCellsInBounds(latitude - latDelta, longitude - lngDelta, latitude + latDelta, longitude + lngDelta, precision);
+    }
+
+    // Every cell of the given precision intersecting the bounding box
+    public static List<String> getCellsInBounds(double minLat, double minLng, double maxLat, double maxLng, int precision) {
+        minLat = Math.max(minLat, -90);
+        maxLat = Math.min(maxLat, 90);
+        minLng = Math.max(minLng, -180);
+        maxLng = Math.min(maxLng, 180);
+
+        int latBits = precision * 5 / 2;
+        int lngBits = precision * 5 - latBits;
+        double cellHeight = 180 / Math.pow(2, latBits);
+        double cellWidth = 360 / Math.pow(2, lngBits);
+
+        Set<String> cells = new LinkedHashSet<>();
+        for (double lat = minLat; ; lat += cellHeight) {
+            double rowLat = Math.min(lat, maxLat);
+            for (double lng = minLng; ; lng += cellWidth) {
+                double columnLng = Math.min(lng, maxLng);
+                cells.add(encode(rowLat, columnLng, precision));
+                if (columnLng >= maxLng) {
+                    break;
+                }
+            }
+            if (rowLat >= maxLat) {
+                break;
+            }
+        }
+        return new ArrayList<>(cells);
+    }
+}
@@ -0,0 +1,167 @@
+package com.camel.go4lunch.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spatial index of ids bucketed by geohash cell, answering bounding box and k-nearest queries
+ * without scanning every id. Not thread safe, callers synchronize.
+ */
+public class GeoHashGrid {
+    private static final double MIN_NEAREST_RADIUS_METERS = 250;
+    private static final double MAX_NEAREST_RADIUS_METERS = 20000;
+
+    private final int mPrecision;
+    private final HashMap<String, LinkedHashSet<String>> mCells = new HashMap<>();
+    private final HashMap<String, Point> mPoints = new HashMap<>();
+
+    public GeoHashGrid(int precision) {
+        mPrecision = precision;
+    }
+
+    public void put(String id, double latitude, double longitude) {
+        remove(id);
+        Point point = new Point(latitude, longitude, GeoHash.encode(latitude, longitude, mPrecision));
+        mPoints.put(id, point);
+
+        LinkedHashSet<String> cellIds = mCells.get(point.mCell);
+        if(cellIds == null) {
+            cellIds = new LinkedHashSet<>();
+            mCells.put(point.mCell, cellIds);
+        }
+        cellIds.add(id);
+    }
+
+    public void remove(String id) {
+        Point point = mPoints.remove(id);
+        if(point != null) {
+            LinkedHashSet<String> cellIds = mCells.get(point.mCell);
+            cellIds.remove(id);
+            if(cellIds.isEmpty()) {
+                mCells.remove(point.mCell);
+            }
+        }
+    }
+
+    public void clear() {
+        mCells.clear();
+        mPoints.clear();
+    }
+
+    public int size() {
+        return mPoints.size();
+    }
+
+    public List<String> queryBounds(double minLat, double minLng, double maxLat, double maxLng) {
+        List<String> ids = new ArrayList<>();
+
+        // A wide box covers more cells than are occupied, walking the occupied ones is then cheaper
+        if(estimateCellCount(minLat, minLng, maxLat, maxLng) > mCells.size()) {
+            for (Map.Entry<String, Point> entry : mPoints.entrySet()) {
+                if(entry.getValue().isInBounds(minLat, minLng, maxLat, maxLng)) {
+                    ids.add(entry.getKey());
+                }
+            }
+            return ids;
+        }
+
+        for (String cell : GeoHash.getCellsInBounds(minLat, minLng, maxLat, maxLng, mPrecision)) {
+            LinkedHashSet<String> cellIds = mCells.get(cell);
+            if(cellIds != null) {
+                for (String id : cellIds) {
+                    if(mPoints.get(id).isInBounds(minLat, minLng, maxLat, maxLng)) {
+                        ids.add(id);
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    // Grows the search circle until it holds count ids, the ones found inside it are then the nearest
+    public List<String> queryNearest(double latitude, double longitude, int count) {
+        if(count <= 0 || mPoints.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        for (double radius = MIN_NEAREST_RADIUS_METERS; radius <= MAX_NEAREST_RADIUS_METERS; radius *= 2) {
+            List<String> cells = GeoHash.getCoveringCells(latitude, longitude, radius, mPrecision);
+            if(cells.size() > mCells.size()) {
+                break;
+            }
+
+            List<Neighbour> neighbours = new ArrayList<>();
+            for (String cell : cells) {
+                LinkedHashSet<String> cellIds = mCells.get(cell);
+                if(cellIds != null) {
+                    for (String id : cellIds) {
+                        Point point = mPoints.get(id);
+                        double distance = DistanceUtils.distanceBetween(latitude, longitude, point.mLatitude, point.mLongitude);
+                        if(distance <= radius) {
+                            neighbours.add(new Neighbour(id, distance));
+                        }
+                    }
+                }
+            }
+            if(neighbours.size() >= count || neighbours.size() == mPoints.size()) {
+                return sortAndLimit(neighbours, count);
+            }
+        }
+
+        List<Neighbour> neighbours = new ArrayList<>();
+        for (Map.Entry<String, Point> entry : mPoints.entrySet()) {
+            Point point = entry.getValue();
+            neighbours.add(new Neighbour(entry.getKey(),
+                    DistanceUtils.distanceBetween(latitude, longitude, point.mLatitude, point.mLongitude)));
+        }
+        return sortAndLimit(neighbours, count);
+    }
+
+    private List<String> sortAndLimit(List<Neighbour> neighbours, int count) {
+        Collections.sort(neighbours, (neighbour1, neighbour2) -> Double.compare(neighbour1.mDistance, neighbour2.mDistance));
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < neighbours.size() && i < count; i++) {
+            ids.add(neighbours.get(i).mId);
+        }
+        return ids;
+    }
+
+    private long estimateCellCount(double minLat, double minLng, double maxLat, double maxLng) {
+        int latBits = mPrecision * 5 / 2;
+        int lngBits = mPrecision * 5 - latBits;
+        double rows = Math.ceil((Math.min(maxLat, 90) - Math.max(minLat, -90)) / (180 / Math.pow(2, latBits))) + 1;
+        double columns = Math.ceil((Math.min(maxLng, 180) - Math.max(minLng, -180)) / (360 / Math.pow(2, lngBits))) + 1;
+        return (long) (rows * columns);
+    }
+
+    private static class Point {
+        final double mLatitude;
+        final double mLongitude;
+        final String mCell;
+
+        Point(double latitude, double longitude, String cell) {
+            mLatitude = latitude;
+            mLongitude = longitude;
+            mCell = cell;
+        }
+
+        boolean isInBounds(double minLat, double minLng, double maxLat, double maxLng) {
+            return mLatitude >= minLat && mLatitude <= maxLat && mLongitude >= minLng && mLongitude <= maxLng;
+        }
+    }
+
+    private static class Neighbour {
+        final String mId;
+        final double mDistance;
+
+        Neighbour(String id, double distance) {
+            mId = id;
+            mDistance = distance;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.camel.go4lunch.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Like toggles waiting to be written, applied over the liked restaurants known from the server
+ * so the user sees them right away. Toggles are collected until drained into a write,
+ * a restaurant toggled back to its server state is then not written at all.
+ * Not thread safe, callers synchronize.
+ */
+public class LikedRestaurantsBuffer {
+    private final LinkedHashMap<String, Boolean> mPendingLikes = new LinkedHashMap<>();
+    private final List<Write> mWritesInFlight = new ArrayList<>();
+
+    // Returns whether the restaurant is now liked
+    public boolean toggle(String restaurantId, List<String> serverLikedRestaurants) {
+        boolean liked = !apply(serverLikedRestaurants).contains(restaurantId);
+        mPendingLikes.put(restaurantId, liked);
+        return liked;
+    }
+
+    // Server list with the writes in flight, then the pending toggles, applied over it
+    public List<String> apply(List<String> serverLikedRestaurants) {
+        LinkedHashSet<String> likedRestaurants = new LinkedHashSet<>(serverLikedRestaurants);
+        for (Write write : mWritesInFlight) {
+            likedRestaurants.addAll(write.mAdded);
+            likedRestaurants.removeAll(write.mRemoved);
+        }
+        applyLikes(likedRestaurants, mPendingLikes);
+        return new ArrayList<>(likedRestaurants);
+    }
+
+    public boolean hasPendingLikes() {
+        return !mPendingLikes.isEmpty();
+    }
+
+    // Moves the pending toggles to a write in flight, null when they all cancel out
+    public Write drain(List<String> serverLikedRestaurants) {
+        Write write = new Write();
+        for (Map.Entry<String, Boolean> pendingLike : mPendingLikes.entrySet()) {
+            String restaurantId = pendingLike.getKey();
+            if(pendingLike.getValue() && !isLikedWithoutPending(restaurantId, serverLikedRestaurants)) {
+                write.mAdded.add(restaurantId);
+            } else if(!pendingLike.getValue() && isLikedWithoutPending(restaurantId, serverLikedRestaurants)) {
+                write.mRemoved.add(restaurantId);
+            }
+        }
+        mPendingLikes.clear();
+
+        if(write.isEmpty()) {
+            return null;
+        }
+        mWritesInFlight.add(write);
+        return write;
+    }
+
+    // Acknowledged writes are part of the next server list, failed ones are rolled back
+    public void onWriteCompleted(Write write) {
+        mWritesInFlight.remove(write);
+    }
+
+    private boolean isLikedWithoutPending(String restaurantId, List<String> serverLikedRestaurants) {
+        boolean liked = serverLikedRestaurants.contains(restaurantId);
+        for (Write write : mWritesInFlight) {
+            if(write.mAdded.contains(restaurantId)) {
+                liked = true;
+            } else if(write.mRemoved.contains(restaurantId)) {
+                liked = false;
+            }
+        }
+        return liked;
+    }
+
+    private static void applyLikes(LinkedHashSet<String> likedRestaurants, Map<String, Boolean> likes) {
+        for (Map.Entry<String, Boolean> like : likes.entrySet()) {
+            if(like.getValue()) {
+                likedRestaurants.add(like.getKey());
+            } else {
+                likedRestaurants.remove(like.getKey());
+            }
+        }
+    }
+
+    public static class Write {
+        private final List<String> mAdded = new ArrayList<>();
+        private final List<String> mRemoved = new ArrayList<>();
+
+        public List<String> getAdded() {
+            return mAdded;
+        }
+
+        public List<String> getRemoved() {
+            return mRemoved;
+        }
+
+        boolean isEmpty() {
+            return mAdded.isEmpty() && mRemoved.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.camel.go4lunch.utils;
+
+import static com.camel.go4lunch.mappers.RestaurantToListViewMapper.NO_OPEN_STATUS_CHANGE;
+
+import com.camel.go4lunch.mappers.RestaurantToListViewMapper;
+import com.camel.go4lunch.models.OpeningSchedule;
+import com.camel.go4lunch.models.Restaurant;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Next instant the open label of each restaurant changes, ordered so a single timer
+ * on the earliest one is enough and only the restaurants it concerns are re-evaluated.
+ * Not thread safe, callers synchronize.
+ */
+public class OpenStatusScheduler {
+    private static final long MILLIS_PER_MINUTE = 60 * 1000;
+
+    private final PriorityQueue<Change> mChanges = new PriorityQueue<>(11,
+            (change1, change2) -> Long.compare(change1.mChangeAt, change2.mChangeAt));
+
+    public void reset(List<Restaurant> restaurants, Calendar now) {
+        mChanges.clear();
+        for (Restaurant restaurant : restaurants) {
+            schedule(restaurant, now);
+        }
+    }
+
+    public void clear() {
+        mChanges.clear();
+    }
+
+    // Long.MAX_VALUE when no label will ever change
+    public long getNextChangeMillis() {
+        Change change = mChanges.peek();
+        return change == null ? Long.MAX_VALUE : change.mChangeAt;
+    }
+
+    // Restaurants whose label changes by now, already scheduled for their following change
+    public List<Restaurant> pollDue(Calendar now) {
+        List<Restaurant> dueRestaurants = new ArrayList<>();
+        while (!mChanges.isEmpty() && mChanges.peek().mChangeAt <= now.getTimeInMillis()) {
+            dueRestaurants.add(mChanges.poll().mRestaurant);
+        }
+        for (Restaurant restaurant : dueRestaurants) {
+            schedule(restaurant, now);
+        }
+        return dueRestaurants;
+    }
+
+    private void schedule(Restaurant restaurant, Calendar now) {
+        int minutes = RestaurantToListViewMapper.getMinutesToOpenStatusChange(restaurant, OpeningSchedule.getMinuteOfWeek(now));
+        if(minutes == NO_OPEN_STATUS_CHANGE) {
+            return;
+        }
+
+        long minuteStart = now.getTimeInMillis() - now.get(Calendar.SECOND) * 1000L - now.get(Calendar.MILLISECOND);
+        mChanges.add(new Change(restaurant, minuteStart + minutes * MILLIS_PER_MINUTE));
+    }
+
+    private static class Change {
+        final Restaurant mRestaurant;
+        final long mChangeAt;
+
+        Change(Restaurant restaurant, long changeAt) {
+            mRestaurant = restaurant;
+            mChangeAt = changeAt;
+        }
+    }
+}
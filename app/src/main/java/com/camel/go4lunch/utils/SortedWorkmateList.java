@@ -0,0 +1,57 @@
+package com.camel.go4lunch.utils;
+
+import com.camel.go4lunch.models.Workmate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Workmates kept in their natural order, ties broken by id like the documents of the collection,
+ * so a changed workmate is moved with a binary search instead of sorting the whole list again.
+ * Not thread safe, callers synchronize.
+ */
+public class SortedWorkmateList {
+    private static final Comparator<Workmate> WORKMATE_COMPARATOR = (workmate1, workmate2) -> {
+        int comparison = workmate1.compareTo(workmate2);
+        return comparison != 0 ? comparison : workmate1.getUId().compareTo(workmate2.getUId());
+    };
+
+    private final ArrayList<Workmate> mSortedWorkmates = new ArrayList<>();
+    private final HashMap<String, Workmate> mWorkmatesById = new HashMap<>();
+
+    public void put(Workmate workmate) {
+        remove(workmate.getUId());
+
+        int index = Collections.binarySearch(mSortedWorkmates, workmate, WORKMATE_COMPARATOR);
+        mSortedWorkmates.add(index < 0 ? -index - 1 : index, workmate);
+        mWorkmatesById.put(workmate.getUId(), workmate);
+    }
+
+    public void remove(String uId) {
+        Workmate workmate = mWorkmatesById.remove(uId);
+        if(workmate != null) {
+            mSortedWorkmates.remove(Collections.binarySearch(mSortedWorkmates, workmate, WORKMATE_COMPARATOR));
+        }
+    }
+
+    public void clear() {
+        mSortedWorkmates.clear();
+        mWorkmatesById.clear();
+    }
+
+    public Workmate get(String uId) {
+        return mWorkmatesById.get(uId);
+    }
+
+    public int size() {
+        return mSortedWorkmates.size();
+    }
+
+    // Copy, so an emitted list is never changed by the next snapshot
+    public List<Workmate> getWorkmates() {
+        return new ArrayList<>(mSortedWorkmates);
+    }
+}
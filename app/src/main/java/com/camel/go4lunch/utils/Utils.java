@@ -1,7 +1,5 @@
 package com.camel.go4lunch.utils;
 
-import com.google.firebase.Timestamp;
-
 import java.util.Calendar;
 import java.util.Date;
 
@@ -22,25 +20,6 @@ public class Utils {
         }
     }
 
-    public static Timestamp getTodayStartTimestamp(){
-        Calendar now = Calendar.getInstance();
-        now.set(Calendar.HOUR_OF_DAY, 0);
-        now.clear(Calendar.MINUTE);
-        now.clear(Calendar.SECOND);
-        now.add(Calendar.SECOND, -1);
-        return new Timestamp(now.getTime());
-    }
-
-    public static Timestamp getTodayEndTimestamp(){
-        Calendar now = Calendar.getInstance();
-        now.set(Calendar.HOUR_OF_DAY, 0);
-        now.clear(Calendar.MINUTE);
-        now.clear(Calendar.SECOND);
-        now.add(Calendar.DAY_OF_MONTH, 1);
-        now.add(Calendar.SECOND, -1);
-        return new Timestamp(now.getTime());
-    }
-
     public static long getMillisToLunchTime(){
         Calendar lunchTime = Calendar.getInstance();
         lunchTime.set(Calendar.HOUR_OF_DAY, 12);
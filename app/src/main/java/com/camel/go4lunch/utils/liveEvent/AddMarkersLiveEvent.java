@@ -1,6 +0,0 @@
-package com.camel.go4lunch.utils.liveEvent;
-
-public class AddMarkersLiveEvent implements LiveEvent {
-    public AddMarkersLiveEvent() {
-    }
-}
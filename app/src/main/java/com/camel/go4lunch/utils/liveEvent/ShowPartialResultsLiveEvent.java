@@ -0,0 +1,13 @@
+package com.camel.go4lunch.utils.liveEvent;
+
+public class ShowPartialResultsLiveEvent implements LiveEvent {
+    private final int mFailedCount;
+
+    public ShowPartialResultsLiveEvent(int failedCount) {
+        mFailedCount = failedCount;
+    }
+
+    public int getFailedCount() {
+        return mFailedCount;
+    }
+}
@@ -30,6 +30,10 @@ import com.camel.go4lunch.repositories.WorkmatesRepository;
 
 import java.util.List;
 
+import dagger.hilt.EntryPoint;
+import dagger.hilt.InstallIn;
+import dagger.hilt.android.EntryPointAccessors;
+import dagger.hilt.components.SingletonComponent;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.schedulers.Schedulers;
 
@@ -46,12 +50,21 @@ public class NotificationWorker extends Worker {
 
     private final Context mContext;
     private Disposable mDisposable;
-    private final WorkmatesRepository mWorkmatesRepository = new WorkmatesRepository();
+    private final WorkmatesRepository mWorkmatesRepository;
 
     public NotificationWorker(@NonNull Context context,
                               @NonNull WorkerParameters workerParams) {
         super(context, workerParams);
         mContext = context;
+        // The app's repository, a second one would also replay the pending choices queue
+        mWorkmatesRepository = EntryPointAccessors.fromApplication(context, NotificationWorkerEntryPoint.class)
+                .workmatesRepository();
+    }
+
+    @EntryPoint
+    @InstallIn(SingletonComponent.class)
+    public interface NotificationWorkerEntryPoint {
+        WorkmatesRepository workmatesRepository();
     }
 
     @NonNull
@@ -0,0 +1,73 @@
+package com.camel.go4lunch.apiTests;
+
+import com.camel.go4lunch.api.FirestoreListenerRegistry;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.ObservableOnSubscribe;
+import io.reactivex.observers.TestObserver;
+
+import static org.junit.Assert.assertEquals;
+
+public class FirestoreListenerRegistryTest {
+
+    @Test
+    public void test_observe_sameKeySharesOneListener() {
+        FirestoreListenerRegistry registry = new FirestoreListenerRegistry();
+        AtomicInteger registrationCount = new AtomicInteger();
+        AtomicInteger removalCount = new AtomicInteger();
+
+        TestObserver<String> observer1 = registry.observe("workmates", generateListenerSource(registrationCount, removalCount)).test();
+        TestObserver<String> observer2 = registry.observe("workmates", generateListenerSource(registrationCount, removalCount)).test();
+
+        assertEquals(1, registrationCount.get());
+        assertEquals(1, registry.getActiveListenerCount());
+        observer1.assertValue("snapshot");
+        observer2.assertValue("snapshot");
+    }
+
+    @Test
+    public void test_observe_listenerRemovedWithLastSubscriber() {
+        FirestoreListenerRegistry registry = new FirestoreListenerRegistry();
+        AtomicInteger registrationCount = new AtomicInteger();
+        AtomicInteger removalCount = new AtomicInteger();
+
+        TestObserver<String> observer1 = registry.observe("workmates", generateListenerSource(registrationCount, removalCount)).test();
+        TestObserver<String> observer2 = registry.observe("workmates", generateListenerSource(registrationCount, removalCount)).test();
+
+        observer1.dispose();
+        assertEquals(0, removalCount.get());
+
+        observer2.dispose();
+        assertEquals(1, removalCount.get());
+        assertEquals(0, registry.getActiveListenerCount());
+        assertEquals(0, registry.getSharedListenerCount());
+
+        registry.observe("workmates", generateListenerSource(registrationCount, removalCount)).test();
+        assertEquals(2, registrationCount.get());
+    }
+
+    @Test
+    public void test_observe_differentKeysHaveTheirOwnListener() {
+        FirestoreListenerRegistry registry = new FirestoreListenerRegistry();
+        AtomicInteger registrationCount = new AtomicInteger();
+        AtomicInteger removalCount = new AtomicInteger();
+
+        registry.observe("workmate/Db5e374sClwjEbqoF8ZAsyAtH0", generateListenerSource(registrationCount, removalCount)).test();
+        registry.observe("workmates", generateListenerSource(registrationCount, removalCount)).test();
+
+        assertEquals(2, registrationCount.get());
+        assertEquals(2, registry.getActiveListenerCount());
+    }
+
+    // Stands for a snapshot listener, emitting one snapshot once registered
+    private ObservableOnSubscribe<String> generateListenerSource(AtomicInteger registrationCount, AtomicInteger removalCount) {
+        return emitter -> {
+            registrationCount.incrementAndGet();
+            emitter.setCancellable(removalCount::incrementAndGet);
+            emitter.onNext("snapshot");
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package com.camel.go4lunch.apiTests;
+
+import com.camel.go4lunch.api.LunchHelper;
+import com.camel.go4lunch.models.DailyLunch;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LunchHelperTest {
+
+    @Test
+    public void test_getDayId_checkFormat() {
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone(LunchHelper.OFFICE_TIME_ZONE_ID));
+        calendar.set(2021, Calendar.MARCH, 5, 12, 0);
+
+        assertEquals("2021-03-05", LunchHelper.getDayId(calendar.getTime()));
+    }
+
+    @Test
+    public void test_getDayId_usesOfficeTimeZone() {
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("America/New_York"));
+        calendar.set(2021, Calendar.MARCH, 5, 20, 0);
+
+        assertEquals("2021-03-06", LunchHelper.getDayId(calendar.getTime()));
+    }
+
+    @Test
+    public void test_addWorkmate_movesPreviousChoice() {
+        DailyLunch dailyLunch = new DailyLunch();
+        dailyLunch.addWorkmate("ChIJH274sClwjEcRniBZAsyAtH0", "Db5e374sClwjEbqoF8ZAsyAtH0");
+        dailyLunch.addWorkmate("ChIJH274sClwjEcRniBZAsyAtH0", "Fg7h374sClwjEbqoF8ZAsyBtK1");
+
+        dailyLunch.addWorkmate("ChIJmZKgsilwjEcRKVdZd_cE-4k", "Db5e374sClwjEbqoF8ZAsyAtH0");
+
+        assertEquals(1, dailyLunch.getWorkmateCount("ChIJH274sClwjEcRniBZAsyAtH0"));
+        assertEquals(Arrays.asList("Db5e374sClwjEbqoF8ZAsyAtH0"), dailyLunch.getWorkmateIds("ChIJmZKgsilwjEcRKVdZd_cE-4k"));
+    }
+
+    @Test
+    public void test_removeWorkmate_dropsEmptyRestaurant() {
+        DailyLunch dailyLunch = new DailyLunch();
+        dailyLunch.addWorkmate("ChIJH274sClwjEcRniBZAsyAtH0", "Db5e374sClwjEbqoF8ZAsyAtH0");
+
+        dailyLunch.removeWorkmate("Db5e374sClwjEbqoF8ZAsyAtH0");
+
+        assertEquals(0, dailyLunch.getWorkmateCount("ChIJH274sClwjEcRniBZAsyAtH0"));
+        assertTrue(dailyLunch.getWorkmateIdsByRestaurant().isEmpty());
+    }
+
+    @Test
+    public void test_toDailyLunch_readsWorkmateIdsOfEachRestaurant() {
+        Map<String, Object> restaurant = new HashMap<>();
+        restaurant.put(LunchHelper.FIELD_WORKMATE_IDS, Arrays.asList("Db5e374sClwjEbqoF8ZAsyAtH0", "Fg7h374sClwjEbqoF8ZAsyBtK1"));
+        Map<String, Object> restaurants = new HashMap<>();
+        restaurants.put("ChIJH274sClwjEcRniBZAsyAtH0", restaurant);
+        restaurants.put("ChIJmZKgsilwjEcRKVdZd_cE-4k", Collections.singletonMap(LunchHelper.FIELD_WORKMATE_IDS, Collections.emptyList()));
+        Map<String, Object> data = new HashMap<>();
+        data.put(LunchHelper.FIELD_RESTAURANTS, restaurants);
+
+        DailyLunch dailyLunch = LunchHelper.toDailyLunch(data);
+
+        List<String> workmateIds = dailyLunch.getWorkmateIds("ChIJH274sClwjEcRniBZAsyAtH0");
+        assertEquals(Arrays.asList("Db5e374sClwjEbqoF8ZAsyAtH0", "Fg7h374sClwjEbqoF8ZAsyBtK1"), workmateIds);
+        assertEquals(0, dailyLunch.getWorkmateCount("ChIJmZKgsilwjEcRKVdZd_cE-4k"));
+    }
+
+    @Test
+    public void test_getNextDayStart_isMidnightInOfficeTimeZone() {
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone(LunchHelper.OFFICE_TIME_ZONE_ID));
+        calendar.clear();
+        calendar.set(2021, Calendar.MARCH, 6, 0, 0, 0);
+
+        assertEquals(calendar.getTime(), LunchHelper.getNextDayStart("2021-03-05"));
+        assertEquals("2021-03-05", LunchHelper.getDayId(LunchHelper.getDayStart("2021-03-05")));
+    }
+
+    @Test
+    public void test_toDailyLunch_missingDocumentIsEmpty() {
+        assertTrue(LunchHelper.toDailyLunch(null).getWorkmateIdsByRestaurant().isEmpty());
+    }
+}
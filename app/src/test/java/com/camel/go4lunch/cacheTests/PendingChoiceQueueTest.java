@@ -0,0 +1,129 @@
+package com.camel.go4lunch.cacheTests;
+
+import com.camel.go4lunch.cache.PendingChoiceQueue;
+import com.camel.go4lunch.models.PendingChoice;
+import com.camel.go4lunch.models.Workmate;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class PendingChoiceQueueTest {
+    private static final String DAY_ID = "2021-11-16";
+
+    @Rule
+    public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void test_offer_survivesNewInstance() {
+        File file = new File(mTemporaryFolder.getRoot(), "pending_choices.json");
+        new PendingChoiceQueue(file, Runnable::run).offer(new PendingChoice("workmate1", "ChIJH274sClwjEcRniBZAsyAtH0", "Le viand'art", 1000, DAY_ID));
+
+        PendingChoiceQueue queue = new PendingChoiceQueue(file, Runnable::run);
+        assertEquals(1, queue.size());
+        assertEquals("Le viand'art", queue.peek().getRestaurantName());
+        assertEquals(1000, queue.peek().getChosenAt());
+        assertEquals(DAY_ID, queue.peek().getDayId());
+    }
+
+    @Test
+    public void test_offer_replacesQueuedChoicesOfSameWorkmate() {
+        PendingChoiceQueue queue = new PendingChoiceQueue(new File(mTemporaryFolder.getRoot(), "pending_choices.json"), Runnable::run);
+        PendingChoice first = new PendingChoice("workmate1", "ChIJH274sClwjEcRniBZAsyAtH0", "Le viand'art", 1000, DAY_ID);
+
+        queue.offer(first);
+        queue.offer(new PendingChoice("workmate2", "ChIJmZKgsilwjEcRKVdZd_cE-4k", "Mizuki", 2000, DAY_ID));
+        queue.offer(new PendingChoice("workmate1", "ChIJmZKgsilwjEcRKVdZd_cE-4k", "Mizuki", 3000, DAY_ID));
+        queue.offer(PendingChoice.removal("workmate1", 4000, DAY_ID));
+
+        // The head may already be in flight, it stays
+        assertEquals(3, queue.size());
+        assertEquals(first.getId(), queue.peek().getId());
+        assertEquals(4000, queue.getLatest("workmate1").getChosenAt());
+        assertEquals("Mizuki", queue.getLatest("workmate2").getRestaurantName());
+    }
+
+    @Test
+    public void test_remove_persisted() {
+        File file = new File(mTemporaryFolder.getRoot(), "pending_choices.json");
+        PendingChoiceQueue queue = new PendingChoiceQueue(file, Runnable::run);
+        PendingChoice choice = new PendingChoice("workmate1", "ChIJH274sClwjEcRniBZAsyAtH0", "Le viand'art", 1000, DAY_ID);
+        queue.offer(choice);
+
+        queue.remove(choice);
+
+        assertNull(queue.peek());
+        assertNull(new PendingChoiceQueue(file, Runnable::run).getLatest("workmate1"));
+    }
+
+    @Test
+    public void test_offer_writtenOnExecutorAndMerged() {
+        File file = new File(mTemporaryFolder.getRoot(), "pending_choices.json");
+        List<Runnable> tasks = new ArrayList<>();
+        PendingChoiceQueue queue = new PendingChoiceQueue(file, tasks::add);
+        tasks.remove(0).run();                                          // Reads the missing file
+
+        queue.offer(new PendingChoice("workmate1", "ChIJH274sClwjEcRniBZAsyAtH0", "Le viand'art", 1000, DAY_ID));
+        queue.offer(new PendingChoice("workmate2", "ChIJmZKgsilwjEcRKVdZd_cE-4k", "Mizuki", 2000, DAY_ID));
+        assertEquals(2, tasks.size());
+        assertEquals(1000, queue.getLatest("workmate1").getChosenAt());    // Offered, not queued yet
+
+        tasks.remove(0).run();
+        tasks.remove(0).run();
+        assertFalse(file.exists());
+        assertEquals(1, tasks.size());
+
+        tasks.remove(0).run();
+        assertEquals(2, new PendingChoiceQueue(file, Runnable::run).size());
+    }
+
+    @Test
+    public void test_offer_neverWaitsForRead() {
+        File file = new File(mTemporaryFolder.getRoot(), "pending_choices.json");
+        List<Runnable> tasks = new ArrayList<>();
+        PendingChoiceQueue queue = new PendingChoiceQueue(file, tasks::add);
+        List<String> queued = new ArrayList<>();
+
+        queue.offer(new PendingChoice("workmate1", "ChIJH274sClwjEcRniBZAsyAtH0", "Le viand'art", 1000, DAY_ID),
+                () -> queued.add("workmate1"));
+        assertEquals(0, queued.size());
+
+        tasks.remove(0).run();                                          // Reads the missing file
+        tasks.remove(0).run();
+        assertEquals(1, queued.size());
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    public void test_read_givenCorruptedFile() throws Exception {
+        File file = mTemporaryFolder.newFile("pending_choices.json");
+        Files.write(file.toPath(), "{not a list".getBytes());
+
+        assertEquals(0, new PendingChoiceQueue(file, Runnable::run).size());
+    }
+
+    @Test
+    public void test_applyTo_choiceThenRemoval() {
+        Workmate workmate = new Workmate("workmate1", "John Doe", "John", null, null);
+
+        new PendingChoice("workmate1", "ChIJH274sClwjEcRniBZAsyAtH0", "Le viand'art", 1000, DAY_ID).applyTo(workmate);
+        assertEquals("ChIJH274sClwjEcRniBZAsyAtH0", workmate.getChosenRestaurantId());
+        assertEquals("Le viand'art", workmate.getChosenRestaurantName());
+        assertEquals(1000, workmate.getChosenRestaurantDate().getTime());
+        assertEquals(DAY_ID, workmate.getChosenDay());
+
+        PendingChoice.removal("workmate1", 2000, DAY_ID).applyTo(workmate);
+        assertEquals("", workmate.getChosenRestaurantId());
+        assertEquals("", workmate.getChosenRestaurantName());
+        assertEquals("", workmate.getChosenDay());
+    }
+}
@@ -0,0 +1,70 @@
+package com.camel.go4lunch.cacheTests;
+
+import com.camel.go4lunch.cache.PlaceDetailsCache;
+import com.camel.go4lunch.models.googlePlaceDetailsResult.PlaceDetails;
+import com.camel.go4lunch.models.googlePlaceDetailsResult.PlaceDetailsResults;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class PlaceDetailsCacheTest {
+
+    @Rule
+    public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void test_putThenGet_checkPlaceName() {
+        PlaceDetailsCache cache = new PlaceDetailsCache(mTemporaryFolder.getRoot(), TimeUnit.DAYS.toMillis(1), 1024 * 1024);
+
+        cache.put("ChIJH274sClwjEcRniBZAsyAtH0", generatePlaceDetailsResults("Le viand'art"));
+
+        PlaceDetailsResults results = cache.get("ChIJH274sClwjEcRniBZAsyAtH0");
+        assertNotNull(results);
+        assertEquals("Le viand'art", results.getPlaceDetails().getName());
+    }
+
+    @Test
+    public void test_get_givenUnknownPlaceId() {
+        PlaceDetailsCache cache = new PlaceDetailsCache(mTemporaryFolder.getRoot(), TimeUnit.DAYS.toMillis(1), 1024 * 1024);
+
+        assertNull(cache.get("ChIJmZKgsilwjEcRKVdZd_cE-4k"));
+    }
+
+    @Test
+    public void test_get_givenExpiredEntry() throws InterruptedException {
+        PlaceDetailsCache cache = new PlaceDetailsCache(mTemporaryFolder.getRoot(), 0, 1024 * 1024);
+
+        cache.put("ChIJH274sClwjEcRniBZAsyAtH0", generatePlaceDetailsResults("Le viand'art"));
+        Thread.sleep(5);
+
+        assertNull(cache.get("ChIJH274sClwjEcRniBZAsyAtH0"));
+    }
+
+    @Test
+    public void test_put_givenSizeBudgetExceeded_checkOldestEntryEvicted() {
+        PlaceDetailsCache cache = new PlaceDetailsCache(mTemporaryFolder.getRoot(), TimeUnit.DAYS.toMillis(1), 150);
+
+        cache.put("ChIJH274sClwjEcRniBZAsyAtH0", generatePlaceDetailsResults("Le viand'art"));
+        mTemporaryFolder.getRoot().listFiles()[0].setLastModified(0);
+        cache.put("ChIJmZKgsilwjEcRKVdZd_cE-4k", generatePlaceDetailsResults("Mizuki"));
+
+        assertNull(cache.get("ChIJH274sClwjEcRniBZAsyAtH0"));
+        assertNotNull(cache.get("ChIJmZKgsilwjEcRKVdZd_cE-4k"));
+    }
+
+    private PlaceDetailsResults generatePlaceDetailsResults(String name) {
+        PlaceDetails placeDetails = new PlaceDetails();
+        placeDetails.setName(name);
+
+        PlaceDetailsResults results = new PlaceDetailsResults();
+        results.setPlaceDetails(placeDetails);
+        return results;
+    }
+}
@@ -0,0 +1,94 @@
+package com.camel.go4lunch.mappersTests;
+
+import com.camel.go4lunch.api.LunchHelper;
+import com.camel.go4lunch.mappers.FirestoreDataToWorkmateMapper;
+import com.camel.go4lunch.mappers.WorkmateToFirestoreDataMapper;
+import com.camel.go4lunch.models.Workmate;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.util.CustomClassMapper;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.camel.go4lunch.api.WorkmateHelper.FIELD_CHOSEN_RESTAURANT_DATE;
+import static com.camel.go4lunch.api.WorkmateHelper.FIELD_UID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class FirestoreDataToWorkmateMapperTest {
+
+    @Test
+    public void test_sameWorkmateAsReflectionMapper(){
+        Map<String, Object> data = generateWorkmateData();
+
+        Workmate workmate = new FirestoreDataToWorkmateMapper().apply(data);
+        Workmate reflectionWorkmate = CustomClassMapper.convertToCustomClass(data, Workmate.class, null);
+
+        assertWorkmatesEquals(reflectionWorkmate, workmate);
+    }
+
+    @Test
+    public void test_missingFieldsKeepDefaults(){
+        Map<String, Object> data = new HashMap<>();
+        data.put(FIELD_UID, "Db5e374sClwjEbqoF8ZAsyAtH0");
+
+        Workmate workmate = new FirestoreDataToWorkmateMapper().apply(data);
+
+        assertEquals("Db5e374sClwjEbqoF8ZAsyAtH0", workmate.getUId());
+        assertEquals("", workmate.getChosenRestaurantId());
+        assertEquals("", workmate.getChosenRestaurantName());
+        assertNull(workmate.getChosenRestaurantDate());
+        assertNull(workmate.getChosenDay());
+        assertEquals(0, workmate.getLikedRestaurants().size());
+    }
+
+    @Test
+    public void test_roundTripThroughFirestoreData(){
+        Workmate workmate = new FirestoreDataToWorkmateMapper().apply(generateWorkmateData());
+
+        Map<String, Object> data = new WorkmateToFirestoreDataMapper().apply(workmate);
+        Workmate mappedWorkmate = new FirestoreDataToWorkmateMapper().apply(data);
+
+        assertWorkmatesEquals(workmate, mappedWorkmate);
+        assertEquals(CustomClassMapper.convertToPlainJavaTypes(workmate), data);
+    }
+
+    // ---------------
+    // Generate data
+    // ---------------
+
+    static Map<String, Object> generateWorkmateData(){
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(Calendar.HOUR_OF_DAY, 11);
+
+        Map<String, Object> data = new HashMap<>();
+        data.put(FIELD_UID, "Db5e374sClwjEbqoF8ZAsyAtH0");
+        data.put("fullName", "John Doe");
+        data.put("nickname", "John");
+        data.put("email", "john.doe@gmail.com");
+        data.put("pictureUrl", "https://upload.wikimedia.org/wikipedia/commons/thumb/5/5a/John_Doe%2C_born_John_Nommensen_Duchac.jpg/260px-John_Doe%2C_born_John_Nommensen_Duchac.jpg");
+        data.put("chosenRestaurantId", "ChIJH274sClwjEcRniBZAsyAtH0");
+        data.put("chosenRestaurantName", "Le viand'art");
+        data.put(FIELD_CHOSEN_RESTAURANT_DATE, new Timestamp(calendar.getTime()));
+        data.put("chosenDay", LunchHelper.getDayId(calendar.getTime()));
+        data.put("likedRestaurants", Arrays.asList("ChIJH274sClwjEcRniBZAsyAtH0", "ChIJmZKgsilwjEcRKVdZd_cE-4k"));
+        return data;
+    }
+
+    private void assertWorkmatesEquals(Workmate expected, Workmate actual){
+        assertEquals(expected.getUId(), actual.getUId());
+        assertEquals(expected.getFullName(), actual.getFullName());
+        assertEquals(expected.getNickname(), actual.getNickname());
+        assertEquals(expected.getEmail(), actual.getEmail());
+        assertEquals(expected.getPictureUrl(), actual.getPictureUrl());
+        assertEquals(expected.getChosenRestaurantId(), actual.getChosenRestaurantId());
+        assertEquals(expected.getChosenRestaurantName(), actual.getChosenRestaurantName());
+        assertEquals(expected.getChosenRestaurantDate(), actual.getChosenRestaurantDate());
+        assertEquals(expected.getChosenDay(), actual.getChosenDay());
+        assertEquals(expected.getLikedRestaurants(), actual.getLikedRestaurants());
+    }
+}
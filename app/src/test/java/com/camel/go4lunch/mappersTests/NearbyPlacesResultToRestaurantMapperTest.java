@@ -1,7 +1,10 @@
 package com.camel.go4lunch.mappersTests;
 
+import android.view.View;
+
 import com.camel.go4lunch.mappers.NearbyPlacesResultToRestaurantMapper;
 import com.camel.go4lunch.models.Restaurant;
+import com.camel.go4lunch.models.googlePlaceResult.OpeningHours;
 import com.camel.go4lunch.models.googlePlaceResult.PlaceSearch;
 import com.camel.go4lunch.models.googlePlaceResult.PlaceSearchResults;
 
@@ -13,6 +16,8 @@ import java.util.List;
 import static com.camel.go4lunch.mappers.NearbyPlacesResultToRestaurantMapper.OPERATIONAL_BUSINESS_STATUS;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class NearbyPlacesResultToRestaurantMapperTest {
 
@@ -25,6 +30,25 @@ public class NearbyPlacesResultToRestaurantMapperTest {
         assertEquals(2, restaurantList.size());
     }
 
+    @Test
+    public void test_checkLightweightRestaurantData(){
+        PlaceSearchResults placeSearchResults = generateNearbySearchWith2GoodsPlacesAnd2Wrong();
+        PlaceSearch placeSearch = placeSearchResults.getPlaceSearches().get(0);
+        placeSearch.setVicinity("56 Rue de Genève, Ambilly");
+        placeSearch.setRating(4.2);
+        placeSearch.setOpeningHours(new OpeningHours());
+        placeSearch.getOpeningHours().setOpenNow(true);
+        NearbyPlacesResultToRestaurantMapper mapper = new NearbyPlacesResultToRestaurantMapper();
+
+        Restaurant restaurant = mapper.apply(placeSearchResults).get(0);
+        assertEquals("Le viand'art", restaurant.getName());
+        assertEquals("56 Rue de Genève, Ambilly", restaurant.getAddress());
+        assertEquals(4.2f, restaurant.getRating(), 0.01f);
+        assertEquals(View.VISIBLE, restaurant.getStar3IvVisibility());
+        assertTrue(restaurant.getOpenNow());
+        assertFalse(restaurant.isDetailsLoaded());
+    }
+
     // ---------------
     // Generate data
     // ---------------
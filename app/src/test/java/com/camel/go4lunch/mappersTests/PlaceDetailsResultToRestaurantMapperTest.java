@@ -22,8 +22,10 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
 
+import static com.camel.go4lunch.models.OpeningSchedule.getMinuteOfWeek;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 
 public class PlaceDetailsResultToRestaurantMapperTest {
@@ -31,7 +33,7 @@ public class PlaceDetailsResultToRestaurantMapperTest {
     @Test
     public void test_basicValuesMappedCorrectly(){
         PlaceDetailsResults placeDetailsResults = generatePlaceDetailsResultsForFirstPlace();
-        Restaurant restaurant = new Restaurant(placeDetailsResults.getPlaceDetails().getPlaceId());
+        Restaurant restaurant = new Restaurant.Builder(placeDetailsResults.getPlaceDetails().getPlaceId()).build();
         PlaceDetailsResultToRestaurantMapper mapper = new PlaceDetailsResultToRestaurantMapper(restaurant);
 
         restaurant = mapper.apply(placeDetailsResults);
@@ -43,7 +45,7 @@ public class PlaceDetailsResultToRestaurantMapperTest {
     @Test
     public void test_address_givenAddressComponents(){
         PlaceDetailsResults placeDetailsResults = generatePlaceDetailsWithAddressComponent();
-        Restaurant restaurant = new Restaurant(placeDetailsResults.getPlaceDetails().getPlaceId());
+        Restaurant restaurant = new Restaurant.Builder(placeDetailsResults.getPlaceDetails().getPlaceId()).build();
         PlaceDetailsResultToRestaurantMapper mapper = new PlaceDetailsResultToRestaurantMapper(restaurant);
         String expectedAddress = "62Bis, Rue des Rosiers";
 
@@ -54,7 +56,7 @@ public class PlaceDetailsResultToRestaurantMapperTest {
     @Test
     public void test_address_givenRouteAddressComponents(){
         PlaceDetailsResults placeDetailsResults = generatePlaceDetailsWithRouteAddressComponent();
-        Restaurant restaurant = new Restaurant(placeDetailsResults.getPlaceDetails().getPlaceId());
+        Restaurant restaurant = new Restaurant.Builder(placeDetailsResults.getPlaceDetails().getPlaceId()).build();
         PlaceDetailsResultToRestaurantMapper mapper = new PlaceDetailsResultToRestaurantMapper(restaurant);
         String expectedAddress = "Rue des Rosiers";
 
@@ -65,7 +67,7 @@ public class PlaceDetailsResultToRestaurantMapperTest {
     @Test
     public void test_address_givenVicinity(){
         PlaceDetailsResults placeDetailsResults = generatePlaceDetailsWithVicinity();
-        Restaurant restaurant = new Restaurant(placeDetailsResults.getPlaceDetails().getPlaceId());
+        Restaurant restaurant = new Restaurant.Builder(placeDetailsResults.getPlaceDetails().getPlaceId()).build();
         PlaceDetailsResultToRestaurantMapper mapper = new PlaceDetailsResultToRestaurantMapper(restaurant);
         String expectedAddress = "62Bis, Rue des Rosiers";
 
@@ -76,7 +78,7 @@ public class PlaceDetailsResultToRestaurantMapperTest {
     @Test
     public void test_photoUrl_givenPhotoRef(){
         PlaceDetailsResults placeDetailsResults = generatePlaceDetailsWithPhotoRef();
-        Restaurant restaurant = new Restaurant(placeDetailsResults.getPlaceDetails().getPlaceId());
+        Restaurant restaurant = new Restaurant.Builder(placeDetailsResults.getPlaceDetails().getPlaceId()).build();
         PlaceDetailsResultToRestaurantMapper mapper = new PlaceDetailsResultToRestaurantMapper(restaurant);
 
         restaurant = mapper.apply(placeDetailsResults);
@@ -86,7 +88,7 @@ public class PlaceDetailsResultToRestaurantMapperTest {
     @Test
     public void test_photoUrl_givenNoPhotoRef(){
         PlaceDetailsResults placeDetailsResults = generatePlaceDetailsWithNoPhotoRef();
-        Restaurant restaurant = new Restaurant(placeDetailsResults.getPlaceDetails().getPlaceId());
+        Restaurant restaurant = new Restaurant.Builder(placeDetailsResults.getPlaceDetails().getPlaceId()).build();
         PlaceDetailsResultToRestaurantMapper mapper = new PlaceDetailsResultToRestaurantMapper(restaurant);
 
         restaurant = mapper.apply(placeDetailsResults);
@@ -96,7 +98,7 @@ public class PlaceDetailsResultToRestaurantMapperTest {
     @Test
     public void test_rating_given1(){
         PlaceDetailsResults placeDetailsResults = generatePlaceDetailsWithRating(1);
-        Restaurant restaurant = new Restaurant(placeDetailsResults.getPlaceDetails().getPlaceId());
+        Restaurant restaurant = new Restaurant.Builder(placeDetailsResults.getPlaceDetails().getPlaceId()).build();
         PlaceDetailsResultToRestaurantMapper mapper = new PlaceDetailsResultToRestaurantMapper(restaurant);
 
         restaurant = mapper.apply(placeDetailsResults);
@@ -108,7 +110,7 @@ public class PlaceDetailsResultToRestaurantMapperTest {
     @Test
     public void test_rating_given2(){
         PlaceDetailsResults placeDetailsResults = generatePlaceDetailsWithRating(2);
-        Restaurant restaurant = new Restaurant(placeDetailsResults.getPlaceDetails().getPlaceId());
+        Restaurant restaurant = new Restaurant.Builder(placeDetailsResults.getPlaceDetails().getPlaceId()).build();
         PlaceDetailsResultToRestaurantMapper mapper = new PlaceDetailsResultToRestaurantMapper(restaurant);
 
         restaurant = mapper.apply(placeDetailsResults);
@@ -120,7 +122,7 @@ public class PlaceDetailsResultToRestaurantMapperTest {
     @Test
     public void test_rating_given3(){
         PlaceDetailsResults placeDetailsResults = generatePlaceDetailsWithRating(3);
-        Restaurant restaurant = new Restaurant(placeDetailsResults.getPlaceDetails().getPlaceId());
+        Restaurant restaurant = new Restaurant.Builder(placeDetailsResults.getPlaceDetails().getPlaceId()).build();
         PlaceDetailsResultToRestaurantMapper mapper = new PlaceDetailsResultToRestaurantMapper(restaurant);
 
         restaurant = mapper.apply(placeDetailsResults);
@@ -132,7 +134,7 @@ public class PlaceDetailsResultToRestaurantMapperTest {
     @Test
     public void test_rating_given4(){
         PlaceDetailsResults placeDetailsResults = generatePlaceDetailsWithRating(4);
-        Restaurant restaurant = new Restaurant(placeDetailsResults.getPlaceDetails().getPlaceId());
+        Restaurant restaurant = new Restaurant.Builder(placeDetailsResults.getPlaceDetails().getPlaceId()).build();
         PlaceDetailsResultToRestaurantMapper mapper = new PlaceDetailsResultToRestaurantMapper(restaurant);
 
         restaurant = mapper.apply(placeDetailsResults);
@@ -144,7 +146,7 @@ public class PlaceDetailsResultToRestaurantMapperTest {
     @Test
     public void test_rating_given5(){
         PlaceDetailsResults placeDetailsResults = generatePlaceDetailsWithRating(5);
-        Restaurant restaurant = new Restaurant(placeDetailsResults.getPlaceDetails().getPlaceId());
+        Restaurant restaurant = new Restaurant.Builder(placeDetailsResults.getPlaceDetails().getPlaceId()).build();
         PlaceDetailsResultToRestaurantMapper mapper = new PlaceDetailsResultToRestaurantMapper(restaurant);
 
         restaurant = mapper.apply(placeDetailsResults);
@@ -156,7 +158,7 @@ public class PlaceDetailsResultToRestaurantMapperTest {
     @Test
     public void test_OpeningData_givenOneOpeningPeriodByDay() {
         PlaceDetailsResults placeDetailsResults = generatePlaceDetailsWithOneOpeningPeriodByDay();
-        Restaurant restaurant = new Restaurant(placeDetailsResults.getPlaceDetails().getPlaceId());
+        Restaurant restaurant = new Restaurant.Builder(placeDetailsResults.getPlaceDetails().getPlaceId()).build();
         PlaceDetailsResultToRestaurantMapper mapper = new PlaceDetailsResultToRestaurantMapper(restaurant);
 
         restaurant = mapper.apply(placeDetailsResults);
@@ -177,10 +179,36 @@ public class PlaceDetailsResultToRestaurantMapperTest {
         }
     }
 
+    @Test
+    public void test_apply_leavesPendingRestaurantUntouched() {
+        PlaceDetailsResults placeDetailsResults = generatePlaceDetailsWithOneOpeningPeriodByDay();
+        Restaurant pendingRestaurant = new Restaurant.Builder(placeDetailsResults.getPlaceDetails().getPlaceId())
+                .setOpenNow(true)
+                .build();
+
+        Restaurant restaurant = new PlaceDetailsResultToRestaurantMapper(pendingRestaurant).apply(placeDetailsResults);
+
+        assertNotSame(pendingRestaurant, restaurant);
+        assertFalse(pendingRestaurant.isDetailsLoaded());
+        assertTrue(pendingRestaurant.getOpeningPeriods().isEmpty());
+        assertTrue(restaurant.isDetailsLoaded());
+        assertTrue(restaurant.getOpenNow());
+        assertTrue(restaurant.getOpeningSchedule().isOpen(getMinuteOfWeek(Calendar.SUNDAY, 12, 0)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_openingPeriods_cannotBeModified() {
+        PlaceDetailsResults placeDetailsResults = generatePlaceDetailsWithOneOpeningPeriodByDay();
+        Restaurant restaurant = new PlaceDetailsResultToRestaurantMapper(
+                new Restaurant.Builder(placeDetailsResults.getPlaceDetails().getPlaceId()).build()).apply(placeDetailsResults);
+
+        restaurant.getOpeningPeriods().add(new OpenPeriod(1, 10, 0, 1, 12, 0));
+    }
+
     @Test
     public void test_OpeningData_givenTwoOpeningPeriodByDayExceptSunday() {
         PlaceDetailsResults placeDetailsResults = generatePlaceDetailsWithTwoOpeningPeriodByDayExceptSunday();
-        Restaurant restaurant = new Restaurant(placeDetailsResults.getPlaceDetails().getPlaceId());
+        Restaurant restaurant = new Restaurant.Builder(placeDetailsResults.getPlaceDetails().getPlaceId()).build();
         PlaceDetailsResultToRestaurantMapper mapper = new PlaceDetailsResultToRestaurantMapper(restaurant);
 
         restaurant = mapper.apply(placeDetailsResults);
@@ -205,7 +233,7 @@ public class PlaceDetailsResultToRestaurantMapperTest {
     @Test
     public void test_OpeningData_givenCloseAtMidnight() {
         PlaceDetailsResults placeDetailsResults = generatePlaceDetailsWithOpeningPeriodCloseAtMidnight();
-        Restaurant restaurant = new Restaurant(placeDetailsResults.getPlaceDetails().getPlaceId());
+        Restaurant restaurant = new Restaurant.Builder(placeDetailsResults.getPlaceDetails().getPlaceId()).build();
         PlaceDetailsResultToRestaurantMapper mapper = new PlaceDetailsResultToRestaurantMapper(restaurant);
 
         restaurant = mapper.apply(placeDetailsResults);
@@ -225,7 +253,7 @@ public class PlaceDetailsResultToRestaurantMapperTest {
     @Test
     public void test_OpeningData_givenCloseAfterMidnight() {
         PlaceDetailsResults placeDetailsResults = generatePlaceDetailsWithOpeningPeriodCloseAfterMidnight();
-        Restaurant restaurant = new Restaurant(placeDetailsResults.getPlaceDetails().getPlaceId());
+        Restaurant restaurant = new Restaurant.Builder(placeDetailsResults.getPlaceDetails().getPlaceId()).build();
         PlaceDetailsResultToRestaurantMapper mapper = new PlaceDetailsResultToRestaurantMapper(restaurant);
 
         restaurant = mapper.apply(placeDetailsResults);
@@ -245,7 +273,7 @@ public class PlaceDetailsResultToRestaurantMapperTest {
     @Test
     public void test_OpeningData_givenNoHours() {
         PlaceDetailsResults placeDetailsResults = generatePlaceDetailsWithNoHours();
-        Restaurant restaurant = new Restaurant(placeDetailsResults.getPlaceDetails().getPlaceId());
+        Restaurant restaurant = new Restaurant.Builder(placeDetailsResults.getPlaceDetails().getPlaceId()).build();
         PlaceDetailsResultToRestaurantMapper mapper = new PlaceDetailsResultToRestaurantMapper(restaurant);
 
         restaurant = mapper.apply(placeDetailsResults);
@@ -255,7 +283,7 @@ public class PlaceDetailsResultToRestaurantMapperTest {
     @Test
     public void test_OpeningData_givenAlwaysOpen() {
         PlaceDetailsResults placeDetailsResults = generatePlaceDetailsAlwaysOpen();
-        Restaurant restaurant = new Restaurant(placeDetailsResults.getPlaceDetails().getPlaceId());
+        Restaurant restaurant = new Restaurant.Builder(placeDetailsResults.getPlaceDetails().getPlaceId()).build();
         PlaceDetailsResultToRestaurantMapper mapper = new PlaceDetailsResultToRestaurantMapper(restaurant);
 
         restaurant = mapper.apply(placeDetailsResults);
@@ -265,7 +293,7 @@ public class PlaceDetailsResultToRestaurantMapperTest {
     @Test
     public void test_WebSiteAndPhone_givenWebSiteAndPhone() {
         PlaceDetailsResults placeDetailsResults = generatePlaceDetailsWithWebSiteAndPhone();
-        Restaurant restaurant = new Restaurant(placeDetailsResults.getPlaceDetails().getPlaceId());
+        Restaurant restaurant = new Restaurant.Builder(placeDetailsResults.getPlaceDetails().getPlaceId()).build();
         PlaceDetailsResultToRestaurantMapper mapper = new PlaceDetailsResultToRestaurantMapper(restaurant);
 
         restaurant = mapper.apply(placeDetailsResults);
@@ -276,7 +304,7 @@ public class PlaceDetailsResultToRestaurantMapperTest {
     @Test
     public void test_WebSiteAndPhone_givenNoWebSiteAndPhone() {
         PlaceDetailsResults placeDetailsResults = generatePlaceDetailsWithNoWebSiteAndPhone();
-        Restaurant restaurant = new Restaurant(placeDetailsResults.getPlaceDetails().getPlaceId());
+        Restaurant restaurant = new Restaurant.Builder(placeDetailsResults.getPlaceDetails().getPlaceId()).build();
         PlaceDetailsResultToRestaurantMapper mapper = new PlaceDetailsResultToRestaurantMapper(restaurant);
 
         restaurant = mapper.apply(placeDetailsResults);
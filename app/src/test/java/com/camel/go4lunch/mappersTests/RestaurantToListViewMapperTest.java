@@ -7,42 +7,91 @@ import com.camel.go4lunch.R;
 import com.camel.go4lunch.mappers.RestaurantToListViewMapper;
 import com.camel.go4lunch.models.OpenPeriod;
 import com.camel.go4lunch.models.Restaurant;
+import com.camel.go4lunch.models.RestaurantListViewState;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 public class RestaurantToListViewMapperTest {
 
     @Test
     public void test_calculateDistanceFromUser_givenLocation() {
-        Restaurant restaurant = new Restaurant("ChIJH274sClwjEcRniBZAsyAtH0");
-        restaurant.setLocation(new Location(""));
+        Restaurant restaurant = new Restaurant.Builder("ChIJH274sClwjEcRniBZAsyAtH0")
+                .setLocation(0, 0)
+                .build();
         HashMap<String, Restaurant> restaurantHashMap = new HashMap<>();
         restaurantHashMap.put(restaurant.getUId(), restaurant);
 
         RestaurantToListViewMapper mapper = new RestaurantToListViewMapper(new Location(""), R.string.unit_meter_short, Calendar.getInstance());
-        List<Restaurant> restaurantList = mapper.apply(restaurantHashMap);
+        List<RestaurantListViewState> restaurantList = mapper.apply(restaurantHashMap);
 
         assertEquals(restaurantHashMap.size(), restaurantList.size());
         assertEquals(restaurantList.get(0).getDistanceTvVisibility(), View.VISIBLE);
     }
 
+    @Test
+    public void test_calculateDistanceFromUser_givenCoordinates() {
+        Restaurant restaurant = new Restaurant.Builder("ChIJH274sClwjEcRniBZAsyAtH0")
+                .setLocation(46.19184599999999, 6.220219999999999)
+                .build();
+
+        RestaurantToListViewMapper mapper = new RestaurantToListViewMapper(46.1918519, 6.219075699999999, R.string.unit_meter_short, Calendar.getInstance());
+        RestaurantListViewState viewState = mapper.map(restaurant);
+
+        assertEquals(88, viewState.getDistanceFromUser());
+        assertEquals(View.VISIBLE, viewState.getDistanceTvVisibility());
+    }
+
+    @Test
+    public void test_calculateDistanceFromUser_givenRestaurantWithoutCoordinates() {
+        Restaurant restaurant = new Restaurant.Builder("ChIJH274sClwjEcRniBZAsyAtH0").build();
+
+        RestaurantToListViewMapper mapper = new RestaurantToListViewMapper(46.1918519, 6.219075699999999, R.string.unit_meter_short, Calendar.getInstance());
+        RestaurantListViewState viewState = mapper.map(restaurant);
+
+        assertEquals(View.INVISIBLE, viewState.getDistanceTvVisibility());
+    }
+
     @Test
     public void test_calculateDistanceFromUser_givenNoLocation() {
         HashMap<String, Restaurant> restaurantHashMap = generateRestaurantHashMapWithNoData();
 
         RestaurantToListViewMapper mapper = new RestaurantToListViewMapper(null, R.string.unit_meter_short, Calendar.getInstance());
-        List<Restaurant> restaurantList = mapper.apply(restaurantHashMap);
+        List<RestaurantListViewState> restaurantList = mapper.apply(restaurantHashMap);
 
         assertEquals(restaurantHashMap.size(), restaurantList.size());
         assertEquals(restaurantList.get(0).getDistanceTvVisibility(), View.INVISIBLE);
     }
 
+    @Test
+    public void test_apply_unchangedRowKeepsItsViewState() {
+        HashMap<String, Restaurant> restaurantHashMap = generateRestaurantHashMapWithInterestedWorkmates();
+        Calendar now = Calendar.getInstance();
+        RestaurantListViewState previousViewState = new RestaurantToListViewMapper(null, R.string.unit_meter_short, now)
+                .apply(restaurantHashMap).get(0);
+
+        RestaurantToListViewMapper mapper = new RestaurantToListViewMapper(null, R.string.unit_meter_short, now);
+        mapper.setPreviousViewStates(Collections.singletonList(previousViewState));
+        assertSame(previousViewState, mapper.apply(restaurantHashMap).get(0));
+
+        // A new restaurant instance is a new row, even with the same id
+        Restaurant restaurant = restaurantHashMap.get("ChIJH274sClwjEcRniBZAsyAtH0");
+        restaurantHashMap.put(restaurant.getUId(), restaurant.withInterestedWorkmates(new ArrayList<>()));
+        RestaurantListViewState viewState = mapper.apply(restaurantHashMap).get(0);
+        assertNotSame(previousViewState, viewState);
+        assertEquals(View.INVISIBLE, viewState.getWorkmateIvVisibility());
+    }
+
     @Test
     public void test_determineOpening_checkOpenNowFirstPeriod() {
         Calendar testDate = Calendar.getInstance();
@@ -55,7 +104,7 @@ public class RestaurantToListViewMapperTest {
         HashMap<String, Restaurant> restaurantHashMap = generateRestaurantHashMapWithOpenPeriods();
 
         RestaurantToListViewMapper mapper = new RestaurantToListViewMapper(null, R.string.unit_meter_short, testDate);
-        List<Restaurant> restaurantList = mapper.apply(restaurantHashMap);
+        List<RestaurantListViewState> restaurantList = mapper.apply(restaurantHashMap);
 
         assertEquals(R.string.open_now, restaurantList.get(0).getOpenTvString());
         assertEquals(View.VISIBLE, restaurantList.get(0).getOpenTvVisibility());
@@ -74,7 +123,7 @@ public class RestaurantToListViewMapperTest {
         HashMap<String, Restaurant> restaurantHashMap = generateRestaurantHashMapWithOpenPeriods();
 
         RestaurantToListViewMapper mapper = new RestaurantToListViewMapper(null, R.string.unit_meter_short, testDate);
-        List<Restaurant> restaurantList = mapper.apply(restaurantHashMap);
+        List<RestaurantListViewState> restaurantList = mapper.apply(restaurantHashMap);
 
         assertEquals(R.string.open_now, restaurantList.get(0).getOpenTvString());
         assertEquals(View.VISIBLE, restaurantList.get(0).getOpenTvVisibility());
@@ -93,7 +142,7 @@ public class RestaurantToListViewMapperTest {
         HashMap<String, Restaurant> restaurantHashMap = generateRestaurantHashMapWithOpenPeriods();
 
         RestaurantToListViewMapper mapper = new RestaurantToListViewMapper(null, R.string.unit_meter_short, testDate);
-        List<Restaurant> restaurantList = mapper.apply(restaurantHashMap);
+        List<RestaurantListViewState> restaurantList = mapper.apply(restaurantHashMap);
 
         assertEquals(R.string.open_now, restaurantList.get(0).getOpenTvString());
         assertEquals(View.VISIBLE, restaurantList.get(0).getOpenTvVisibility());
@@ -112,7 +161,7 @@ public class RestaurantToListViewMapperTest {
         HashMap<String, Restaurant> restaurantHashMap = generateRestaurantHashMapWithOpenPeriods();
 
         RestaurantToListViewMapper mapper = new RestaurantToListViewMapper(null, R.string.unit_meter_short, testDate);
-        List<Restaurant> restaurantList = mapper.apply(restaurantHashMap);
+        List<RestaurantListViewState> restaurantList = mapper.apply(restaurantHashMap);
 
         assertEquals(R.string.open_until, restaurantList.get(0).getOpenTvString());
         assertEquals(View.VISIBLE, restaurantList.get(0).getOpenTvVisibility());
@@ -132,7 +181,7 @@ public class RestaurantToListViewMapperTest {
         HashMap<String, Restaurant> restaurantHashMap = generateRestaurantHashMapWithOpenPeriods();
 
         RestaurantToListViewMapper mapper = new RestaurantToListViewMapper(null, R.string.unit_meter_short, testDate);
-        List<Restaurant> restaurantList = mapper.apply(restaurantHashMap);
+        List<RestaurantListViewState> restaurantList = mapper.apply(restaurantHashMap);
 
         assertEquals(R.string.closed, restaurantList.get(0).getOpenTvString());
         assertEquals(View.VISIBLE, restaurantList.get(0).getOpenTvVisibility());
@@ -151,7 +200,7 @@ public class RestaurantToListViewMapperTest {
         HashMap<String, Restaurant> restaurantHashMap = generateRestaurantHashMapWithOpenPeriods();
 
         RestaurantToListViewMapper mapper = new RestaurantToListViewMapper(null, R.string.unit_meter_short, testDate);
-        List<Restaurant> restaurantList = mapper.apply(restaurantHashMap);
+        List<RestaurantListViewState> restaurantList = mapper.apply(restaurantHashMap);
 
         assertEquals(R.string.closed, restaurantList.get(0).getOpenTvString());
         assertEquals(View.VISIBLE, restaurantList.get(0).getOpenTvVisibility());
@@ -170,7 +219,7 @@ public class RestaurantToListViewMapperTest {
         HashMap<String, Restaurant> restaurantHashMap = generateRestaurantHashMapWithOpenPeriodsClosingAtMidnight();
 
         RestaurantToListViewMapper mapper = new RestaurantToListViewMapper(null, R.string.unit_meter_short, testDate);
-        List<Restaurant> restaurantList = mapper.apply(restaurantHashMap);
+        List<RestaurantListViewState> restaurantList = mapper.apply(restaurantHashMap);
 
         assertEquals(R.string.open_until, restaurantList.get(0).getOpenTvString());
         assertEquals("12:00 AM", restaurantList.get(0).getOpenTvCloseTimeString());
@@ -189,7 +238,7 @@ public class RestaurantToListViewMapperTest {
         HashMap<String, Restaurant> restaurantHashMap = generateRestaurantHashMapWithOpenPeriodsClosingAfterMidnight();
 
         RestaurantToListViewMapper mapper = new RestaurantToListViewMapper(null, R.string.unit_meter_short, testDate);
-        List<Restaurant> restaurantList = mapper.apply(restaurantHashMap);
+        List<RestaurantListViewState> restaurantList = mapper.apply(restaurantHashMap);
 
         assertEquals(R.string.open_until, restaurantList.get(0).getOpenTvString());
         assertEquals("2:00 AM", restaurantList.get(0).getOpenTvCloseTimeString());
@@ -208,7 +257,7 @@ public class RestaurantToListViewMapperTest {
         HashMap<String, Restaurant> restaurantHashMap = generateRestaurantHashMapWithOpenPeriodsClosingAfterMidnightOnlyTheWeekend();
 
         RestaurantToListViewMapper mapper = new RestaurantToListViewMapper(null, R.string.unit_meter_short, testDate);
-        List<Restaurant> restaurantList = mapper.apply(restaurantHashMap);
+        List<RestaurantListViewState> restaurantList = mapper.apply(restaurantHashMap);
 
         assertEquals("2:00 AM", restaurantList.get(0).getOpenTvCloseTimeString());
         assertEquals(R.string.open_until, restaurantList.get(0).getOpenTvString());
@@ -227,7 +276,7 @@ public class RestaurantToListViewMapperTest {
         HashMap<String, Restaurant> restaurantHashMap = generateRestaurantHashMapWithOpenPeriodsClosingAfterMidnightOnlyTheWeekend();
 
         RestaurantToListViewMapper mapper = new RestaurantToListViewMapper(null, R.string.unit_meter_short, testDate);
-        List<Restaurant> restaurantList = mapper.apply(restaurantHashMap);
+        List<RestaurantListViewState> restaurantList = mapper.apply(restaurantHashMap);
 
         assertEquals(R.string.open_until, restaurantList.get(0).getOpenTvString());
         assertEquals("11:00 PM", restaurantList.get(0).getOpenTvCloseTimeString());
@@ -246,7 +295,7 @@ public class RestaurantToListViewMapperTest {
         HashMap<String, Restaurant> restaurantHashMap = generateRestaurantHashMapWithOpenPeriods();
 
         RestaurantToListViewMapper mapper = new RestaurantToListViewMapper(null, R.string.unit_meter_short, testDate);
-        List<Restaurant> restaurantList = mapper.apply(restaurantHashMap);
+        List<RestaurantListViewState> restaurantList = mapper.apply(restaurantHashMap);
 
         assertEquals(R.string.closed, restaurantList.get(0).getOpenTvString());
         assertEquals(View.VISIBLE, restaurantList.get(0).getOpenTvVisibility());
@@ -265,7 +314,7 @@ public class RestaurantToListViewMapperTest {
         HashMap<String, Restaurant> restaurantHashMap = generateRestaurantHashMapWithOpenPeriods();
 
         RestaurantToListViewMapper mapper = new RestaurantToListViewMapper(null, R.string.unit_meter_short, testDate);
-        List<Restaurant> restaurantList = mapper.apply(restaurantHashMap);
+        List<RestaurantListViewState> restaurantList = mapper.apply(restaurantHashMap);
 
         assertEquals(R.string.closed, restaurantList.get(0).getOpenTvString());
         assertEquals(View.VISIBLE, restaurantList.get(0).getOpenTvVisibility());
@@ -279,7 +328,7 @@ public class RestaurantToListViewMapperTest {
         HashMap<String, Restaurant> restaurantHashMap = generateRestaurantHashMapWithAlwaysOpen();
 
         RestaurantToListViewMapper mapper = new RestaurantToListViewMapper(null, R.string.unit_meter_short, testDate);
-        List<Restaurant> restaurantList = mapper.apply(restaurantHashMap);
+        List<RestaurantListViewState> restaurantList = mapper.apply(restaurantHashMap);
 
         assertEquals(R.string.open_now, restaurantList.get(0).getOpenTvString());
         assertEquals(View.VISIBLE, restaurantList.get(0).getOpenTvVisibility());
@@ -291,7 +340,7 @@ public class RestaurantToListViewMapperTest {
         HashMap<String, Restaurant> restaurantHashMap = generateRestaurantHashMapWithNoData();
 
         RestaurantToListViewMapper mapper = new RestaurantToListViewMapper(null, R.string.unit_meter_short, Calendar.getInstance());
-        List<Restaurant> restaurantList = mapper.apply(restaurantHashMap);
+        List<RestaurantListViewState> restaurantList = mapper.apply(restaurantHashMap);
 
         assertEquals(View.INVISIBLE, restaurantList.get(0).getWorkmateIvVisibility());
         assertEquals(View.INVISIBLE, restaurantList.get(0).getWorkmateTvVisibility());
@@ -302,7 +351,7 @@ public class RestaurantToListViewMapperTest {
         HashMap<String, Restaurant> restaurantHashMap = generateRestaurantHashMapWithInterestedWorkmates();
 
         RestaurantToListViewMapper mapper = new RestaurantToListViewMapper(null, R.string.unit_meter_short, Calendar.getInstance());
-        List<Restaurant> restaurantList = mapper.apply(restaurantHashMap);
+        List<RestaurantListViewState> restaurantList = mapper.apply(restaurantHashMap);
 
         assertEquals(View.VISIBLE, restaurantList.get(0).getWorkmateIvVisibility());
         assertEquals(View.VISIBLE, restaurantList.get(0).getWorkmateTvVisibility());
@@ -310,7 +359,7 @@ public class RestaurantToListViewMapperTest {
     }
 
     private HashMap<String, Restaurant> generateRestaurantHashMapWithNoData() {
-        Restaurant restaurant = new Restaurant("ChIJH274sClwjEcRniBZAsyAtH0");
+        Restaurant restaurant = new Restaurant.Builder("ChIJH274sClwjEcRniBZAsyAtH0").build();
         HashMap<String, Restaurant> restaurantHashMap = new HashMap<>();
         restaurantHashMap.put(restaurant.getUId(), restaurant);
         return restaurantHashMap;
@@ -318,72 +367,75 @@ public class RestaurantToListViewMapperTest {
 
 
     private HashMap<String, Restaurant> generateRestaurantHashMapWithOpenPeriods(){
-        Restaurant restaurant = new Restaurant("ChIJH274sClwjEcRniBZAsyAtH0");
-        restaurant.getOpeningPeriods().add(new OpenPeriod(1, 10, 0, 1,12, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(1, 14, 0, 1, 18, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(2, 10, 0, 2,12, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(2, 14, 0, 2, 18, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(3, 10, 0, 3,12, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(3, 14, 0, 3, 18, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(4, 10, 0, 4,12, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(4, 14, 0, 4, 18, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(5, 10, 0, 5,12, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(5, 14, 0, 5, 18, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(6, 10, 0, 6,12, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(6, 14, 0, 6, 18, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(7, 10, 0, 7,12, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(7, 14, 0, 7, 18, 0));
-        restaurant.setOpeningHoursAvailable(true);
-        restaurant.setAlwaysOpen(false);
+        Restaurant restaurant = new Restaurant.Builder("ChIJH274sClwjEcRniBZAsyAtH0")
+                .addOpeningPeriod(new OpenPeriod(1, 10, 0, 1,12, 0))
+                .addOpeningPeriod(new OpenPeriod(1, 14, 0, 1, 18, 0))
+                .addOpeningPeriod(new OpenPeriod(2, 10, 0, 2,12, 0))
+                .addOpeningPeriod(new OpenPeriod(2, 14, 0, 2, 18, 0))
+                .addOpeningPeriod(new OpenPeriod(3, 10, 0, 3,12, 0))
+                .addOpeningPeriod(new OpenPeriod(3, 14, 0, 3, 18, 0))
+                .addOpeningPeriod(new OpenPeriod(4, 10, 0, 4,12, 0))
+                .addOpeningPeriod(new OpenPeriod(4, 14, 0, 4, 18, 0))
+                .addOpeningPeriod(new OpenPeriod(5, 10, 0, 5,12, 0))
+                .addOpeningPeriod(new OpenPeriod(5, 14, 0, 5, 18, 0))
+                .addOpeningPeriod(new OpenPeriod(6, 10, 0, 6,12, 0))
+                .addOpeningPeriod(new OpenPeriod(6, 14, 0, 6, 18, 0))
+                .addOpeningPeriod(new OpenPeriod(7, 10, 0, 7,12, 0))
+                .addOpeningPeriod(new OpenPeriod(7, 14, 0, 7, 18, 0))
+                .setOpeningHoursAvailable(true)
+                .setAlwaysOpen(false)
+                .build();
         HashMap<String, Restaurant> restaurantHashMap = new HashMap<>();
         restaurantHashMap.put(restaurant.getUId(), restaurant);
         return restaurantHashMap;
     }
 
     private HashMap<String, Restaurant> generateRestaurantHashMapWithOpenPeriodsClosingAtMidnight(){
-        Restaurant restaurant = new Restaurant("ChIJH274sClwjEcRniBZAsyAtH0");
-        restaurant.getOpeningPeriods().add(new OpenPeriod(1, 10, 0, 2,0, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(2, 10, 0, 3,0, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(3, 10, 0, 4,0, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(4, 10, 0, 5,0, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(5, 10, 0, 6,0, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(6, 10, 0, 7,0, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(7, 10, 0, 8,0, 0));
-        restaurant.setOpeningHoursAvailable(true);
-        restaurant.setAlwaysOpen(false);
+        Restaurant restaurant = new Restaurant.Builder("ChIJH274sClwjEcRniBZAsyAtH0")
+                .addOpeningPeriod(new OpenPeriod(1, 10, 0, 2,0, 0))
+                .addOpeningPeriod(new OpenPeriod(2, 10, 0, 3,0, 0))
+                .addOpeningPeriod(new OpenPeriod(3, 10, 0, 4,0, 0))
+                .addOpeningPeriod(new OpenPeriod(4, 10, 0, 5,0, 0))
+                .addOpeningPeriod(new OpenPeriod(5, 10, 0, 6,0, 0))
+                .addOpeningPeriod(new OpenPeriod(6, 10, 0, 7,0, 0))
+                .addOpeningPeriod(new OpenPeriod(7, 10, 0, 8,0, 0))
+                .setOpeningHoursAvailable(true)
+                .setAlwaysOpen(false)
+                .build();
         HashMap<String, Restaurant> restaurantHashMap = new HashMap<>();
         restaurantHashMap.put(restaurant.getUId(), restaurant);
         return restaurantHashMap;
     }
 
     private HashMap<String, Restaurant> generateRestaurantHashMapWithOpenPeriodsClosingAfterMidnight(){
-        Restaurant restaurant = new Restaurant("ChIJH274sClwjEcRniBZAsyAtH0");
-
-        restaurant.getOpeningPeriods().add(new OpenPeriod(1, 10, 0, 2,2, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(2, 10, 0, 3,2, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(3, 10, 0, 4,2, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(4, 10, 0, 5,2, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(5, 10, 0, 6,2, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(6, 10, 0, 7,2, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(7, 10, 0, 8,2, 0));
-        restaurant.setOpeningHoursAvailable(true);
-        restaurant.setAlwaysOpen(false);
+        Restaurant restaurant = new Restaurant.Builder("ChIJH274sClwjEcRniBZAsyAtH0")
+                .addOpeningPeriod(new OpenPeriod(1, 10, 0, 2,2, 0))
+                .addOpeningPeriod(new OpenPeriod(2, 10, 0, 3,2, 0))
+                .addOpeningPeriod(new OpenPeriod(3, 10, 0, 4,2, 0))
+                .addOpeningPeriod(new OpenPeriod(4, 10, 0, 5,2, 0))
+                .addOpeningPeriod(new OpenPeriod(5, 10, 0, 6,2, 0))
+                .addOpeningPeriod(new OpenPeriod(6, 10, 0, 7,2, 0))
+                .addOpeningPeriod(new OpenPeriod(7, 10, 0, 8,2, 0))
+                .setOpeningHoursAvailable(true)
+                .setAlwaysOpen(false)
+                .build();
         HashMap<String, Restaurant> restaurantHashMap = new HashMap<>();
         restaurantHashMap.put(restaurant.getUId(), restaurant);
         return restaurantHashMap;
     }
 
     private HashMap<String, Restaurant> generateRestaurantHashMapWithOpenPeriodsClosingAfterMidnightOnlyTheWeekend(){
-        Restaurant restaurant = new Restaurant("ChIJH274sClwjEcRniBZAsyAtH0");
-        restaurant.getOpeningPeriods().add(new OpenPeriod(1, 10, 0, 2,2, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(2, 10, 0, 2,23, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(3, 10, 0, 3,23, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(4, 10, 0, 4,23, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(5, 10, 0, 5,23, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(6, 10, 0, 6,23, 0));
-        restaurant.getOpeningPeriods().add(new OpenPeriod(7, 10, 0, 0,2, 0));
-        restaurant.setOpeningHoursAvailable(true);
-        restaurant.setAlwaysOpen(false);
+        Restaurant restaurant = new Restaurant.Builder("ChIJH274sClwjEcRniBZAsyAtH0")
+                .addOpeningPeriod(new OpenPeriod(1, 10, 0, 2,2, 0))
+                .addOpeningPeriod(new OpenPeriod(2, 10, 0, 2,23, 0))
+                .addOpeningPeriod(new OpenPeriod(3, 10, 0, 3,23, 0))
+                .addOpeningPeriod(new OpenPeriod(4, 10, 0, 4,23, 0))
+                .addOpeningPeriod(new OpenPeriod(5, 10, 0, 5,23, 0))
+                .addOpeningPeriod(new OpenPeriod(6, 10, 0, 6,23, 0))
+                .addOpeningPeriod(new OpenPeriod(7, 10, 0, 0,2, 0))
+                .setOpeningHoursAvailable(true)
+                .setAlwaysOpen(false)
+                .build();
 
         HashMap<String, Restaurant> restaurantHashMap = new HashMap<>();
         restaurantHashMap.put(restaurant.getUId(), restaurant);
@@ -391,9 +443,10 @@ public class RestaurantToListViewMapperTest {
     }
 
     private HashMap<String, Restaurant> generateRestaurantHashMapWithAlwaysOpen(){
-        Restaurant restaurant = new Restaurant("ChIJH274sClwjEcRniBZAsyAtH0");
-        restaurant.setOpeningHoursAvailable(true);
-        restaurant.setAlwaysOpen(true);
+        Restaurant restaurant = new Restaurant.Builder("ChIJH274sClwjEcRniBZAsyAtH0")
+                .setOpeningHoursAvailable(true)
+                .setAlwaysOpen(true)
+                .build();
         HashMap<String, Restaurant> restaurantHashMap = new HashMap<>();
         restaurantHashMap.put(restaurant.getUId(), restaurant);
         return restaurantHashMap;
@@ -401,9 +454,9 @@ public class RestaurantToListViewMapperTest {
 
 
     private HashMap<String, Restaurant> generateRestaurantHashMapWithInterestedWorkmates() {
-        Restaurant restaurant = new Restaurant("ChIJH274sClwjEcRniBZAsyAtH0");
-        restaurant.getInterestedWorkmates().add("Db5e374sClwjEbqoF8ZAsyAtH0");
-        restaurant.getInterestedWorkmates().add("Db5e374sClwjEbqoF8ZAsyAtH0");
+        Restaurant restaurant = new Restaurant.Builder("ChIJH274sClwjEcRniBZAsyAtH0")
+                .setInterestedWorkmates(Arrays.asList("Db5e374sClwjEbqoF8ZAsyAtH0", "Db5e374sClwjEbqoF8ZAsyAtH0"))
+                .build();
         HashMap<String, Restaurant> restaurantHashMap = new HashMap<>();
         restaurantHashMap.put(restaurant.getUId(), restaurant);
         return restaurantHashMap;
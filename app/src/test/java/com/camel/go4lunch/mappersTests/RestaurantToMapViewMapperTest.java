@@ -3,6 +3,7 @@ package com.camel.go4lunch.mappersTests;
 import com.camel.go4lunch.R;
 import com.camel.go4lunch.mappers.RestaurantToMapViewMapper;
 import com.camel.go4lunch.models.Restaurant;
+import com.camel.go4lunch.models.RestaurantMapViewState;
 
 import org.junit.Test;
 
@@ -17,7 +18,7 @@ public class RestaurantToMapViewMapperTest {
         HashMap<String, Restaurant> restaurantHashMap = generateRestaurantHashMapWithNoData();
 
         RestaurantToMapViewMapper mapper = new RestaurantToMapViewMapper();
-        HashMap<String, Restaurant> mappedRestaurantHashMap = mapper.apply(restaurantHashMap);
+        HashMap<String, RestaurantMapViewState> mappedRestaurantHashMap = mapper.apply(restaurantHashMap);
 
         assertEquals(R.drawable.ic_pin_normal, mappedRestaurantHashMap.get("ChIJH274sClwjEcRniBZAsyAtH0").getMarkerOptionIconResource());
     }
@@ -26,13 +27,13 @@ public class RestaurantToMapViewMapperTest {
         HashMap<String, Restaurant> restaurantHashMap = generateRestaurantHashMapWithInterestedWorkmates();
 
         RestaurantToMapViewMapper mapper = new RestaurantToMapViewMapper();
-        HashMap<String, Restaurant> mappedRestaurantHashMap = mapper.apply(restaurantHashMap);
+        HashMap<String, RestaurantMapViewState> mappedRestaurantHashMap = mapper.apply(restaurantHashMap);
 
         assertEquals(R.drawable.ic_pin_interested, mappedRestaurantHashMap.get("ChIJH274sClwjEcRniBZAsyAtH0").getMarkerOptionIconResource());
     }
 
     private HashMap<String, Restaurant> generateRestaurantHashMapWithNoData() {
-        Restaurant restaurant = new Restaurant("ChIJH274sClwjEcRniBZAsyAtH0");
+        Restaurant restaurant = new Restaurant.Builder("ChIJH274sClwjEcRniBZAsyAtH0").build();
 
         HashMap<String, Restaurant> restaurantHashMap = new HashMap<>();
         restaurantHashMap.put(restaurant.getUId(), restaurant);
@@ -40,9 +41,9 @@ public class RestaurantToMapViewMapperTest {
     }
 
     private HashMap<String, Restaurant> generateRestaurantHashMapWithInterestedWorkmates() {
-        Restaurant restaurant = new Restaurant("ChIJH274sClwjEcRniBZAsyAtH0");
-        restaurant.getInterestedWorkmates().add("Db5e374sClwjEbqoF8ZAsyAtH0");
-        restaurant.getInterestedWorkmates().add("Db5e374sClwjEbqoF8ZAsyAtH0");
+        Restaurant restaurant = new Restaurant.Builder("ChIJH274sClwjEcRniBZAsyAtH0")
+                .setInterestedWorkmates(Arrays.asList("Db5e374sClwjEbqoF8ZAsyAtH0", "Db5e374sClwjEbqoF8ZAsyAtH0"))
+                .build();
         HashMap<String, Restaurant> restaurantHashMap = new HashMap<>();
         restaurantHashMap.put(restaurant.getUId(), restaurant);
         return restaurantHashMap;
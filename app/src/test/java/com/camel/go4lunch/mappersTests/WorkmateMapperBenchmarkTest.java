@@ -0,0 +1,68 @@
+package com.camel.go4lunch.mappersTests;
+
+import com.camel.go4lunch.mappers.FirestoreDataToWorkmateMapper;
+import com.camel.go4lunch.models.Workmate;
+import com.google.firebase.firestore.util.CustomClassMapper;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the hand written mapper with the reflection mapper behind DocumentSnapshot.toObject()
+ * on a snapshot the size of a large site. Run it manually, timings are printed, not asserted.
+ */
+@Ignore("Benchmark, run manually")
+public class WorkmateMapperBenchmarkTest {
+    private static final int SNAPSHOT_SIZE = 2000;
+    private static final int WARM_UP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    @Test
+    public void benchmark_firestoreDataToWorkmate(){
+        List<Map<String, Object>> snapshot = new ArrayList<>();
+        for (int i = 0; i < SNAPSHOT_SIZE; i++) {
+            snapshot.add(FirestoreDataToWorkmateMapperTest.generateWorkmateData());
+        }
+        FirestoreDataToWorkmateMapper mapper = new FirestoreDataToWorkmateMapper();
+
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            mapWithReflection(snapshot);
+            mapByHand(snapshot, mapper);
+        }
+
+        long reflectionNanos = 0;
+        long byHandNanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            mapWithReflection(snapshot);
+            reflectionNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            mapByHand(snapshot, mapper);
+            byHandNanos += System.nanoTime() - start;
+        }
+
+        System.out.println("toObject() reflection: " + reflectionNanos / MEASURED_ROUNDS / 1000 + " µs per snapshot of " + SNAPSHOT_SIZE);
+        System.out.println("FirestoreDataToWorkmateMapper: " + byHandNanos / MEASURED_ROUNDS / 1000 + " µs per snapshot of " + SNAPSHOT_SIZE);
+    }
+
+    private List<Workmate> mapWithReflection(List<Map<String, Object>> snapshot){
+        List<Workmate> workmates = new ArrayList<>(snapshot.size());
+        for (Map<String, Object> data : snapshot) {
+            workmates.add(CustomClassMapper.convertToCustomClass(data, Workmate.class, null));
+        }
+        return workmates;
+    }
+
+    private List<Workmate> mapByHand(List<Map<String, Object>> snapshot, FirestoreDataToWorkmateMapper mapper){
+        List<Workmate> workmates = new ArrayList<>(snapshot.size());
+        for (Map<String, Object> data : snapshot) {
+            workmates.add(mapper.apply(data));
+        }
+        return workmates;
+    }
+}
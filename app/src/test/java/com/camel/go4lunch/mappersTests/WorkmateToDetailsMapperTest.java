@@ -34,6 +34,19 @@ public class WorkmateToDetailsMapperTest {
         assertEquals(R.color.green, mappedWorkmate.getWorkmateLikedRestaurantTvColor());
     }
 
+    @Test
+    public void test_likedRestaurants_givenRestaurantUnlikedAfterLookup(){
+        Workmate workmate = generateWorkmateWithLikedRestaurant();
+        WorkmateToDetailsMapper mapper = new WorkmateToDetailsMapper("ChIJH274sClwjEcRniBZAsyAtH0");
+        mapper.apply(workmate);
+
+        workmate.removeLikedRestaurant("ChIJH274sClwjEcRniBZAsyAtH0");
+        Workmate mappedWorkmate = mapper.apply(workmate);
+
+        assertEquals(R.string.like, mappedWorkmate.getWorkmateLikedRestaurantTvText());
+        assertEquals(R.color.orange, mappedWorkmate.getWorkmateLikedRestaurantTvColor());
+    }
+
     @Test
     public void test_chosenRestaurant_givenWorkmateWithNoChosenRestaurant(){
         Workmate workmate = generateWorkmate();
@@ -90,7 +103,7 @@ public class WorkmateToDetailsMapperTest {
                 "john.doe@gmail.com",
                 "https://upload.wikimedia.org/wikipedia/commons/thumb/5/5a/John_Doe%2C_born_John_Nommensen_Duchac.jpg/260px-John_Doe%2C_born_John_Nommensen_Duchac.jpg");
 
-        workmate.getLikedRestaurants().add("ChIJH274sClwjEcRniBZAsyAtH0");
+        workmate.addLikedRestaurant("ChIJH274sClwjEcRniBZAsyAtH0");
 
         return workmate;
     }
@@ -0,0 +1,78 @@
+package com.camel.go4lunch.mappersTests;
+
+import com.camel.go4lunch.api.LunchHelper;
+import com.camel.go4lunch.mappers.WorkmatesToInterestedWorkmatesIndexMapper;
+import com.camel.go4lunch.models.Workmate;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class WorkmatesToInterestedWorkmatesIndexMapperTest {
+
+    @Test
+    public void test_workmatesAreGroupedByChosenRestaurant(){
+        List<Workmate> workmates = new ArrayList<>();
+        workmates.add(generateWorkmateWithChosenRestaurant("Db5e374sClwjEbqoF8ZAsyAtH0", "ChIJH274sClwjEcRniBZAsyAtH0", 0));
+        workmates.add(generateWorkmateWithChosenRestaurant("Fg7h374sClwjEbqoF8ZAsyBtK1", "ChIJH274sClwjEcRniBZAsyAtH0", 0));
+        workmates.add(generateWorkmateWithChosenRestaurant("Kl9m374sClwjEbqoF8ZAsyCtP2", "ChIJmZKgsilwjEcRKVdZd_cE-4k", 0));
+        WorkmatesToInterestedWorkmatesIndexMapper mapper = new WorkmatesToInterestedWorkmatesIndexMapper();
+
+        HashMap<String, List<Workmate>> interestedWorkmatesIndex = mapper.apply(workmates);
+
+        assertEquals(2, interestedWorkmatesIndex.size());
+        assertEquals(2, interestedWorkmatesIndex.get("ChIJH274sClwjEcRniBZAsyAtH0").size());
+        assertEquals("Kl9m374sClwjEbqoF8ZAsyCtP2", interestedWorkmatesIndex.get("ChIJmZKgsilwjEcRKVdZd_cE-4k").get(0).getUId());
+    }
+
+    @Test
+    public void test_removedOrPastChoicesAreIgnored(){
+        List<Workmate> workmates = new ArrayList<>();
+        workmates.add(generateWorkmateWithChosenRestaurant("Db5e374sClwjEbqoF8ZAsyAtH0", "", 0));
+        workmates.add(generateWorkmateWithChosenRestaurant("Fg7h374sClwjEbqoF8ZAsyBtK1", "ChIJH274sClwjEcRniBZAsyAtH0", -1));
+        WorkmatesToInterestedWorkmatesIndexMapper mapper = new WorkmatesToInterestedWorkmatesIndexMapper();
+
+        HashMap<String, List<Workmate>> interestedWorkmatesIndex = mapper.apply(workmates);
+
+        assertFalse(interestedWorkmatesIndex.containsKey(""));
+        assertFalse(interestedWorkmatesIndex.containsKey("ChIJH274sClwjEcRniBZAsyAtH0"));
+    }
+
+    @Test
+    public void test_chosenDayIsPreferredOverDate(){
+        List<Workmate> workmates = new ArrayList<>();
+        Workmate chosenToday = generateWorkmateWithChosenRestaurant("Db5e374sClwjEbqoF8ZAsyAtH0", "ChIJH274sClwjEcRniBZAsyAtH0", -1);
+        chosenToday.setChosenDay(LunchHelper.getTodayId());
+        workmates.add(chosenToday);
+        Workmate removedChoice = generateWorkmateWithChosenRestaurant("Fg7h374sClwjEbqoF8ZAsyBtK1", "ChIJmZKgsilwjEcRKVdZd_cE-4k", 0);
+        removedChoice.setChosenDay("");
+        workmates.add(removedChoice);
+        WorkmatesToInterestedWorkmatesIndexMapper mapper = new WorkmatesToInterestedWorkmatesIndexMapper();
+
+        HashMap<String, List<Workmate>> interestedWorkmatesIndex = mapper.apply(workmates);
+
+        assertEquals(1, interestedWorkmatesIndex.size());
+        assertEquals(1, interestedWorkmatesIndex.get("ChIJH274sClwjEcRniBZAsyAtH0").size());
+    }
+
+    private Workmate generateWorkmateWithChosenRestaurant(String uId, String restaurantId, int dayOffset){
+        Workmate workmate = new Workmate(uId,
+                "John Doe",
+                "John",
+                "john.doe@gmail.com",
+                null);
+
+        workmate.setChosenRestaurantId(restaurantId);
+        Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.DAY_OF_MONTH, dayOffset);
+        workmate.setChosenRestaurantDate(calendar.getTime());
+
+        return workmate;
+    }
+}
@@ -1,6 +1,8 @@
 package com.camel.go4lunch.repositoriesTests;
 
 import com.camel.go4lunch.api.PlacesService;
+import com.camel.go4lunch.cache.NearbyTileCache;
+import com.camel.go4lunch.cache.PlaceDetailsCache;
 import com.camel.go4lunch.models.googlePlaceAutocomplete.PlaceAutocomplete;
 import com.camel.go4lunch.models.googlePlaceAutocomplete.Prediction;
 import com.camel.go4lunch.models.googlePlaceDetailsResult.Close;
@@ -21,31 +23,45 @@ import com.camel.go4lunch.utils.RxJavaSchedulersTestRule2;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mockito;
 
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import io.reactivex.Observable;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.PublishSubject;
 
 import static com.camel.go4lunch.mappers.NearbyPlacesResultToRestaurantMapper.OPERATIONAL_BUSINESS_STATUS;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class GooglePlacesRepositoryTest {
 
+    private static final double SEARCH_LATITUDE = 46.19184599999999;
+    private static final double SEARCH_LONGITUDE = 6.220219999999999;
+    private static final double SEARCH_RADIUS = 500;
+
     @Rule
     public RxJavaSchedulersTestRule2 rxRule = new RxJavaSchedulersTestRule2();
 
+    @Rule
+    public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
     GooglePlacesRepository mGooglePlacesRepository;
     PlacesService mPlacesService = Mockito.mock(PlacesService.class);
 
     @Before
     public void initGooglePlaceRepository(){
-        mGooglePlacesRepository = new GooglePlacesRepository(mPlacesService);
+        mGooglePlacesRepository = new GooglePlacesRepository(mPlacesService, generatePlaceDetailsCache(), generateNearbyTileCache());
     }
 
     @Test
@@ -53,7 +69,7 @@ public class GooglePlacesRepositoryTest {
         PlaceSearchResults result = generateNearbySearchFirstResults();
         when(mPlacesService.fetchNearbyPlaces(any(), any(), any(), any())).thenReturn(Observable.just(result));
 
-        mGooglePlacesRepository.getNearbyPlaces(0, 0,0)
+        mGooglePlacesRepository.getNearbyPlaces(SEARCH_LATITUDE, SEARCH_LONGITUDE, SEARCH_RADIUS)
                 .test()
                 .assertValue(results -> {
                     List<PlaceSearch> placesSearchList = results.getPlaceSearches();
@@ -66,6 +82,94 @@ public class GooglePlacesRepositoryTest {
                 .dispose();
     }
 
+    @Test
+    public void test_getNearbyPlaces_secondSearchIsServedFromTiles(){
+        PlaceSearchResults result = generateNearbySearchFirstResults();
+        result.setNextPageToken(null);
+        when(mPlacesService.fetchNearbyPlaces(any(), any(), any(), any())).thenReturn(Observable.just(result));
+
+        mGooglePlacesRepository.getNearbyPlaces(SEARCH_LATITUDE, SEARCH_LONGITUDE, SEARCH_RADIUS)
+                .test()
+                .assertValue(results -> results.getPlaceSearches().size() == 2)
+                .dispose();
+        Mockito.clearInvocations(mPlacesService);
+
+        mGooglePlacesRepository.getNearbyPlaces(SEARCH_LATITUDE, SEARCH_LONGITUDE, SEARCH_RADIUS)
+                .test()
+                .assertValue(results -> results.getPlaceSearches().size() == 2)
+                .dispose();
+
+        verify(mPlacesService, times(0)).fetchNearbyPlaces(any(), any(), any(), any());
+        assertFalse(mGooglePlacesRepository.haveNextPageToken());
+    }
+
+    @Test
+    public void test_getNearbyPlaces_truncatedCellIsCachedWithItsPageToken(){
+        PlaceSearchResults result = generateNearbySearchFirstResults();
+        when(mPlacesService.fetchNearbyPlaces(any(), any(), any(), any())).thenReturn(Observable.just(result));
+
+        mGooglePlacesRepository.getNearbyPlaces(SEARCH_LATITUDE, SEARCH_LONGITUDE, SEARCH_RADIUS)
+                .test()
+                .assertValue(results -> results.getPlaceSearches().size() == 2)
+                .dispose();
+        Mockito.clearInvocations(mPlacesService);
+
+        // The cells had a next page, they are served from the tiles and can still be paged
+        mGooglePlacesRepository.getNearbyPlaces(SEARCH_LATITUDE, SEARCH_LONGITUDE, SEARCH_RADIUS)
+                .test()
+                .assertValue(results -> results.getPlaceSearches().size() == 2
+                        && results.getNextPageToken().equals("nextPageToken"))
+                .dispose();
+
+        verify(mPlacesService, times(0)).fetchNearbyPlaces(any(), any(), any(), any());
+        assertTrue(mGooglePlacesRepository.haveNextPageToken());
+    }
+
+    @Test
+    public void test_getNearbyPlaces_failingCellKeepsOtherCells(){
+        PlaceSearchResults result = generateNearbySearchFirstResults();
+        when(mPlacesService.fetchNearbyPlaces(any(), any(), any(), any()))
+                .thenReturn(Observable.error(new TimeoutException()), Observable.just(result));
+
+        mGooglePlacesRepository.getNearbyPlaces(SEARCH_LATITUDE, SEARCH_LONGITUDE, SEARCH_RADIUS)
+                .test()
+                .assertNoErrors()
+                .assertValue(results -> results.getStatus().equals("UNKNOWN_ERROR"))
+                .dispose();
+    }
+
+    @Test
+    public void test_getNearbyPlaces_everyCellFailing_reportsError(){
+        when(mPlacesService.fetchNearbyPlaces(any(), any(), any(), any())).thenReturn(Observable.error(new TimeoutException()));
+
+        mGooglePlacesRepository.getNearbyPlaces(SEARCH_LATITUDE, SEARCH_LONGITUDE, SEARCH_RADIUS)
+                .test()
+                .assertError(throwable -> throwable.getCause() instanceof TimeoutException)
+                .dispose();
+    }
+
+    @Test
+    public void test_getNearbyPlaces_failedCellIsReportedAndNotCached(){
+        PlaceSearchResults deniedResult = new PlaceSearchResults();
+        deniedResult.setPlaceSearches(new ArrayList<>());
+        deniedResult.setStatus("OVER_QUERY_LIMIT");
+        when(mPlacesService.fetchNearbyPlaces(any(), any(), any(), any())).thenReturn(Observable.just(deniedResult));
+
+        mGooglePlacesRepository.getNearbyPlaces(SEARCH_LATITUDE, SEARCH_LONGITUDE, SEARCH_RADIUS)
+                .test()
+                .assertValue(results -> results.getPlaceSearches().isEmpty() && results.getStatus().equals("OVER_QUERY_LIMIT"))
+                .dispose();
+
+        PlaceSearchResults result = generateNearbySearchFirstResults();
+        result.setNextPageToken(null);
+        when(mPlacesService.fetchNearbyPlaces(any(), any(), any(), any())).thenReturn(Observable.just(result));
+
+        mGooglePlacesRepository.getNearbyPlaces(SEARCH_LATITUDE, SEARCH_LONGITUDE, SEARCH_RADIUS)
+                .test()
+                .assertValue(results -> results.getPlaceSearches().size() == 2 && results.getStatus().equals("OK"))
+                .dispose();
+    }
+
     @Test
     public void test_getPlaceDetails_checkPlaceData() {
         PlaceDetailsResults mockedResults = generatePlaceDetailsResultsForFirstPlace();
@@ -95,12 +199,49 @@ public class GooglePlacesRepositoryTest {
                 .dispose();
     }
 
+    @Test
+    public void test_getPlaceDetails_secondCallIsServedFromCache() {
+        PlaceDetailsResults mockedResults = generatePlaceDetailsResultsForFirstPlace();
+        String placeId = mockedResults.getPlaceDetails().getPlaceId();
+        when(mPlacesService.fetchDetailsForPlaceId(any(), any(), any(), any())).thenReturn(Observable.just(mockedResults));
+
+        mGooglePlacesRepository.getDetailsForPlaceId(placeId)
+                .test()
+                .assertValueCount(1)
+                .dispose();
+
+        mGooglePlacesRepository.getDetailsForPlaceId(placeId)
+                .test()
+                .assertValue(results -> results.getPlaceDetails().getName().equals("Le viand'art"))
+                .dispose();
+
+        verify(mPlacesService, times(1)).fetchDetailsForPlaceId(any(), any(), any(), any());
+    }
+
+    @Test
+    public void test_getPlaceDetails_concurrentCallsShareOneRequest() {
+        PlaceDetailsResults mockedResults = generatePlaceDetailsResultsForFirstPlace();
+        String placeId = mockedResults.getPlaceDetails().getPlaceId();
+        PublishSubject<PlaceDetailsResults> response = PublishSubject.create();
+        when(mPlacesService.fetchDetailsForPlaceId(any(), any(), any(), any())).thenReturn(response);
+
+        TestObserver<PlaceDetailsResults> firstObserver = mGooglePlacesRepository.getDetailsForPlaceId(placeId).test();
+        TestObserver<PlaceDetailsResults> secondObserver = mGooglePlacesRepository.getDetailsForPlaceId(placeId).test();
+
+        response.onNext(mockedResults);
+        response.onComplete();
+
+        firstObserver.assertValue(mockedResults).assertComplete();
+        secondObserver.assertValue(mockedResults).assertComplete();
+        verify(mPlacesService, times(1)).fetchDetailsForPlaceId(any(), any(), any(), any());
+    }
+
     @Test
     public void test_haveNextPageToken_checkToken(){
         PlaceSearchResults mockedFirstResults = generateNearbySearchFirstResults();
         when(mPlacesService.fetchNearbyPlaces(any(), any(), any(), any())).thenReturn(Observable.just(mockedFirstResults));
 
-        mGooglePlacesRepository.getNearbyPlaces(0, 0,0)
+        mGooglePlacesRepository.getNearbyPlaces(SEARCH_LATITUDE, SEARCH_LONGITUDE, SEARCH_RADIUS)
                 .test()
                 .assertValue(results -> results.getPlaceSearches().size() == 2)
                 .dispose();
@@ -112,7 +253,8 @@ public class GooglePlacesRepositoryTest {
 
         mGooglePlacesRepository.getNextPageNearbyPlaces()
                 .test()
-                .assertValue(results -> results.getPlaceSearches().size() == 1)
+                .assertValue(results -> results.getPlaceSearches().size() == 1
+                        && results.getPlaceSearches().get(0).getName().equals("Mizuki Express"))
                 .dispose();
 
         assertFalse(mGooglePlacesRepository.haveNextPageToken());
@@ -133,6 +275,14 @@ public class GooglePlacesRepositoryTest {
     // Generate data
     // ---------------
 
+    private PlaceDetailsCache generatePlaceDetailsCache() {
+        return new PlaceDetailsCache(mTemporaryFolder.getRoot(), TimeUnit.DAYS.toMillis(1), 1024 * 1024);
+    }
+
+    private NearbyTileCache generateNearbyTileCache() {
+        return new NearbyTileCache(TimeUnit.HOURS.toMillis(1), TimeUnit.MINUTES.toMillis(2), 100);
+    }
+
     private PlaceSearchResults generateNearbySearchFirstResults() {
         PlaceSearch placeSearch1 = new PlaceSearch();
         placeSearch1.setName("Le viand'art");
@@ -174,8 +324,19 @@ public class GooglePlacesRepositoryTest {
         placeSearch1.getPlaceSearchGeometry().getLocation().setLng(6.2125187);
         placeSearch1.setBusinessStatus(OPERATIONAL_BUSINESS_STATUS);
 
+        // Next to the search center, the first place is outside the search radius
+        PlaceSearch placeSearch2 = new PlaceSearch();
+        placeSearch2.setName("Mizuki Express");
+        placeSearch2.setPlaceId("ChIJmZKgsilwjEcRKVdZd_cE-5k");
+        placeSearch2.setPlaceSearchGeometry(new PlaceSearchGeometry());
+        placeSearch2.getPlaceSearchGeometry().setLocation(new Location());
+        placeSearch2.getPlaceSearchGeometry().getLocation().setLat(46.1925);
+        placeSearch2.getPlaceSearchGeometry().getLocation().setLng(6.2210);
+        placeSearch2.setBusinessStatus(OPERATIONAL_BUSINESS_STATUS);
+
         List<PlaceSearch> placeSearchList = new ArrayList<>();
         placeSearchList.add(placeSearch1);
+        placeSearchList.add(placeSearch2);
 
         PlaceSearchResults placeSearchResults = new PlaceSearchResults();
         placeSearchResults.setPlaceSearches(placeSearchList);
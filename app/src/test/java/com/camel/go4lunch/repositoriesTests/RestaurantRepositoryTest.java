@@ -2,6 +2,7 @@ package com.camel.go4lunch.repositoriesTests;
 
 import com.camel.go4lunch.models.OpenPeriod;
 import com.camel.go4lunch.models.Restaurant;
+import com.camel.go4lunch.models.RestaurantChangeSet;
 import com.camel.go4lunch.repositories.RestaurantRepository;
 import com.camel.go4lunch.utils.RxJavaSchedulersTestRule2;
 
@@ -9,7 +10,22 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.reactivex.observers.TestObserver;
+
+import static org.junit.Assert.assertEquals;
 
 public class RestaurantRepositoryTest {
     @Rule
@@ -58,33 +74,166 @@ public class RestaurantRepositoryTest {
 
     }
 
+    @Test
+    public void test_observeRestaurantChanges_checkAddedThenUpdated() {
+        Restaurant restaurant = generateRestaurant();
+        TestObserver<RestaurantChangeSet> observer = mRestaurantRepository.observeRestaurantChanges().test();
+
+        mRestaurantRepository.setNewListSize(1);
+        mRestaurantRepository.addPendingRestaurants(Collections.singletonList(restaurant));
+        mRestaurantRepository.addNewRestaurant(generateRestaurantDetails());
+
+        observer.assertValueCount(2)
+                .assertValueAt(0, changeSet -> changeSet.getVersion() == 1
+                        && changeSet.getAdded().containsKey(restaurant.getUId())
+                        && changeSet.getUpdated().isEmpty())
+                .assertValueAt(1, changeSet -> changeSet.getVersion() == 2
+                        && changeSet.getAdded().isEmpty()
+                        && changeSet.getUpdated().containsKey(restaurant.getUId()))
+                .dispose();
+    }
+
+    @Test
+    public void test_observeRestaurantChanges_checkRemovedOnNextSearch() {
+        Restaurant restaurant = generateRestaurant();
+        Restaurant otherRestaurant = new Restaurant.Builder("ChIJmZKgsilwjEcRKVdZd_cE-4k").build();
+        mRestaurantRepository.setNewListSize(1);
+        mRestaurantRepository.addPendingRestaurants(Collections.singletonList(restaurant));
+        TestObserver<RestaurantChangeSet> observer = mRestaurantRepository.observeRestaurantChanges().test();
+
+        mRestaurantRepository.clearRestaurantList();
+        mRestaurantRepository.setNewListSize(1);
+        mRestaurantRepository.addPendingRestaurants(Collections.singletonList(otherRestaurant));
+
+        observer.assertValueCount(2)
+                .assertValueAt(0, changeSet -> changeSet.getAdded().containsKey(restaurant.getUId()))
+                .assertValueAt(1, changeSet -> changeSet.getRemoved().contains(restaurant.getUId())
+                        && changeSet.getAdded().containsKey(otherRestaurant.getUId()))
+                .dispose();
+    }
+
+    @Test
+    public void test_observeRestaurantList_checkListEmittedOncePendingThenOnceSettled() {
+        Restaurant restaurant = generateRestaurant();
+        Restaurant otherRestaurant = new Restaurant.Builder("ChIJmZKgsilwjEcRKVdZd_cE-4k").build();
+        TestObserver<HashMap<String, Restaurant>> observer = mRestaurantRepository.observeRestaurantList().test();
+
+        mRestaurantRepository.setNewListSize(2);
+        mRestaurantRepository.addPendingRestaurants(Arrays.asList(restaurant, otherRestaurant));
+        mRestaurantRepository.addNewRestaurant(generateRestaurantDetails());
+        mRestaurantRepository.addNewRestaurant(generateRestaurantDetails());
+        observer.assertValueCount(1);
+
+        mRestaurantRepository.addNewRestaurant(otherRestaurant);
+        observer.assertValueCount(2);
+
+        mRestaurantRepository.addNewRestaurant(generateRestaurantDetails());
+        observer.assertValueCount(3)
+                .dispose();
+    }
+
+    @Test
+    public void test_addNewRestaurant_givenOlderGeneration_checkRestaurantDropped() {
+        long oldGeneration = mRestaurantRepository.clearRestaurantList();
+        mRestaurantRepository.clearRestaurantList();
+
+        mRestaurantRepository.addNewRestaurant(generateRestaurant(), oldGeneration);
+
+        mRestaurantRepository.isRestaurantPresent(generateRestaurant().getUId())
+                .test()
+                .assertValue(false);
+    }
+
+    @Test
+    public void test_concurrentWritesAndReads_checkNoRestaurantLost() throws Exception {
+        int writerCount = 8;
+        int restaurantsPerWriter = 250;
+        int restaurantCount = writerCount * restaurantsPerWriter;
+        long generation = mRestaurantRepository.clearRestaurantList();
+        mRestaurantRepository.setNewListSize(restaurantCount, generation);
+
+        TestObserver<HashMap<String, Restaurant>> listObserver = mRestaurantRepository.observeRestaurantList().test();
+        TestObserver<RestaurantChangeSet> changesObserver = mRestaurantRepository.observeRestaurantChanges().test();
+
+        ExecutorService executor = Executors.newFixedThreadPool(writerCount + 2);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<?>> writers = new ArrayList<>();
+
+        for(int writer = 0; writer < writerCount; writer++) {
+            int firstIndex = writer * restaurantsPerWriter;
+            writers.add(executor.submit(() -> {
+                startLatch.await();
+                for(int i = firstIndex; i < firstIndex + restaurantsPerWriter; i++) {
+                    mRestaurantRepository.addNewRestaurant(new Restaurant.Builder("place_" + i).build(), generation);
+                }
+                return null;
+            }));
+        }
+        List<Future<?>> readers = new ArrayList<>();
+        for(int reader = 0; reader < 2; reader++) {
+            readers.add(executor.submit(() -> {
+                startLatch.await();
+                int i = 0;
+                while (writing.get()) {
+                    String placeId = "place_" + (i++ % restaurantCount);
+                    if(mRestaurantRepository.isRestaurantPresent(placeId).blockingFirst()) {
+                        mRestaurantRepository.getRestaurantWithId(placeId).blockingFirst();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        startLatch.countDown();
+        for(Future<?> future : writers) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+        for(Future<?> future : readers) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        listObserver.assertNoErrors()
+                .assertValueCount(1)
+                .assertValue(restaurantHashMap -> restaurantHashMap.size() == restaurantCount);
+
+        changesObserver.assertNoErrors().assertValueCount(restaurantCount);
+        List<RestaurantChangeSet> changeSets = changesObserver.values();
+        for(int i = 1; i < changeSets.size(); i++) {
+            assertEquals(changeSets.get(i - 1).getVersion() + 1, changeSets.get(i).getVersion());
+        }
+    }
+
     // ---------------
     // Generate data
     // ---------------
 
     private Restaurant generateRestaurant(){
-        Restaurant restaurant = new Restaurant("ChIJH274sClwjEcRniBZAsyAtH0");
-        restaurant.setName("Le viand'art");
+        Restaurant restaurant = new Restaurant.Builder("ChIJH274sClwjEcRniBZAsyAtH0")
+                .setName("Le viand'art")
+                .build();
 
         return restaurant;
     }
 
     private Restaurant generateRestaurantDetails(){
-        Restaurant restaurant = new Restaurant("ChIJH274sClwjEcRniBZAsyAtH0");
-        restaurant.setName("Le viand'art");
-        restaurant.setAddress("56 Rue de Genève, Ambilly");
-        restaurant.setPhoneNumber("+33 4 50 92 80 69");
-        restaurant.setWebsite("https://le-viandart.business.site/");
-        restaurant.setRating(4.2f);
-        restaurant.setPhotoUrl("ATtYBwJo7zHiJORkGmRCpOD8ig6tRng0akzKblJtuxoQth0O2-DQXmp-EPynI1qGkpz8PEjDpKOufkty-kt9jEH4i-5_xD0v-GpVmbLoesD9OqFEb-Bj_NQa0MAJRZIoiYxP4C0j64MWMRcDECscR2KMHV0zl6TRqumQAi0AnjzwVVmCepIp");
+        Restaurant.Builder restaurant = new Restaurant.Builder("ChIJH274sClwjEcRniBZAsyAtH0")
+                .setName("Le viand'art")
+                .setAddress("56 Rue de Genève, Ambilly")
+                .setPhoneNumber("+33 4 50 92 80 69")
+                .setWebsite("https://le-viandart.business.site/")
+                .setRating(4.2f)
+                .setPhotoUrl("ATtYBwJo7zHiJORkGmRCpOD8ig6tRng0akzKblJtuxoQth0O2-DQXmp-EPynI1qGkpz8PEjDpKOufkty-kt9jEH4i-5_xD0v-GpVmbLoesD9OqFEb-Bj_NQa0MAJRZIoiYxP4C0j64MWMRcDECscR2KMHV0zl6TRqumQAi0AnjzwVVmCepIp");
 
         for(int i = 0; i < Calendar.DAY_OF_WEEK; i++){
             OpenPeriod openPeriod = new OpenPeriod(1, 10, 0, 1, 20, 0);
-            restaurant.getOpeningPeriods().add(openPeriod);
+            restaurant.addOpeningPeriod(openPeriod);
         }
         restaurant.setOpeningHoursAvailable(true);
         restaurant.setAlwaysOpen(false);
 
-        return restaurant;
+        return restaurant.build();
     }
 }
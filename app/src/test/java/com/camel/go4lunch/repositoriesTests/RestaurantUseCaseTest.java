@@ -1,6 +1,9 @@
 package com.camel.go4lunch.repositoriesTests;
 
 import com.camel.go4lunch.api.PlacesService;
+import com.camel.go4lunch.cache.NearbyTileCache;
+import com.camel.go4lunch.cache.PlaceDetailsCache;
+import com.camel.go4lunch.models.Restaurant;
 import com.camel.go4lunch.models.Workmate;
 import com.camel.go4lunch.models.googlePlaceDetailsResult.AddressComponent;
 import com.camel.go4lunch.models.googlePlaceDetailsResult.Close;
@@ -24,27 +27,42 @@ import com.camel.go4lunch.utils.RxJavaSchedulersTestRule2;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.AdditionalMatchers;
 import org.mockito.Mockito;
 
+import java.net.SocketTimeoutException;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 import io.reactivex.Observable;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.PublishSubject;
 
 import static com.camel.go4lunch.mappers.NearbyPlacesResultToRestaurantMapper.OPERATIONAL_BUSINESS_STATUS;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 public class RestaurantUseCaseTest {
 
+    private static final double SEARCH_LATITUDE = 46.19184599999999;
+    private static final double SEARCH_LONGITUDE = 6.220219999999999;
+    private static final double SEARCH_RADIUS = 500;
+
     @Rule
     public RxJavaSchedulersTestRule2 rxRule = new RxJavaSchedulersTestRule2();
 
+    @Rule
+    public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
     RestaurantUseCase mRestaurantUseCase;
     PlacesService mPlacesService = Mockito.mock(PlacesService.class);
     WorkmatesRepository mWorkmatesRepository = Mockito.mock(WorkmatesRepository.class);
@@ -64,9 +82,11 @@ public class RestaurantUseCaseTest {
     @Before
     public void initRestaurantUseCase() {
         mRestaurantUseCase = new RestaurantUseCase(
-                new GooglePlacesRepository(mPlacesService),
+                new GooglePlacesRepository(mPlacesService, generatePlaceDetailsCache(), generateNearbyTileCache()),
                 new RestaurantRepository(),
-                mWorkmatesRepository);
+                mWorkmatesRepository,
+                Schedulers.trampoline(),
+                RestaurantUseCase.DEFAULT_MAX_CONCURRENCY);
 
         when(mPlacesService.fetchNearbyPlaces(any(), any(), any(), any())).thenReturn(Observable.just(mFirstPlaceSearchResults));
         when(mPlacesService.fetchNextPageNearbyPlaces(any(), any())).thenReturn(Observable.just(mSecondPlaceSearchResults));
@@ -76,13 +96,13 @@ public class RestaurantUseCaseTest {
                 .thenReturn(Observable.just(mSecondDetailsResults));
         when(mPlacesService.fetchDetailsForPlaceId(any(), any(), eq(mThirdPlaceId), any()))
                 .thenReturn(Observable.just(mThirdDetailsResults));
-        when(mWorkmatesRepository.getInterestedWorkmatesForRestaurants(eq(mFirstPlaceId))).thenReturn(Observable.just(mInterestedWorkmates));
-        when(mWorkmatesRepository.getInterestedWorkmatesForRestaurants(AdditionalMatchers.not(eq(mFirstPlaceId)))).thenReturn(Observable.just(new ArrayList<>()));
+        when(mWorkmatesRepository.getInterestedWorkmateIdsForRestaurant(eq(mFirstPlaceId))).thenReturn(Observable.just(getWorkmateIds(mInterestedWorkmates)));
+        when(mWorkmatesRepository.getInterestedWorkmateIdsForRestaurant(AdditionalMatchers.not(eq(mFirstPlaceId)))).thenReturn(Observable.just(new ArrayList<>()));
     }
 
     @Test
     public void test_getNearbyPlaces_checkRestaurantList(){
-        mRestaurantUseCase.getNearbyPlaces(0, 0, 0);
+        mRestaurantUseCase.getNearbyPlaces(SEARCH_LATITUDE, SEARCH_LONGITUDE, SEARCH_RADIUS);
 
         mRestaurantUseCase.observeRestaurantList()
                 .test()
@@ -92,9 +112,66 @@ public class RestaurantUseCaseTest {
                                 && Objects.requireNonNull(restaurantHashMap.get(mSecondPlaceId)).getName().equals(mSecondDetailsResults.getPlaceDetails().getName()));
     }
 
+    @Test
+    public void test_getNearbyPlaces_pendingRestaurantsEmittedBeforeDetails(){
+        PublishSubject<PlaceDetailsResults> firstDetailsSubject = PublishSubject.create();
+        when(mPlacesService.fetchDetailsForPlaceId(any(), any(), eq(mFirstPlaceId), any())).thenReturn(firstDetailsSubject);
+
+        mRestaurantUseCase.getNearbyPlaces(SEARCH_LATITUDE, SEARCH_LONGITUDE, SEARCH_RADIUS);
+
+        mRestaurantUseCase.observeRestaurantList()
+                .test()
+                .assertValue(restaurantHashMap ->
+                        restaurantHashMap.size() == mFirstPlaceSearchResults.getPlaceSearches().size()
+                                && !Objects.requireNonNull(restaurantHashMap.get(mFirstPlaceId)).isDetailsLoaded()
+                                && Objects.requireNonNull(restaurantHashMap.get(mFirstPlaceId)).getName().equals(mFirstPlaceSearchResults.getPlaceSearches().get(0).getName())
+                                && Objects.requireNonNull(restaurantHashMap.get(mSecondPlaceId)).isDetailsLoaded());
+
+        firstDetailsSubject.onNext(mFirstDetailsResults);
+
+        mRestaurantUseCase.observeRestaurantList()
+                .test()
+                .assertValue(restaurantHashMap -> Objects.requireNonNull(restaurantHashMap.get(mFirstPlaceId)).isDetailsLoaded());
+    }
+
+    @Test
+    public void test_getNearbyPlaces_givenFailingDetails_checkOtherRestaurantsPublished(){
+        when(mPlacesService.fetchDetailsForPlaceId(any(), any(), eq(mSecondPlaceId), any()))
+                .thenReturn(Observable.error(new SocketTimeoutException()));
+        TestObserver<Integer> failedItemsObserver = mRestaurantUseCase.observeFailedItems().test();
+        TestObserver<Exception> errorsObserver = mRestaurantUseCase.observeErrors().test();
+
+        mRestaurantUseCase.getNearbyPlaces(SEARCH_LATITUDE, SEARCH_LONGITUDE, SEARCH_RADIUS);
+
+        mRestaurantUseCase.observeRestaurantList()
+                .test()
+                .assertValue(restaurantHashMap ->
+                        restaurantHashMap.size() == mFirstPlaceSearchResults.getPlaceSearches().size()
+                                && Objects.requireNonNull(restaurantHashMap.get(mFirstPlaceId)).isDetailsLoaded()
+                                && !Objects.requireNonNull(restaurantHashMap.get(mSecondPlaceId)).isDetailsLoaded());
+        failedItemsObserver.assertValue(1);
+        errorsObserver.assertNoValues();
+    }
+
+    @Test
+    public void test_getNearbyPlaces_newSearchCancelsPreviousOne(){
+        PublishSubject<PlaceSearchResults> firstSearchSubject = PublishSubject.create();
+        when(mPlacesService.fetchNearbyPlaces(any(), any(), any(), any())).thenReturn(firstSearchSubject);
+        mRestaurantUseCase.getNearbyPlaces(SEARCH_LATITUDE, SEARCH_LONGITUDE, SEARCH_RADIUS);
+        assertTrue(firstSearchSubject.hasObservers());
+
+        when(mPlacesService.fetchNearbyPlaces(any(), any(), any(), any())).thenReturn(Observable.just(mFirstPlaceSearchResults));
+        mRestaurantUseCase.getNearbyPlaces(SEARCH_LATITUDE, SEARCH_LONGITUDE, SEARCH_RADIUS);
+
+        assertFalse(firstSearchSubject.hasObservers());
+        mRestaurantUseCase.observeRestaurantList()
+                .test()
+                .assertValue(restaurantHashMap -> restaurantHashMap.size() == mFirstPlaceSearchResults.getPlaceSearches().size());
+    }
+
     @Test
     public void test_loadNextPage_checkNewListSizeAndNewPlaceName(){
-        mRestaurantUseCase.getNearbyPlaces(0, 0, 0);
+        mRestaurantUseCase.getNearbyPlaces(SEARCH_LATITUDE, SEARCH_LONGITUDE, SEARCH_RADIUS);
 
         mRestaurantUseCase.observeRestaurantList()
                 .test()
@@ -120,7 +197,7 @@ public class RestaurantUseCaseTest {
         when(mPlacesService.fetchDetailsForPlaceId(any(), any(), eq(placeDetailsResults.getPlaceDetails().getPlaceId()), any()))
                 .thenReturn(Observable.just(placeDetailsResults));
 
-        mRestaurantUseCase.getNearbyPlaces(0, 0, 0);
+        mRestaurantUseCase.getNearbyPlaces(SEARCH_LATITUDE, SEARCH_LONGITUDE, SEARCH_RADIUS);
 
         mRestaurantUseCase.observeRestaurantList()
                 .test()
@@ -131,9 +208,31 @@ public class RestaurantUseCaseTest {
                 .assertValue(restaurantHashMap -> Objects.requireNonNull(restaurantHashMap.get(placeId)).getName().equals("Bfc Tandoori"));
     }
 
+    @Test
+    public void test_getNearbyPlace_openNowKeptWhenDetailsHaveNoOpeningHours(){
+        PlaceSearchResults placeSearchResults = generateNearbySearchResultsForMinimumDataCheck();
+        placeSearchResults.getPlaceSearches().get(0).setOpeningHours(new com.camel.go4lunch.models.googlePlaceResult.OpeningHours());
+        placeSearchResults.getPlaceSearches().get(0).getOpeningHours().setOpenNow(true);
+        PlaceDetailsResults placeDetailsResults = generatePlaceDetailsResultsWithMinimumData();
+        String placeId = placeDetailsResults.getPlaceDetails().getPlaceId();
+
+        when(mPlacesService.fetchNearbyPlaces(any(), any(), any(), any())).thenReturn(Observable.just(placeSearchResults));
+        when(mPlacesService.fetchDetailsForPlaceId(any(), any(), eq(placeId), any()))
+                .thenReturn(Observable.just(placeDetailsResults));
+
+        mRestaurantUseCase.getNearbyPlaces(SEARCH_LATITUDE, SEARCH_LONGITUDE, SEARCH_RADIUS);
+
+        mRestaurantUseCase.observeRestaurantList()
+                .test()
+                .assertValue(restaurantHashMap -> {
+                    Restaurant restaurant = Objects.requireNonNull(restaurantHashMap.get(placeId));
+                    return restaurant.isDetailsLoaded() && Boolean.TRUE.equals(restaurant.getOpenNow());
+                });
+    }
+
     @Test
     public void test_observeRestaurantList_checkInterestedWorkmatesWhenTwoInterested(){
-        mRestaurantUseCase.getNearbyPlaces(0, 0, 0);
+        mRestaurantUseCase.getNearbyPlaces(SEARCH_LATITUDE, SEARCH_LONGITUDE, SEARCH_RADIUS);
 
         mRestaurantUseCase.observeRestaurantList()
                 .test()
@@ -143,7 +242,7 @@ public class RestaurantUseCaseTest {
 
     @Test
     public void test_observeRestaurantList_checkInterestedWorkmatesWhenNoInterested(){
-        mRestaurantUseCase.getNearbyPlaces(0, 0, 0);
+        mRestaurantUseCase.getNearbyPlaces(SEARCH_LATITUDE, SEARCH_LONGITUDE, SEARCH_RADIUS);
 
         mRestaurantUseCase.observeRestaurantList()
                 .test()
@@ -154,6 +253,14 @@ public class RestaurantUseCaseTest {
     // Generate data
     // ---------------
 
+    private PlaceDetailsCache generatePlaceDetailsCache() {
+        return new PlaceDetailsCache(mTemporaryFolder.getRoot(), TimeUnit.DAYS.toMillis(1), 1024 * 1024);
+    }
+
+    private NearbyTileCache generateNearbyTileCache() {
+        return new NearbyTileCache(TimeUnit.HOURS.toMillis(1), TimeUnit.MINUTES.toMillis(2), 100);
+    }
+
     private PlaceSearchResults generateNearbySearchFirstResults() {
         PlaceSearch placeSearch1 = new PlaceSearch();
         placeSearch1.setName("Le viand'art");
@@ -373,6 +480,14 @@ public class RestaurantUseCaseTest {
         return result;
     }
 
+    private List<String> getWorkmateIds(List<Workmate> workmates){
+        List<String> workmateIds = new ArrayList<>();
+        for (Workmate workmate : workmates) {
+            workmateIds.add(workmate.getUId());
+        }
+        return workmateIds;
+    }
+
     private List<Workmate> generateWorkmateList(){
         List<Workmate> workmateList = new ArrayList<>();
 
@@ -0,0 +1,306 @@
+package com.camel.go4lunch.repositoriesTests;
+
+import com.camel.go4lunch.models.Workmate;
+import com.camel.go4lunch.models.WorkmateChangeSet;
+import com.camel.go4lunch.models.WorkmatesPage;
+import com.camel.go4lunch.repositories.WorkmatesPager;
+import com.camel.go4lunch.repositories.WorkmatesRepository;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.BehaviorSubject;
+import io.reactivex.subjects.PublishSubject;
+
+import static com.camel.go4lunch.repositories.WorkmatesPager.PAGE_SIZE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WorkmatesPagerTest {
+
+    private static final String TODAY = "2021-03-15";
+    private static final String TOMORROW = "2021-03-16";
+
+    WorkmatesRepository mWorkmatesRepository = Mockito.mock(WorkmatesRepository.class);
+    DocumentSnapshot mFirstPageLastDocument = Mockito.mock(DocumentSnapshot.class);
+    DocumentSnapshot mSecondPageLastDocument = Mockito.mock(DocumentSnapshot.class);
+    PublishSubject<WorkmatesPage> mFirstPage = PublishSubject.create();
+    PublishSubject<WorkmatesPage> mSecondPage = PublishSubject.create();
+    PublishSubject<WorkmatesPage> mThirdPage = PublishSubject.create();
+    DocumentSnapshot mChosenPageLastDocument = Mockito.mock(DocumentSnapshot.class);
+    PublishSubject<WorkmatesPage> mChosenPage = PublishSubject.create();
+    PublishSubject<WorkmatesPage> mSecondChosenPage = PublishSubject.create();
+    PublishSubject<WorkmatesPage> mTomorrowChosenPage = PublishSubject.create();
+    BehaviorSubject<String> mTodayId = BehaviorSubject.createDefault(TODAY);
+
+    WorkmatesPager mWorkmatesPager;
+
+    @Before
+    public void initWorkmatesPager() {
+        when(mWorkmatesRepository.observeWorkmatesPage(isNull(), eq(PAGE_SIZE))).thenReturn(mFirstPage);
+        when(mWorkmatesRepository.observeWorkmatesPage(eq(mFirstPageLastDocument), eq(PAGE_SIZE))).thenReturn(mSecondPage);
+        when(mWorkmatesRepository.observeWorkmatesPage(eq(mSecondPageLastDocument), eq(PAGE_SIZE))).thenReturn(mThirdPage);
+        when(mWorkmatesRepository.observeTodayId()).thenReturn(mTodayId);
+        when(mWorkmatesRepository.observeChosenWorkmatesPage(eq(TODAY), isNull(), eq(PAGE_SIZE))).thenReturn(mChosenPage);
+        when(mWorkmatesRepository.observeChosenWorkmatesPage(eq(TODAY), eq(mChosenPageLastDocument), eq(PAGE_SIZE))).thenReturn(mSecondChosenPage);
+        when(mWorkmatesRepository.observeChosenWorkmatesPage(eq(TOMORROW), isNull(), eq(PAGE_SIZE))).thenReturn(mTomorrowChosenPage);
+        mWorkmatesPager = new WorkmatesPager(mWorkmatesRepository);
+    }
+
+    @Test
+    public void test_start_loadsFirstPageOnly() {
+        TestObserver<WorkmateChangeSet> observer = mWorkmatesPager.observeWorkmates().test();
+
+        startWithoutChoices();
+        mFirstPage.onNext(page(generateWorkmates(0, PAGE_SIZE), mFirstPageLastDocument));
+
+        observer.assertValueCount(2);
+        assertEquals(PAGE_SIZE, observer.values().get(1).getWorkmates().size());
+        assertEquals(PAGE_SIZE, observer.values().get(1).getAdded().size());
+        verify(mWorkmatesRepository, never()).observeWorkmatesPage(eq(mFirstPageLastDocument), eq(PAGE_SIZE));
+    }
+
+    @Test
+    public void test_scrollToEnd_loadsNextPageAfterCursor() {
+        TestObserver<WorkmateChangeSet> observer = mWorkmatesPager.observeWorkmates().test();
+        startWithoutChoices();
+        mFirstPage.onNext(page(generateWorkmates(0, PAGE_SIZE), mFirstPageLastDocument));
+
+        showRows(observer, 10, PAGE_SIZE - 5);
+        mSecondPage.onNext(page(generateWorkmates(PAGE_SIZE, 3), mSecondPageLastDocument));
+
+        WorkmateChangeSet changeSet = observer.values().get(observer.valueCount() - 1);
+        assertEquals(PAGE_SIZE + 3, changeSet.getWorkmates().size());
+        assertEquals(3, changeSet.getAdded().size());
+        assertEquals(generateWorkmates(PAGE_SIZE, 1).get(0).getUId(), changeSet.getWorkmates().get(PAGE_SIZE).getUId());
+
+        // A short page is the last one
+        showRows(observer, PAGE_SIZE, PAGE_SIZE + 2);
+        verify(mWorkmatesRepository, never()).observeWorkmatesPage(eq(mSecondPageLastDocument), eq(PAGE_SIZE));
+    }
+
+    @Test
+    public void test_scrollAway_detachesFarPagesAndKeepsTheirContent() {
+        TestObserver<WorkmateChangeSet> observer = mWorkmatesPager.observeWorkmates().test();
+        startWithoutChoices();
+        mFirstPage.onNext(page(generateWorkmates(0, PAGE_SIZE), mFirstPageLastDocument));
+        showRows(observer, PAGE_SIZE - 10, PAGE_SIZE - 1);
+        mSecondPage.onNext(page(generateWorkmates(PAGE_SIZE, PAGE_SIZE), mSecondPageLastDocument));
+        showRows(observer, 2 * PAGE_SIZE - 10, 2 * PAGE_SIZE - 1);
+        mThirdPage.onNext(page(generateWorkmates(2 * PAGE_SIZE, PAGE_SIZE), null));
+
+        showRows(observer, 2 * PAGE_SIZE + 10, 2 * PAGE_SIZE + 15);
+
+        assertFalse(mFirstPage.hasObservers());
+        assertTrue(mSecondPage.hasObservers());
+        assertTrue(mThirdPage.hasObservers());
+        assertTrue(mChosenPage.hasObservers());                 // The last page of choices stays live
+        assertEquals(3, mWorkmatesPager.getLivePageCount());
+        assertEquals(3 * PAGE_SIZE, lastWorkmates(observer).size());
+
+        showRows(observer, 0, 5);
+        assertTrue(mFirstPage.hasObservers());
+        assertTrue(mSecondPage.hasObservers());
+        assertFalse(mThirdPage.hasObservers());
+    }
+
+    @Test
+    public void test_workmateMovedToAnotherPage_isShownOnce() {
+        TestObserver<WorkmateChangeSet> observer = mWorkmatesPager.observeWorkmates().test();
+        startWithoutChoices();
+        mFirstPage.onNext(page(generateWorkmates(0, PAGE_SIZE), mFirstPageLastDocument));
+        showRows(observer, PAGE_SIZE - 10, PAGE_SIZE - 1);
+        mSecondPage.onNext(page(generateWorkmates(PAGE_SIZE, 3), mSecondPageLastDocument));
+
+        mSecondPage.onNext(new WorkmatesPage(generateWorkmates(0, 1), new ArrayList<>(), 4, mSecondPageLastDocument));
+
+        assertEquals(PAGE_SIZE + 3, lastWorkmates(observer).size());
+    }
+
+    @Test
+    public void test_clear_detachesEveryPage() {
+        startWithoutChoices();
+        mFirstPage.onNext(page(generateWorkmates(0, PAGE_SIZE), mFirstPageLastDocument));
+
+        mWorkmatesPager.clear();
+
+        assertFalse(mFirstPage.hasObservers());
+        assertFalse(mChosenPage.hasObservers());
+        assertFalse(mTodayId.hasObservers());
+        assertEquals(0, mWorkmatesPager.getLivePageCount());
+    }
+
+    @Test
+    public void test_chosenWorkmates_listedFirstByRestaurantNameIgnoringCase() {
+        TestObserver<WorkmateChangeSet> observer = mWorkmatesPager.observeWorkmates().test();
+        mWorkmatesPager.start();
+
+        // The third one is on a page of the collection not loaded yet
+        List<Workmate> chosenWorkmates = new ArrayList<>();
+        chosenWorkmates.add(generateChosenWorkmate(PAGE_SIZE + 5, "burger King"));
+        chosenWorkmates.add(generateChosenWorkmate(10, "Pizza Hut"));
+        chosenWorkmates.add(generateChosenWorkmate(5, "sushi bar"));
+        mChosenPage.onNext(page(chosenWorkmates, mChosenPageLastDocument));
+        mFirstPage.onNext(page(generateWorkmates(0, PAGE_SIZE), mFirstPageLastDocument));
+
+        List<Workmate> workmates = lastWorkmates(observer);
+        assertEquals(PAGE_SIZE + 1, workmates.size());
+        assertEquals("burger King", workmates.get(0).getChosenRestaurantName());
+        assertEquals("Pizza Hut", workmates.get(1).getChosenRestaurantName());
+        assertEquals("sushi bar", workmates.get(2).getChosenRestaurantName());
+        assertEquals(generateWorkmates(0, 1).get(0).getUId(), workmates.get(3).getUId());
+        assertEquals(generateWorkmates(PAGE_SIZE - 1, 1).get(0).getUId(), workmates.get(PAGE_SIZE).getUId());
+    }
+
+    @Test
+    public void test_chosenPages_loadBeforeOtherWorkmates() {
+        TestObserver<WorkmateChangeSet> observer = mWorkmatesPager.observeWorkmates().test();
+        mWorkmatesPager.start();
+        List<Workmate> chosenWorkmates = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            chosenWorkmates.add(generateChosenWorkmate(i, "Pizza Hut"));
+        }
+        mChosenPage.onNext(page(chosenWorkmates, mChosenPageLastDocument));
+
+        verify(mWorkmatesRepository, never()).observeWorkmatesPage(isNull(), eq(PAGE_SIZE));
+
+        // The next choices are paged from the cursor, a short page ends them and starts the other workmates
+        showRows(observer, PAGE_SIZE - 10, PAGE_SIZE - 1);
+        assertTrue(mSecondChosenPage.hasObservers());
+        assertFalse(mFirstPage.hasObservers());
+        mSecondChosenPage.onNext(page(generateWorkmates(PAGE_SIZE, 0), null));
+
+        assertTrue(mFirstPage.hasObservers());
+        assertEquals(PAGE_SIZE, lastWorkmates(observer).size());
+    }
+
+    @Test
+    public void test_dayChange_replacesChosenSection() {
+        TestObserver<WorkmateChangeSet> observer = mWorkmatesPager.observeWorkmates().test();
+        mWorkmatesPager.start();
+        List<Workmate> chosenWorkmates = new ArrayList<>();
+        chosenWorkmates.add(generateChosenWorkmate(3, "Pizza Hut"));
+        mChosenPage.onNext(page(chosenWorkmates, mChosenPageLastDocument));
+        mFirstPage.onNext(page(generateWorkmates(0, PAGE_SIZE), mFirstPageLastDocument));
+        assertEquals("Pizza Hut", lastWorkmates(observer).get(0).getChosenRestaurantName());
+
+        mTodayId.onNext(TOMORROW);
+
+        assertFalse(mChosenPage.hasObservers());
+        assertTrue(mTomorrowChosenPage.hasObservers());
+        WorkmateChangeSet changeSet = observer.values().get(observer.valueCount() - 1);
+        assertEquals(1, changeSet.getModified().size());
+        assertEquals(PAGE_SIZE, changeSet.getWorkmates().size());
+        assertEquals("", changeSet.getWorkmates().get(3).getChosenRestaurantName());
+    }
+
+    @Test
+    public void test_documentChanges_onlyMoveTheirRows() {
+        TestObserver<WorkmateChangeSet> observer = mWorkmatesPager.observeWorkmates().test();
+        startWithoutChoices();
+        mFirstPage.onNext(page(generateWorkmates(0, PAGE_SIZE), mFirstPageLastDocument));
+
+        List<Workmate> modified = new ArrayList<>();
+        modified.add(generateChosenWorkmate(7, "Pizza Hut"));
+        List<String> removed = new ArrayList<>();
+        removed.add(generateWorkmates(3, 1).get(0).getUId());
+        mFirstPage.onNext(new WorkmatesPage(modified, removed, PAGE_SIZE - 1, mFirstPageLastDocument));
+
+        WorkmateChangeSet changeSet = observer.values().get(observer.valueCount() - 1);
+        assertTrue(changeSet.getAdded().isEmpty());
+        assertEquals(1, changeSet.getModified().size());
+        assertEquals(removed, changeSet.getRemoved());
+        assertEquals(PAGE_SIZE - 1, changeSet.getWorkmates().size());
+        assertEquals("Pizza Hut", changeSet.getWorkmates().get(0).getChosenRestaurantName());
+    }
+
+    @Test
+    public void test_pageAttachedAgain_dropsRowsThatLeftIt() {
+        TestObserver<WorkmateChangeSet> observer = mWorkmatesPager.observeWorkmates().test();
+        startWithoutChoices();
+        mFirstPage.onNext(page(generateWorkmates(0, PAGE_SIZE), mFirstPageLastDocument));
+        showRows(observer, PAGE_SIZE - 10, PAGE_SIZE - 1);
+        mSecondPage.onNext(page(generateWorkmates(PAGE_SIZE, PAGE_SIZE), mSecondPageLastDocument));
+        showRows(observer, 2 * PAGE_SIZE - 10, 2 * PAGE_SIZE - 1);
+        mThirdPage.onNext(page(generateWorkmates(2 * PAGE_SIZE, PAGE_SIZE), null));
+        showRows(observer, 2 * PAGE_SIZE + 10, 2 * PAGE_SIZE + 15);
+        assertFalse(mFirstPage.hasObservers());
+
+        // The first workmate was deleted while the first page was detached
+        showRows(observer, 0, 5);
+        mFirstPage.onNext(page(generateWorkmates(1, PAGE_SIZE - 1), mFirstPageLastDocument));
+
+        WorkmateChangeSet changeSet = observer.values().get(observer.valueCount() - 1);
+        assertEquals(1, changeSet.getRemoved().size());
+        assertEquals(generateWorkmates(0, 1).get(0).getUId(), changeSet.getRemoved().get(0));
+        assertEquals(3 * PAGE_SIZE - 1, changeSet.getWorkmates().size());
+    }
+
+    @Test
+    public void test_observeWorkmates_laterObserverStartsWithEveryRow() {
+        startWithoutChoices();
+        mFirstPage.onNext(page(generateWorkmates(0, PAGE_SIZE), mFirstPageLastDocument));
+
+        TestObserver<WorkmateChangeSet> observer = mWorkmatesPager.observeWorkmates().test();
+
+        observer.assertValueCount(1);
+        assertEquals(PAGE_SIZE, observer.values().get(0).getAdded().size());
+        assertEquals(PAGE_SIZE, observer.values().get(0).getWorkmates().size());
+    }
+
+    // Nobody chose a restaurant today, the first page of the collection is loaded right away
+    private void startWithoutChoices() {
+        mWorkmatesPager.start();
+        mChosenPage.onNext(page(new ArrayList<>(), null));
+    }
+
+    private List<Workmate> lastWorkmates(TestObserver<WorkmateChangeSet> observer) {
+        return observer.values().get(observer.valueCount() - 1).getWorkmates();
+    }
+
+    // The rows between both positions of the last list emitted, as the fragment reports them
+    private void showRows(TestObserver<WorkmateChangeSet> observer, int firstPosition, int lastPosition) {
+        List<Workmate> workmates = lastWorkmates(observer);
+        mWorkmatesPager.onVisibleRangeChanged(workmates.subList(firstPosition, lastPosition + 1),
+                workmates.size() - 1 - lastPosition);
+    }
+
+    // ---------------
+    // Generate data
+    // ---------------
+
+    // First snapshot of a page listener, every document is added
+    private WorkmatesPage page(List<Workmate> workmates, DocumentSnapshot lastDocument) {
+        return new WorkmatesPage(workmates, new ArrayList<>(), workmates.size(), lastDocument);
+    }
+
+    private List<Workmate> generateWorkmates(int firstIndex, int count) {
+        List<Workmate> workmates = new ArrayList<>();
+        for (int i = firstIndex; i < firstIndex + count; i++) {
+            workmates.add(new Workmate(String.format(Locale.ROOT, "workmate%03d", i), "John Doe " + i, "John " + i, null, null));
+        }
+        return workmates;
+    }
+
+    private Workmate generateChosenWorkmate(int index, String restaurantName) {
+        Workmate workmate = generateWorkmates(index, 1).get(0);
+        workmate.setChosenRestaurantId("restaurant" + index);
+        workmate.setChosenRestaurantName(restaurantName);
+        workmate.setChosenRestaurantDate(new Date());
+        return workmate;
+    }
+}
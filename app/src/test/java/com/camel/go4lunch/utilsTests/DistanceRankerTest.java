@@ -0,0 +1,84 @@
+package com.camel.go4lunch.utilsTests;
+
+import com.camel.go4lunch.utils.DistanceRanker;
+import com.camel.go4lunch.utils.DistanceUtils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DistanceRankerTest {
+    private static final double STEP_METERS = 10;
+
+    // Two restaurants on the same street, about 220 meters apart
+    private static final double[] LATITUDES = {48.8584, 48.8604};
+    private static final double[] LONGITUDES = {2.2945, 2.2945};
+
+    @Test
+    public void test_update_firstUpdateIsAccepted() {
+        DistanceRanker ranker = new DistanceRanker(STEP_METERS);
+        ranker.setPoints(LATITUDES, LONGITUDES);
+
+        assertTrue(ranker.update(48.8580, 2.2945));
+        assertEquals(0, ranker.getIndexAt(0));
+        assertEquals(1, ranker.getIndexAt(1));
+    }
+
+    @Test
+    public void test_update_smallMoveIsDropped() {
+        DistanceRanker ranker = new DistanceRanker(STEP_METERS);
+        ranker.setPoints(LATITUDES, LONGITUDES);
+        ranker.update(48.8580, 2.2945);
+        double shownDistance = ranker.getDistance(0);
+
+        // About 2 meters north
+        assertFalse(ranker.update(48.85802, 2.2945));
+        assertEquals(shownDistance, ranker.getDistance(0), 0);
+    }
+
+    @Test
+    public void test_update_distanceStepIsAccepted() {
+        DistanceRanker ranker = new DistanceRanker(STEP_METERS);
+        ranker.setPoints(LATITUDES, LONGITUDES);
+        ranker.update(48.8580, 2.2945);
+
+        // About 22 meters north
+        assertTrue(ranker.update(48.8582, 2.2945));
+        assertEquals(0, ranker.getIndexAt(0));
+    }
+
+    @Test
+    public void test_update_crossingRestaurantsChangesRanking() {
+        DistanceRanker ranker = new DistanceRanker(STEP_METERS);
+        ranker.setPoints(LATITUDES, LONGITUDES);
+        ranker.update(48.8580, 2.2945);
+
+        assertTrue(ranker.update(48.8608, 2.2945));
+        assertEquals(1, ranker.getIndexAt(0));
+        assertEquals(0, ranker.getIndexAt(1));
+    }
+
+    @Test
+    public void test_update_pointWithoutCoordinatesIsRankedLast() {
+        DistanceRanker ranker = new DistanceRanker(STEP_METERS);
+        ranker.setPoints(new double[]{Double.NaN, 48.8604}, new double[]{Double.NaN, 2.2945});
+
+        assertTrue(ranker.update(48.8580, 2.2945));
+        assertEquals(1, ranker.getIndexAt(0));
+        assertEquals(0, ranker.getIndexAt(1));
+    }
+
+    @Test
+    public void test_update_distancesMatchDistanceBetween() {
+        DistanceRanker ranker = new DistanceRanker(STEP_METERS);
+        ranker.setPoints(LATITUDES, LONGITUDES);
+        ranker.update(48.8530, 2.3499);
+
+        for (int i = 0; i < LATITUDES.length; i++) {
+            assertEquals(DistanceUtils.distanceBetween(48.8530, 2.3499, LATITUDES[i], LONGITUDES[i]),
+                    ranker.getDistance(i), 0.01);
+        }
+    }
+}
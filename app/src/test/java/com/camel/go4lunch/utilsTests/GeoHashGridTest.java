@@ -0,0 +1,77 @@
+package com.camel.go4lunch.utilsTests;
+
+import com.camel.go4lunch.utils.GeoHashGrid;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GeoHashGridTest {
+
+    @Test
+    public void test_queryBounds_returnsOnlyPlacesInsideTheBox() {
+        GeoHashGrid grid = generateGrid();
+
+        List<String> ids = grid.queryBounds(46.1910, 6.2180, 46.1925, 6.2210);
+
+        assertEquals(2, ids.size());
+        assertTrue(ids.contains("Le viand'art"));
+        assertTrue(ids.contains("Mizuki"));
+    }
+
+    @Test
+    public void test_queryBounds_wideBoxReturnsEveryPlace() {
+        GeoHashGrid grid = generateGrid();
+
+        assertEquals(4, grid.queryBounds(-90, -180, 90, 180).size());
+    }
+
+    @Test
+    public void test_queryNearest_returnsClosestPlacesInOrder() {
+        GeoHashGrid grid = generateGrid();
+
+        List<String> ids = grid.queryNearest(46.19184599999999, 6.220219999999999, 3);
+
+        assertEquals(Arrays.asList("Le viand'art", "Mizuki", "Lunch Time"), ids);
+    }
+
+    @Test
+    public void test_queryNearest_fallsBackToFarPlaces() {
+        GeoHashGrid grid = generateGrid();
+
+        List<String> ids = grid.queryNearest(46.19184599999999, 6.220219999999999, 10);
+
+        assertEquals(4, ids.size());
+        assertEquals("Chez Paris", ids.get(3));
+    }
+
+    @Test
+    public void test_put_movesAndRemoveForgetsPlace() {
+        GeoHashGrid grid = generateGrid();
+
+        grid.put("Mizuki", 48.8566, 2.3522);
+        assertFalse(grid.queryBounds(46.1910, 6.2180, 46.1925, 6.2210).contains("Mizuki"));
+
+        grid.remove("Le viand'art");
+        assertTrue(grid.queryBounds(46.1910, 6.2180, 46.1925, 6.2210).isEmpty());
+        assertEquals(3, grid.size());
+    }
+
+    // ---------------
+    // Generate data
+    // ---------------
+
+    private GeoHashGrid generateGrid() {
+        GeoHashGrid grid = new GeoHashGrid(6);
+        grid.put("Le viand'art", 46.1918, 6.2202);
+        grid.put("Mizuki", 46.1918519, 6.219075699999999);
+        grid.put("Lunch Time", 46.1913187, 6.2125187);
+        grid.put("Chez Paris", 48.8566, 2.3522);
+        return grid;
+    }
+}
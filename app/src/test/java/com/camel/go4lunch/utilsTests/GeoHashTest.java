@@ -0,0 +1,39 @@
+package com.camel.go4lunch.utilsTests;
+
+import com.camel.go4lunch.utils.GeoHash;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GeoHashTest {
+
+    @Test
+    public void test_encode_checkKnownHash() {
+        assertEquals("u0hq", GeoHash.encode(46.19184599999999, 6.220219999999999, 4));
+    }
+
+    @Test
+    public void test_getBounds_containsEncodedPoint() {
+        String hash = GeoHash.encode(46.19184599999999, 6.220219999999999, 7);
+        double[] bounds = GeoHash.getBounds(hash);
+
+        assertTrue(bounds[GeoHash.MIN_LAT] <= 46.19184599999999 && 46.19184599999999 < bounds[GeoHash.MAX_LAT]);
+        assertTrue(bounds[GeoHash.MIN_LNG] <= 6.220219999999999 && 6.220219999999999 < bounds[GeoHash.MAX_LNG]);
+        assertTrue(GeoHash.contains(hash, 46.19184599999999, 6.220219999999999));
+        assertFalse(GeoHash.contains(hash, 46.1913187, 6.2125187));
+    }
+
+    @Test
+    public void test_getCoveringCells_containsSearchCenterAndNeighbour() {
+        List<String> cells = GeoHash.getCoveringCells(46.19184599999999, 6.220219999999999, 500, 6);
+
+        assertTrue(cells.contains(GeoHash.encode(46.19184599999999, 6.220219999999999, 6)));
+        assertTrue(cells.contains(GeoHash.encode(46.1918519, 6.219075699999999, 6)));
+        assertTrue(cells.size() <= 12);
+    }
+}
@@ -0,0 +1,94 @@
+package com.camel.go4lunch.utilsTests;
+
+import com.camel.go4lunch.utils.LikedRestaurantsBuffer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LikedRestaurantsBufferTest {
+
+    @Test
+    public void test_toggle_appliesOverServerList() {
+        LikedRestaurantsBuffer buffer = new LikedRestaurantsBuffer();
+        List<String> serverLiked = Arrays.asList("1", "2");
+
+        assertTrue(buffer.toggle("3", serverLiked));
+        assertFalse(buffer.toggle("1", serverLiked));
+
+        assertEquals(Arrays.asList("2", "3"), buffer.apply(serverLiked));
+        assertTrue(buffer.hasPendingLikes());
+    }
+
+    @Test
+    public void test_drain_toggledBackRestaurantIsNotWritten() {
+        LikedRestaurantsBuffer buffer = new LikedRestaurantsBuffer();
+        List<String> serverLiked = Collections.singletonList("1");
+
+        buffer.toggle("2", serverLiked);
+        buffer.toggle("2", serverLiked);
+        buffer.toggle("1", serverLiked);
+        buffer.toggle("1", serverLiked);
+
+        assertNull(buffer.drain(serverLiked));
+        assertFalse(buffer.hasPendingLikes());
+        assertEquals(serverLiked, buffer.apply(serverLiked));
+    }
+
+    @Test
+    public void test_drain_returnsDeltas() {
+        LikedRestaurantsBuffer buffer = new LikedRestaurantsBuffer();
+        List<String> serverLiked = Arrays.asList("1", "2");
+
+        buffer.toggle("3", serverLiked);
+        buffer.toggle("4", serverLiked);
+        buffer.toggle("1", serverLiked);
+        LikedRestaurantsBuffer.Write write = buffer.drain(serverLiked);
+
+        assertEquals(Arrays.asList("3", "4"), write.getAdded());
+        assertEquals(Collections.singletonList("1"), write.getRemoved());
+        assertFalse(buffer.hasPendingLikes());
+    }
+
+    @Test
+    public void test_apply_keepsWritesInFlight() {
+        LikedRestaurantsBuffer buffer = new LikedRestaurantsBuffer();
+        List<String> serverLiked = new ArrayList<>();
+
+        buffer.toggle("1", serverLiked);
+        LikedRestaurantsBuffer.Write write = buffer.drain(serverLiked);
+        assertEquals(Collections.singletonList("1"), buffer.apply(serverLiked));
+
+        // Toggled back while the like is being written
+        assertFalse(buffer.toggle("1", serverLiked));
+        LikedRestaurantsBuffer.Write secondWrite = buffer.drain(serverLiked);
+        assertEquals(Collections.singletonList("1"), secondWrite.getRemoved());
+        assertTrue(buffer.apply(serverLiked).isEmpty());
+
+        buffer.onWriteCompleted(write);
+        buffer.onWriteCompleted(secondWrite);
+        assertTrue(buffer.apply(serverLiked).isEmpty());
+    }
+
+    @Test
+    public void test_onWriteCompleted_failedWriteIsRolledBack() {
+        LikedRestaurantsBuffer buffer = new LikedRestaurantsBuffer();
+        List<String> serverLiked = Collections.singletonList("1");
+
+        buffer.toggle("2", serverLiked);
+        LikedRestaurantsBuffer.Write write = buffer.drain(serverLiked);
+        assertEquals(Arrays.asList("1", "2"), buffer.apply(serverLiked));
+
+        // The server list did not change, the like is gone once the write is over
+        buffer.onWriteCompleted(write);
+        assertEquals(serverLiked, buffer.apply(serverLiked));
+    }
+}
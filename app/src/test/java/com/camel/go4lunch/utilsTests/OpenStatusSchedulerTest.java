@@ -0,0 +1,83 @@
+package com.camel.go4lunch.utilsTests;
+
+import com.camel.go4lunch.models.OpenPeriod;
+import com.camel.go4lunch.models.Restaurant;
+import com.camel.go4lunch.utils.OpenStatusScheduler;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OpenStatusSchedulerTest {
+
+    @Test
+    public void test_getNextChangeMillis_givenOpenRestaurant_checkClosingSoon() {
+        OpenStatusScheduler scheduler = new OpenStatusScheduler();
+        Calendar now = generateMonday(10, 30);
+
+        scheduler.reset(Arrays.asList(generateRestaurant("1", 10, 12)), now);
+
+        // "open" becomes "open until" once less than an hour is left, at 11:01
+        assertEquals(generateMonday(11, 1).getTimeInMillis(), scheduler.getNextChangeMillis());
+    }
+
+    @Test
+    public void test_getNextChangeMillis_givenClosedRestaurant_checkOpening() {
+        OpenStatusScheduler scheduler = new OpenStatusScheduler();
+
+        scheduler.reset(Arrays.asList(generateRestaurant("1", 14, 18)), generateMonday(12, 30));
+
+        assertEquals(generateMonday(14, 0).getTimeInMillis(), scheduler.getNextChangeMillis());
+    }
+
+    @Test
+    public void test_pollDue_onlyReturnsDueRestaurants() {
+        OpenStatusScheduler scheduler = new OpenStatusScheduler();
+        Restaurant lunch = generateRestaurant("1", 10, 12);
+        Restaurant dinner = generateRestaurant("2", 19, 23);
+        scheduler.reset(Arrays.asList(lunch, dinner), generateMonday(11, 30));
+
+        assertTrue(scheduler.pollDue(generateMonday(11, 59)).isEmpty());
+
+        List<Restaurant> dueRestaurants = scheduler.pollDue(generateMonday(12, 0));
+        assertEquals(1, dueRestaurants.size());
+        assertEquals("1", dueRestaurants.get(0).getUId());
+
+        // The lunch restaurant is scheduled again for its next opening, the dinner one comes first
+        assertEquals(generateMonday(19, 0).getTimeInMillis(), scheduler.getNextChangeMillis());
+    }
+
+    @Test
+    public void test_getNextChangeMillis_givenNoChange() {
+        OpenStatusScheduler scheduler = new OpenStatusScheduler();
+        Restaurant alwaysOpen = new Restaurant.Builder("1")
+                .setOpeningHoursAvailable(true)
+                .setAlwaysOpen(true)
+                .build();
+
+        scheduler.reset(Arrays.asList(alwaysOpen, new Restaurant.Builder("2").build()), generateMonday(12, 0));
+
+        assertEquals(Long.MAX_VALUE, scheduler.getNextChangeMillis());
+    }
+
+    private Restaurant generateRestaurant(String placeId, int openingHour, int closingHour) {
+        Restaurant.Builder restaurant = new Restaurant.Builder(placeId);
+        for (int day = Calendar.SUNDAY; day <= Calendar.SATURDAY; day++) {
+            restaurant.addOpeningPeriod(new OpenPeriod(day, openingHour, 0, day, closingHour, 0));
+        }
+        restaurant.setOpeningHoursAvailable(true);
+        return restaurant.build();
+    }
+
+    private Calendar generateMonday(int hour, int minute) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(2021, Calendar.DECEMBER, 20, hour, minute);
+        return calendar;
+    }
+}
@@ -0,0 +1,144 @@
+package com.camel.go4lunch.utilsTests;
+
+import com.camel.go4lunch.models.OpenPeriod;
+import com.camel.go4lunch.models.OpeningSchedule;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+
+import static com.camel.go4lunch.models.OpeningSchedule.ALWAYS_OPEN;
+import static com.camel.go4lunch.models.OpeningSchedule.CLOSED;
+import static com.camel.go4lunch.models.OpeningSchedule.MINUTES_PER_WEEK;
+import static com.camel.go4lunch.models.OpeningSchedule.getMinuteOfWeek;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OpeningScheduleTest {
+
+    @Test
+    public void test_getMinuteOfWeek_givenCalendar() {
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2021, Calendar.DECEMBER, 20, 10, 30);     // Monday
+
+        assertEquals(getMinuteOfWeek(Calendar.MONDAY, 10, 30), getMinuteOfWeek(calendar));
+        assertEquals(24 * 60 + 10 * 60 + 30, getMinuteOfWeek(calendar));
+    }
+
+    @Test
+    public void test_getMinuteOfWeek_wrapsOutOfRangeDays() {
+        assertEquals(getMinuteOfWeek(Calendar.SUNDAY, 2, 0), getMinuteOfWeek(8, 2, 0));
+        assertEquals(getMinuteOfWeek(Calendar.SATURDAY, 2, 0), getMinuteOfWeek(0, 2, 0));
+    }
+
+    @Test
+    public void test_getClosingMinute_givenLunchAndDinnerPeriods() {
+        OpeningSchedule schedule = OpeningSchedule.compile(generateLunchAndDinnerPeriods());
+
+        assertEquals(getMinuteOfWeek(Calendar.MONDAY, 12, 0), schedule.getClosingMinute(getMinuteOfWeek(Calendar.MONDAY, 10, 30)));
+        assertEquals(getMinuteOfWeek(Calendar.MONDAY, 18, 0), schedule.getClosingMinute(getMinuteOfWeek(Calendar.MONDAY, 15, 30)));
+        assertEquals(CLOSED, schedule.getClosingMinute(getMinuteOfWeek(Calendar.MONDAY, 7, 30)));
+        assertEquals(CLOSED, schedule.getClosingMinute(getMinuteOfWeek(Calendar.MONDAY, 12, 30)));
+        assertEquals(CLOSED, schedule.getClosingMinute(getMinuteOfWeek(Calendar.MONDAY, 20, 30)));
+        assertEquals(CLOSED, schedule.getClosingMinute(getMinuteOfWeek(Calendar.SUNDAY, 10, 30)));
+    }
+
+    @Test
+    public void test_isOpen_atPeriodBounds() {
+        OpeningSchedule schedule = OpeningSchedule.compile(generateLunchAndDinnerPeriods());
+
+        assertTrue(schedule.isOpen(getMinuteOfWeek(Calendar.MONDAY, 10, 0)));
+        assertTrue(schedule.isOpen(getMinuteOfWeek(Calendar.MONDAY, 11, 59)));
+        assertFalse(schedule.isOpen(getMinuteOfWeek(Calendar.MONDAY, 12, 0)));
+        assertFalse(schedule.isOpen(getMinuteOfWeek(Calendar.MONDAY, 9, 59)));
+    }
+
+    @Test
+    public void test_getClosingMinute_givenCloseAtMidnight() {
+        List<OpenPeriod> periods = new ArrayList<>();
+        for (int day = Calendar.SUNDAY; day <= Calendar.SATURDAY; day++) {
+            periods.add(new OpenPeriod(day, 10, 0, day + 1, 0, 0));
+        }
+        OpeningSchedule schedule = OpeningSchedule.compile(periods);
+
+        assertEquals(getMinuteOfWeek(Calendar.TUESDAY, 0, 0), schedule.getClosingMinute(getMinuteOfWeek(Calendar.MONDAY, 23, 30)));
+        assertEquals(MINUTES_PER_WEEK, schedule.getClosingMinute(getMinuteOfWeek(Calendar.SATURDAY, 23, 30)));
+    }
+
+    @Test
+    public void test_getClosingMinute_givenCloseAfterMidnight() {
+        List<OpenPeriod> periods = new ArrayList<>();
+        for (int day = Calendar.SUNDAY; day <= Calendar.SATURDAY; day++) {
+            periods.add(new OpenPeriod(day, 10, 0, day + 1, 2, 0));
+        }
+        OpeningSchedule schedule = OpeningSchedule.compile(periods);
+
+        assertEquals(getMinuteOfWeek(Calendar.TUESDAY, 2, 0), schedule.getClosingMinute(getMinuteOfWeek(Calendar.TUESDAY, 1, 30)));
+        // Opened on Saturday, closes on Sunday night of the same week
+        assertEquals(getMinuteOfWeek(Calendar.SUNDAY, 2, 0), schedule.getClosingMinute(getMinuteOfWeek(Calendar.SUNDAY, 1, 30)));
+        assertEquals(CLOSED, schedule.getClosingMinute(getMinuteOfWeek(Calendar.SUNDAY, 3, 0)));
+    }
+
+    @Test
+    public void test_getClosingMinute_givenOpenFromSaturdayToSunday() {
+        OpeningSchedule schedule = OpeningSchedule.compile(Arrays.asList(
+                new OpenPeriod(Calendar.SATURDAY, 10, 0, Calendar.SUNDAY, 2, 0),
+                new OpenPeriod(Calendar.SUNDAY, 10, 0, Calendar.SUNDAY, 18, 0)));
+
+        // Asked on Saturday night, the closing time is next week
+        assertEquals(MINUTES_PER_WEEK + getMinuteOfWeek(Calendar.SUNDAY, 2, 0),
+                schedule.getClosingMinute(getMinuteOfWeek(Calendar.SATURDAY, 23, 0)));
+        assertEquals(getMinuteOfWeek(Calendar.SUNDAY, 18, 0), schedule.getClosingMinute(getMinuteOfWeek(Calendar.SUNDAY, 12, 0)));
+    }
+
+    @Test
+    public void test_compile_mergesTouchingPeriods() {
+        OpeningSchedule schedule = OpeningSchedule.compile(Arrays.asList(
+                new OpenPeriod(Calendar.MONDAY, 14, 0, Calendar.MONDAY, 18, 0),
+                new OpenPeriod(Calendar.MONDAY, 10, 0, Calendar.MONDAY, 14, 0)));
+
+        assertEquals(getMinuteOfWeek(Calendar.MONDAY, 18, 0), schedule.getClosingMinute(getMinuteOfWeek(Calendar.MONDAY, 11, 0)));
+    }
+
+    @Test
+    public void test_getClosingMinute_givenOpenAroundTheClock() {
+        OpeningSchedule schedule = OpeningSchedule.compile(Arrays.asList(
+                new OpenPeriod(Calendar.SUNDAY, 0, 0, Calendar.WEDNESDAY, 0, 0),
+                new OpenPeriod(Calendar.WEDNESDAY, 0, 0, Calendar.SUNDAY, 0, 0)));
+
+        assertEquals(ALWAYS_OPEN, schedule.getClosingMinute(getMinuteOfWeek(Calendar.SATURDAY, 23, 0)));
+    }
+
+    @Test
+    public void test_getNextOpeningMinute_givenLunchAndDinnerPeriods() {
+        OpeningSchedule schedule = OpeningSchedule.compile(generateLunchAndDinnerPeriods());
+
+        assertEquals(getMinuteOfWeek(Calendar.MONDAY, 14, 0), schedule.getNextOpeningMinute(getMinuteOfWeek(Calendar.MONDAY, 12, 30)));
+        assertEquals(getMinuteOfWeek(Calendar.MONDAY, 10, 0), schedule.getNextOpeningMinute(getMinuteOfWeek(Calendar.SUNDAY, 20, 0)));
+        // Closed on Saturday night, opens again on Monday of next week
+        assertEquals(MINUTES_PER_WEEK + getMinuteOfWeek(Calendar.MONDAY, 10, 0),
+                schedule.getNextOpeningMinute(getMinuteOfWeek(Calendar.SATURDAY, 20, 0)));
+    }
+
+    @Test
+    public void test_isEmpty_givenNoPeriod() {
+        OpeningSchedule schedule = OpeningSchedule.compile(new ArrayList<>());
+
+        assertTrue(schedule.isEmpty());
+        assertEquals(CLOSED, schedule.getClosingMinute(getMinuteOfWeek(Calendar.MONDAY, 12, 0)));
+        assertEquals(CLOSED, schedule.getNextOpeningMinute(getMinuteOfWeek(Calendar.MONDAY, 12, 0)));
+    }
+
+    private List<OpenPeriod> generateLunchAndDinnerPeriods() {
+        List<OpenPeriod> periods = new ArrayList<>();
+        for (int day = Calendar.MONDAY; day <= Calendar.SATURDAY; day++) {
+            periods.add(new OpenPeriod(day, 10, 0, day, 12, 0));
+            periods.add(new OpenPeriod(day, 14, 0, day, 18, 0));
+        }
+        return periods;
+    }
+}
@@ -0,0 +1,89 @@
+package com.camel.go4lunch.utilsTests;
+
+import com.camel.go4lunch.models.Workmate;
+import com.camel.go4lunch.utils.SortedWorkmateList;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class SortedWorkmateListTest {
+
+    @Test
+    public void test_put_keepsNaturalOrder() {
+        SortedWorkmateList sortedWorkmates = new SortedWorkmateList();
+        sortedWorkmates.put(generateWorkmate("3", ""));
+        sortedWorkmates.put(generateWorkmate("2", "Mizuki"));
+        sortedWorkmates.put(generateWorkmate("1", "Le viand'art"));
+        sortedWorkmates.put(generateWorkmate("4", ""));
+
+        assertEquals("1234", getIds(sortedWorkmates.getWorkmates()));
+    }
+
+    @Test
+    public void test_put_movesModifiedWorkmate() {
+        SortedWorkmateList sortedWorkmates = new SortedWorkmateList();
+        sortedWorkmates.put(generateWorkmate("1", "Le viand'art"));
+        sortedWorkmates.put(generateWorkmate("2", "Mizuki"));
+        sortedWorkmates.put(generateWorkmate("3", ""));
+
+        sortedWorkmates.put(generateWorkmate("3", "Bab"));
+        sortedWorkmates.put(generateWorkmate("1", ""));
+
+        assertEquals(3, sortedWorkmates.size());
+        assertEquals("321", getIds(sortedWorkmates.getWorkmates()));
+    }
+
+    @Test
+    public void test_remove_forgetsWorkmate() {
+        SortedWorkmateList sortedWorkmates = new SortedWorkmateList();
+        sortedWorkmates.put(generateWorkmate("1", ""));
+        sortedWorkmates.put(generateWorkmate("2", ""));
+        sortedWorkmates.put(generateWorkmate("3", ""));
+
+        sortedWorkmates.remove("2");
+        sortedWorkmates.remove("5");
+
+        assertEquals("13", getIds(sortedWorkmates.getWorkmates()));
+    }
+
+    @Test
+    public void test_put_sameOrderAsFullSort() {
+        SortedWorkmateList sortedWorkmates = new SortedWorkmateList();
+        List<Workmate> workmates = new ArrayList<>();
+        String[] restaurantNames = {"", "Mizuki", "Le viand'art", "bab", "Bab", ""};
+        for (int i = 0; i < 30; i++) {
+            Workmate workmate = generateWorkmate(String.valueOf((char) ('a' + i % 26)) + i, restaurantNames[i % restaurantNames.length]);
+            workmates.add(workmate);
+            sortedWorkmates.put(workmate);
+        }
+
+        List<Workmate> expectedWorkmates = new ArrayList<>(workmates);
+        Collections.sort(expectedWorkmates, (workmate1, workmate2) -> workmate1.getUId().compareTo(workmate2.getUId()));
+        Collections.sort(expectedWorkmates);
+
+        assertEquals(getIds(expectedWorkmates), getIds(sortedWorkmates.getWorkmates()));
+    }
+
+    // ---------------
+    // Generate data
+    // ---------------
+
+    private Workmate generateWorkmate(String uId, String chosenRestaurantName) {
+        Workmate workmate = new Workmate(uId, "John Doe", "John", "john.doe@gmail.com", null);
+        workmate.setChosenRestaurantName(chosenRestaurantName);
+        return workmate;
+    }
+
+    private String getIds(List<Workmate> workmates) {
+        StringBuilder ids = new StringBuilder();
+        for (Workmate workmate : workmates) {
+            ids.append(workmate.getUId());
+        }
+        return ids.toString();
+    }
+}
@@ -1,8 +1,11 @@
 package com.camel.go4lunch.viewModelsTests;
 
+import android.location.Location;
+
 import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
 
 import com.camel.go4lunch.models.Restaurant;
+import com.camel.go4lunch.models.RestaurantListViewState;
 import com.camel.go4lunch.repositories.RestaurantUseCase;
 import com.camel.go4lunch.repositories.UserDataRepository;
 import com.camel.go4lunch.ui.fragment.listView.ListViewViewModel;
@@ -12,12 +15,17 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 
 import io.reactivex.Observable;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ListViewViewModelTest {
@@ -36,6 +44,8 @@ public class ListViewViewModelTest {
         mViewModel = new  ListViewViewModel(mRestaurantUseCase, mUserDataRepository);
         when(mRestaurantUseCase.observeRestaurantList()).thenReturn(Observable.just(generateRestaurantList()));
         when(mRestaurantUseCase.observeErrors()).thenReturn(Observable.just(new Exception(new Throwable())));
+        when(mRestaurantUseCase.observeFailedItems()).thenReturn(Observable.empty());
+        when(mUserDataRepository.observeLocation()).thenReturn(Observable.empty());
     }
 
     @Test
@@ -44,9 +54,56 @@ public class ListViewViewModelTest {
         mViewModel.observeRestaurantList().observeForever(restaurants -> assertEquals(2, restaurants.size()));
     }
 
+    @Test
+    public void test_loadNextPage_showsNearestRowsBeforeSearchingPlaces() {
+        when(mRestaurantUseCase.observeRestaurantList()).thenReturn(Observable.just(generateLocatedRestaurants(50)));
+        List<List<RestaurantListViewState>> emittedLists = new ArrayList<>();
+        mViewModel.observeRestaurantList().observeForever(emittedLists::add);
+        mViewModel.startObservers();
+        assertEquals(40, emittedLists.get(emittedLists.size() - 1).size());
+
+        mViewModel.loadNextPage();
+        assertEquals(50, emittedLists.get(emittedLists.size() - 1).size());
+        verify(mRestaurantUseCase, never()).loadNextPage();
+
+        mViewModel.loadNextPage();
+        verify(mRestaurantUseCase).loadNextPage();
+    }
+
+    @Test
+    public void test_observeLocation_showsNearestRestaurantsFromIndex() {
+        HashMap<String, Restaurant> restaurants = generateLocatedRestaurants(3);
+        Location location = mock(Location.class);
+        when(location.getLatitude()).thenReturn(48.8);
+        when(location.getLongitude()).thenReturn(2.3);
+        when(mRestaurantUseCase.observeRestaurantList()).thenReturn(Observable.just(restaurants));
+        when(mUserDataRepository.observeLocation()).thenReturn(Observable.just(location));
+        when(mRestaurantUseCase.getNearestRestaurants(48.8, 2.3, 40))
+                .thenReturn(Observable.just(Collections.singletonList(restaurants.get("place1"))));
+
+        List<List<RestaurantListViewState>> emittedLists = new ArrayList<>();
+        mViewModel.observeRestaurantList().observeForever(emittedLists::add);
+        mViewModel.startObservers();
+
+        List<RestaurantListViewState> shownList = emittedLists.get(emittedLists.size() - 1);
+        assertEquals(1, shownList.size());
+        assertEquals("place1", shownList.get(0).getUId());
+    }
+
+    private HashMap<String, Restaurant> generateLocatedRestaurants(int count) {
+        HashMap<String, Restaurant> restaurantHashMap = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            Restaurant restaurant = new Restaurant.Builder("place" + i)
+                    .setLocation(48.8 + i * 0.001, 2.3)
+                    .build();
+            restaurantHashMap.put(restaurant.getUId(), restaurant);
+        }
+        return restaurantHashMap;
+    }
+
     private HashMap<String, Restaurant> generateRestaurantList() {
-        Restaurant restaurant1 = new Restaurant("ChIJH274sClwjEcRniBZAsyAtH0");
-        Restaurant restaurant2 = new Restaurant("gdsJH2dhfdhdhdr74sCBZAsyAH0");
+        Restaurant restaurant1 = new Restaurant.Builder("ChIJH274sClwjEcRniBZAsyAtH0").build();
+        Restaurant restaurant2 = new Restaurant.Builder("gdsJH2dhfdhdhdr74sCBZAsyAH0").build();
 
         HashMap<String, Restaurant> restaurantHashMap = new HashMap<>();
         restaurantHashMap.put(restaurant1.getUId(), restaurant1);